@@ -0,0 +1,807 @@
+package com.gocardless.codegen;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Generates Gson {@code TypeAdapter}s for the API resources and for the bodies of API requests, so
+ * that the library's {@code Gson} instance doesn't fall back to its reflective adapter for them.
+ *
+ * Adapters are generated for the packages marked with {@code @GenerateTypeAdapters}. Every class
+ * in them, except in {@code com.gocardless.services} where only the request classes which declare
+ * {@code hasBody()} are taken, and every class or enum in those packages reachable from their
+ * fields gets an adapter. The adapters for one top-level class are generated into
+ * {@code <Class>TypeAdapters} in the same package, and each package gets a public
+ * {@code GeneratedTypeAdapterFactory} which {@code GsonFactory} registers.
+ *
+ * As each factory, and the reflection configuration, is built from every class in its packages,
+ * this is registered with Gradle as an aggregating processor rather than an isolating one.
+ *
+ * The generated classes keep their fields and constructors private, so an adapter binds a
+ * {@code MethodHandle} to each field once, when it's first loaded. Fields are then matched with a
+ * {@code switch} on their JSON name, and enums are mapped with a {@code switch} on their
+ * serialized name, rather than through {@code Map} lookups and reflective {@code Field} access.
+ * A GraalVM native-image reflection configuration for the bound fields is generated alongside.
+ */
+@SupportedAnnotationTypes(TypeAdapterProcessor.GENERATE_TYPE_ADAPTERS)
+public final class TypeAdapterProcessor extends AbstractProcessor {
+    static final String GENERATE_TYPE_ADAPTERS = "com.gocardless.http.GenerateTypeAdapters";
+    private static final String SERVICES_PACKAGE = "com.gocardless.services";
+    private static final String SERIALIZED_NAME = "com.google.gson.annotations.SerializedName";
+    private static final String PATH_PARAM = "com.gocardless.http.PathParam";
+    private static final String UNKNOWN = "unknown";
+    // Referred to by its qualified name, as resources have nested classes called Type
+    private static final String TYPE_ADAPTER = "com.google.gson.TypeAdapter";
+    private static final String TYPE_ADAPTER_FACTORY = "com.google.gson.TypeAdapterFactory";
+    private static final String FACTORY_NAME = "GeneratedTypeAdapterFactory";
+    private static final String REFLECT_CONFIG =
+            "META-INF/native-image/com.gocardless/gocardless-pro/reflect-config.json";
+
+    private final Set<String> packages = new LinkedHashSet<>();
+    private boolean generated = false;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (generated || annotations.isEmpty()) {
+            return false;
+        }
+        generated = true;
+        Set<PackageElement> marked = ElementFilter.packagesIn(
+                roundEnv.getElementsAnnotatedWith(annotations.iterator().next()));
+        for (PackageElement markedPackage : marked) {
+            packages.add(markedPackage.getQualifiedName().toString());
+        }
+        Set<TypeElement> targets = findTargets(marked);
+        if (targets.isEmpty()) {
+            return false;
+        }
+        Map<String, Map<TypeElement, List<TypeElement>>> byPackage = new LinkedHashMap<>();
+        for (TypeElement type : targets) {
+            TypeElement topLevel = topLevel(type);
+            byPackage.computeIfAbsent(packageOf(topLevel), k -> new LinkedHashMap<>())
+                    .computeIfAbsent(topLevel, k -> new ArrayList<>()).add(type);
+        }
+        try {
+            for (Map.Entry<String, Map<TypeElement, List<TypeElement>>> entry : byPackage
+                    .entrySet()) {
+                for (Map.Entry<TypeElement, List<TypeElement>> file : entry.getValue()
+                        .entrySet()) {
+                    writeAdapters(entry.getKey(), file.getKey(), file.getValue());
+                }
+                writeFactory(entry.getKey(), entry.getValue());
+            }
+            writeReflectConfig(targets);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to generate type adapters: " + e);
+        }
+        return false;
+    }
+
+    /**
+     * Takes every class in the marked packages, including those not being compiled in this round,
+     * so that the factories are complete however few of the sources have changed.
+     */
+    private Set<TypeElement> findTargets(Set<PackageElement> marked) {
+        Deque<TypeElement> queue = new ArrayDeque<>();
+        for (PackageElement markedPackage : marked) {
+            boolean services = markedPackage.getQualifiedName().contentEquals(SERVICES_PACKAGE);
+            for (TypeElement type : ElementFilter.typesIn(markedPackage.getEnclosedElements())) {
+                if (type.getKind() != ElementKind.CLASS) {
+                    continue;
+                }
+                if (!services) {
+                    queue.add(type);
+                    continue;
+                }
+                for (TypeElement request : ElementFilter.typesIn(type.getEnclosedElements())) {
+                    if (declaresMethod(request, "hasBody")) {
+                        queue.add(request);
+                    }
+                }
+            }
+        }
+        Set<TypeElement> targets = new LinkedHashSet<>();
+        while (!queue.isEmpty()) {
+            TypeElement type = queue.poll();
+            if (!isSupported(type) || !targets.add(type) || type.getKind() == ElementKind.ENUM) {
+                continue;
+            }
+            for (Property property : properties(type)) {
+                addReferencedTypes(property.field.asType(), queue);
+            }
+        }
+        return targets;
+    }
+
+    private void addReferencedTypes(TypeMirror type, Deque<TypeElement> queue) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return;
+        }
+        DeclaredType declaredType = (DeclaredType) type;
+        queue.add((TypeElement) declaredType.asElement());
+        for (TypeMirror argument : declaredType.getTypeArguments()) {
+            addReferencedTypes(argument, queue);
+        }
+    }
+
+    private boolean isSupported(TypeElement type) {
+        if (!packages.contains(packageOf(type))) {
+            return false;
+        }
+        if (type.getKind() != ElementKind.CLASS && type.getKind() != ElementKind.ENUM) {
+            return false;
+        }
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+            return false;
+        }
+        for (Element element = type; element.getKind() != ElementKind.PACKAGE; element =
+                element.getEnclosingElement()) {
+            if (element.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            if (element.getKind() == ElementKind.CLASS
+                    && ((TypeElement) element).getNestingKind() == NestingKind.MEMBER
+                    && !element.getModifiers().contains(Modifier.STATIC)) {
+                return false;
+            }
+        }
+        if (type.getKind() == ElementKind.CLASS) {
+            for (Property property : properties(type)) {
+                if (property.field.asType().getKind().isPrimitive()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private List<Property> properties(TypeElement type) {
+        List<Property> properties = new ArrayList<>();
+        TypeElement current = type;
+        while (current != null && !current.getQualifiedName().contentEquals("java.lang.Object")) {
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                Set<Modifier> modifiers = field.getModifiers();
+                if (!modifiers.contains(Modifier.STATIC)
+                        && !modifiers.contains(Modifier.TRANSIENT)) {
+                    properties.add(new Property(current, field));
+                }
+            }
+            TypeMirror superclass = current.getSuperclass();
+            current = superclass.getKind() == TypeKind.DECLARED
+                    ? (TypeElement) ((DeclaredType) superclass).asElement()
+                    : null;
+        }
+        return properties;
+    }
+
+    private void writeAdapters(String packageName, TypeElement topLevel, List<TypeElement> types)
+            throws IOException {
+        String className = topLevel.getSimpleName() + "TypeAdapters";
+        Source source = new Source(packageName);
+        source.line("import com.google.gson.Gson;");
+        source.line("import com.google.gson.reflect.TypeToken;");
+        source.line("import com.google.gson.stream.JsonReader;");
+        source.line("import com.google.gson.stream.JsonToken;");
+        source.line("import com.google.gson.stream.JsonWriter;");
+        source.line("import java.io.IOException;");
+        source.line("import java.lang.invoke.MethodHandle;");
+        source.line("import java.lang.invoke.MethodHandles;");
+        source.line("import java.lang.reflect.Constructor;");
+        source.line("import java.lang.reflect.Field;");
+        source.line();
+        source.line("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+        source.open("final class " + className);
+        source.open("private " + className + "()");
+        source.line("// blank to prevent instantiation");
+        source.close();
+        for (TypeElement type : types) {
+            source.line();
+            if (type.getKind() == ElementKind.ENUM) {
+                writeEnumAdapter(source, type);
+            } else {
+                writeClassAdapter(source, type);
+            }
+        }
+        source.line();
+        writeHandleFactories(source);
+        source.close();
+        writeSource(packageName + "." + className, source, topLevel);
+    }
+
+    private void writeClassAdapter(Source source, TypeElement type) {
+        String typeName = typeName(type);
+        List<Property> properties = properties(type);
+        ExecutableElement constructor = noArgConstructor(type);
+        // Requests don't have a no-arg constructor to read them with, so reading one is left to
+        // Gson's reflective adapter
+        boolean readable = constructor != null;
+        boolean reflectiveConstructor =
+                readable && constructor.getModifiers().contains(Modifier.PRIVATE);
+        source.open("static final class " + adapterName(type) + " extends " + TYPE_ADAPTER + "<"
+                + typeName + ">");
+        if (reflectiveConstructor) {
+            source.line("private static final MethodHandle CONSTRUCTOR = constructor(" + typeName
+                    + ".class);");
+        }
+        for (Property property : properties) {
+            String declaringClass = rawName(property.declaringClass.asType());
+            if (property.writable) {
+                source.line("private static final MethodHandle " + property.constant()
+                        + "_GETTER = getter(" + declaringClass + ".class, \""
+                        + property.field.getSimpleName() + "\");");
+            }
+            if (readable && property.readable) {
+                source.line("private static final MethodHandle " + property.constant()
+                        + "_SETTER = setter(" + declaringClass + ".class, \""
+                        + property.field.getSimpleName() + "\");");
+            }
+        }
+        source.line();
+        for (Property property : properties) {
+            source.line("private final " + TYPE_ADAPTER + "<"
+                    + adapterTypeName(property.field.asType()) + "> " + property.adapterField()
+                    + ";");
+        }
+        if (!readable) {
+            source.line("private final Gson gson;");
+            source.line("private final " + TYPE_ADAPTER_FACTORY + " factory;");
+            source.line("private volatile " + TYPE_ADAPTER + "<" + typeName + "> delegate;");
+        }
+        source.line();
+        if (readable) {
+            source.open(adapterName(type) + "(Gson gson)");
+        } else {
+            source.open(adapterName(type) + "(Gson gson, " + TYPE_ADAPTER_FACTORY + " factory)");
+            source.line("this.gson = gson;");
+            source.line("this.factory = factory;");
+        }
+        for (Property property : properties) {
+            source.line("this." + property.adapterField() + " = "
+                    + adapterLookup(property.field.asType()) + ";");
+        }
+        source.close();
+        source.line();
+        source.line("@Override");
+        source.open("public void write(JsonWriter out, " + typeName + " value) throws IOException");
+        source.open("if (value == null)");
+        source.line("out.nullValue();");
+        source.line("return;");
+        source.close();
+        source.open("try");
+        source.line("out.beginObject();");
+        for (Property property : properties) {
+            if (!property.writable) {
+                continue;
+            }
+            source.line("out.name(\"" + property.name + "\");");
+            source.line(property.adapterField() + ".write(out, ("
+                    + adapterTypeName(property.field.asType()) + ") " + property.constant()
+                    + "_GETTER.invokeExact(" + receiver(property, type) + "));");
+        }
+        source.line("out.endObject();");
+        writeRethrow(source);
+        source.close();
+        source.close();
+        source.line();
+        source.line("@Override");
+        source.open("public " + typeName + " read(JsonReader in) throws IOException");
+        if (!readable) {
+            source.open("if (delegate == null)");
+            source.line("delegate = gson.getDelegateAdapter(factory, TypeToken.get(" + typeName
+                    + ".class));");
+            source.close();
+            source.line("return delegate.read(in);");
+            source.close();
+            source.close();
+            return;
+        }
+        source.open("if (in.peek() == JsonToken.NULL)");
+        source.line("in.nextNull();");
+        source.line("return null;");
+        source.close();
+        source.open("try");
+        if (reflectiveConstructor) {
+            source.line(typeName + " value = (" + typeName + ") CONSTRUCTOR.invokeExact();");
+        } else {
+            source.line(typeName + " value = new " + typeName + "();");
+        }
+        source.line("in.beginObject();");
+        source.open("while (in.hasNext())");
+        source.open("switch (in.nextName())");
+        for (Property property : properties) {
+            if (!property.readable) {
+                continue;
+            }
+            source.line("case \"" + property.name + "\":");
+            for (String alternate : property.alternates) {
+                source.line("case \"" + alternate + "\":");
+            }
+            source.indent();
+            source.line(property.constant() + "_SETTER.invokeExact(" + receiver(property, type)
+                    + ", " + property.adapterField() + ".read(in));");
+            source.line("break;");
+            source.outdent();
+        }
+        source.line("default:");
+        source.indent();
+        source.line("in.skipValue();");
+        source.outdent();
+        source.close();
+        source.close();
+        source.line("in.endObject();");
+        source.line("return value;");
+        writeRethrow(source);
+        source.close();
+        source.close();
+        source.close();
+    }
+
+    private void writeEnumAdapter(Source source, TypeElement type) {
+        String typeName = typeName(type);
+        Map<String, String> constantToName = new LinkedHashMap<>();
+        Map<String, String> nameToConstant = new LinkedHashMap<>();
+        for (VariableElement constant : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (constant.getKind() != ElementKind.ENUM_CONSTANT) {
+                continue;
+            }
+            String constantName = constant.getSimpleName().toString();
+            AnnotationMirror serializedName = annotation(constant, SERIALIZED_NAME);
+            String name = serializedName == null ? constantName
+                    : (String) annotationValue(serializedName, "value");
+            constantToName.put(constantName, name);
+            if (serializedName != null) {
+                for (String alternate : alternates(serializedName)) {
+                    nameToConstant.putIfAbsent(alternate, constantName);
+                }
+            }
+            nameToConstant.put(name, constantName);
+        }
+        String unknown = nameToConstant.get(UNKNOWN);
+        source.open("static final class " + adapterName(type) + " extends " + TYPE_ADAPTER + "<"
+                + typeName + ">");
+        StringBuilder names = new StringBuilder();
+        for (String name : constantToName.values()) {
+            names.append(names.length() == 0 ? "" : ", ").append('"').append(name).append('"');
+        }
+        source.line("private static final String[] NAMES = {" + names + "};");
+        source.line();
+        source.open(adapterName(type) + "(Gson gson)");
+        source.close();
+        source.line();
+        source.line("@Override");
+        source.open("public void write(JsonWriter out, " + typeName + " value) throws IOException");
+        source.line("out.value(value == null ? null : NAMES[value.ordinal()]);");
+        source.close();
+        source.line();
+        source.line("@Override");
+        source.open("public " + typeName + " read(JsonReader in) throws IOException");
+        source.open("if (in.peek() == JsonToken.NULL)");
+        source.line("in.nextNull();");
+        source.line("return null;");
+        source.close();
+        source.open("switch (in.nextString())");
+        for (Map.Entry<String, String> entry : nameToConstant.entrySet()) {
+            source.line("case \"" + entry.getKey() + "\":");
+            source.indent();
+            source.line("return " + typeName + "." + entry.getValue() + ";");
+            source.outdent();
+        }
+        source.line("default:");
+        source.indent();
+        source.line("return " + (unknown == null ? "null" : typeName + "." + unknown) + ";");
+        source.outdent();
+        source.close();
+        source.close();
+        source.close();
+    }
+
+    private void writeRethrow(Source source) {
+        source.outdent();
+        source.line("} catch (IOException | RuntimeException | Error e) {");
+        source.indent();
+        source.line("throw e;");
+        source.outdent();
+        source.line("} catch (Throwable t) {");
+        source.indent();
+        source.line("throw new AssertionError(t);");
+    }
+
+    private void writeHandleFactories(Source source) {
+        source.open("private static MethodHandle constructor(Class<?> type)");
+        source.open("try");
+        source.line("Constructor<?> constructor = type.getDeclaredConstructor();");
+        source.line("constructor.setAccessible(true);");
+        source.line("return MethodHandles.lookup().unreflectConstructor(constructor);");
+        source.outdent();
+        source.line("} catch (ReflectiveOperationException e) {");
+        source.indent();
+        source.line("throw new AssertionError(e);");
+        source.close();
+        source.close();
+        source.line();
+        source.open("private static MethodHandle getter(Class<?> type, String name)");
+        source.open("try");
+        source.line("return MethodHandles.lookup().unreflectGetter(field(type, name));");
+        source.outdent();
+        source.line("} catch (ReflectiveOperationException e) {");
+        source.indent();
+        source.line("throw new AssertionError(e);");
+        source.close();
+        source.close();
+        source.line();
+        source.open("private static MethodHandle setter(Class<?> type, String name)");
+        source.open("try");
+        source.line("return MethodHandles.lookup().unreflectSetter(field(type, name));");
+        source.outdent();
+        source.line("} catch (ReflectiveOperationException e) {");
+        source.indent();
+        source.line("throw new AssertionError(e);");
+        source.close();
+        source.close();
+        source.line();
+        source.open("private static Field field(Class<?> type, String name) "
+                + "throws NoSuchFieldException");
+        source.line("Field field = type.getDeclaredField(name);");
+        source.line("field.setAccessible(true);");
+        source.line("return field;");
+        source.close();
+    }
+
+    private void writeFactory(String packageName, Map<TypeElement, List<TypeElement>> files)
+            throws IOException {
+        Source source = new Source(packageName);
+        source.line("import com.google.gson.Gson;");
+        source.line("import com.google.gson.TypeAdapter;");
+        source.line("import com.google.gson.TypeAdapterFactory;");
+        source.line("import com.google.gson.reflect.TypeToken;");
+        source.line();
+        source.line("/**");
+        source.line(" * Creates the type adapters generated for the classes in this package.");
+        source.line(" *");
+        source.line(" * This class is generated at build time, and is only public so that the");
+        source.line(" * library's {@code Gson} instance can register it.");
+        source.line(" */");
+        source.open("public final class " + FACTORY_NAME + " implements TypeAdapterFactory");
+        source.line("@Override");
+        source.line("@SuppressWarnings(\"unchecked\")");
+        source.open("public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type)");
+        source.open("switch (type.getRawType().getName())");
+        List<Element> originating = new ArrayList<>();
+        for (Map.Entry<TypeElement, List<TypeElement>> file : files.entrySet()) {
+            originating.add(file.getKey());
+            String className = file.getKey().getSimpleName() + "TypeAdapters";
+            for (TypeElement type : file.getValue()) {
+                source.line("case \"" + processingEnv.getElementUtils().getBinaryName(type)
+                        + "\":");
+                source.indent();
+                String arguments = type.getKind() == ElementKind.CLASS
+                        && noArgConstructor(type) == null ? "(gson, this)" : "(gson)";
+                source.line("return (TypeAdapter<T>) new " + className + "."
+                        + adapterName(type) + arguments + ";");
+                source.outdent();
+            }
+        }
+        source.line("default:");
+        source.indent();
+        source.line("return null;");
+        source.outdent();
+        source.close();
+        source.close();
+        source.close();
+        writeSource(packageName + "." + FACTORY_NAME, source,
+                originating.toArray(new Element[0]));
+    }
+
+    private void writeReflectConfig(Set<TypeElement> targets) throws IOException {
+        Map<TypeElement, Set<String>> fields = new LinkedHashMap<>();
+        Set<TypeElement> constructors = new LinkedHashSet<>();
+        for (TypeElement type : targets) {
+            if (type.getKind() == ElementKind.ENUM) {
+                continue;
+            }
+            ExecutableElement constructor = noArgConstructor(type);
+            if (constructor != null && constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                constructors.add(type);
+            }
+            fields.computeIfAbsent(type, k -> new LinkedHashSet<>());
+            for (Property property : properties(type)) {
+                fields.computeIfAbsent(property.declaringClass, k -> new LinkedHashSet<>())
+                        .add(property.field.getSimpleName().toString());
+            }
+        }
+        StringBuilder json = new StringBuilder("[\n");
+        for (Map.Entry<TypeElement, Set<String>> entry : fields.entrySet()) {
+            if (json.length() > 2) {
+                json.append(",\n");
+            }
+            json.append("  {\n    \"name\": \"")
+                    .append(processingEnv.getElementUtils().getBinaryName(entry.getKey()))
+                    .append("\",\n");
+            if (constructors.contains(entry.getKey())) {
+                json.append("    \"methods\": [{\"name\": \"<init>\", ")
+                        .append("\"parameterTypes\": []}],\n");
+            }
+            json.append("    \"fields\": [");
+            boolean first = true;
+            for (String field : entry.getValue()) {
+                json.append(first ? "\n" : ",\n").append("      {\"name\": \"").append(field)
+                        .append("\", \"allowWrite\": true}");
+                first = false;
+            }
+            json.append(first ? "]\n  }" : "\n    ]\n  }");
+        }
+        json.append("\n]\n");
+        FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT,
+                "", REFLECT_CONFIG, targets.toArray(new Element[0]));
+        try (Writer writer = file.openWriter()) {
+            writer.write(json.toString());
+        }
+    }
+
+    private void writeSource(String className, Source source, Element... originatingElements)
+            throws IOException {
+        try (Writer writer = processingEnv.getFiler()
+                .createSourceFile(className, originatingElements).openWriter()) {
+            writer.write(source.toString());
+        }
+    }
+
+    private static ExecutableElement noArgConstructor(TypeElement type) {
+        for (ExecutableElement constructor : ElementFilter
+                .constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty()) {
+                return constructor;
+            }
+        }
+        return null;
+    }
+
+    private String receiver(Property property, TypeElement type) {
+        if (property.declaringClass.equals(type)) {
+            return "value";
+        }
+        return "(" + rawName(property.declaringClass.asType()) + ") value";
+    }
+
+    private String adapterLookup(TypeMirror type) {
+        if (isConcrete(type) && !((DeclaredType) type).getTypeArguments().isEmpty()) {
+            return "(" + TYPE_ADAPTER + "<" + type + ">) gson.getAdapter(" + typeTokenOf(type)
+                    + ")";
+        }
+        return "gson.getAdapter(" + rawName(type) + ".class)";
+    }
+
+    private String typeTokenOf(TypeMirror type) {
+        StringBuilder expression =
+                new StringBuilder("TypeToken.getParameterized(" + rawName(type) + ".class");
+        for (TypeMirror argument : ((DeclaredType) type).getTypeArguments()) {
+            expression.append(", ");
+            if (((DeclaredType) argument).getTypeArguments().isEmpty()) {
+                expression.append(rawName(argument)).append(".class");
+            } else {
+                expression.append(typeTokenOf(argument)).append(".getType()");
+            }
+        }
+        return expression.append(")").toString();
+    }
+
+    private String adapterTypeName(TypeMirror type) {
+        return isConcrete(type) ? type.toString() : rawName(type);
+    }
+
+    private String rawName(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private String typeName(TypeElement type) {
+        return rawName(type.asType());
+    }
+
+    private static boolean isConcrete(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+        for (TypeMirror argument : ((DeclaredType) type).getTypeArguments()) {
+            if (!isConcrete(argument)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String adapterName(TypeElement type) {
+        StringBuilder name = new StringBuilder();
+        for (Element element = type; element.getKind() != ElementKind.PACKAGE; element =
+                element.getEnclosingElement()) {
+            if (element.getEnclosingElement().getKind() != ElementKind.PACKAGE
+                    || element == type) {
+                name.insert(0, element.getSimpleName());
+            }
+        }
+        return name + "Adapter";
+    }
+
+    private static TypeElement topLevel(TypeElement type) {
+        Element element = type;
+        while (element.getEnclosingElement().getKind() != ElementKind.PACKAGE) {
+            element = element.getEnclosingElement();
+        }
+        return (TypeElement) element;
+    }
+
+    private static String packageOf(Element element) {
+        Element current = element;
+        while (current.getKind() != ElementKind.PACKAGE) {
+            current = current.getEnclosingElement();
+        }
+        return current.toString();
+    }
+
+    private static boolean declaresMethod(TypeElement type, String name) {
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (method.getSimpleName().contentEquals(name) && method.getParameters().isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static AnnotationMirror annotation(Element element, String annotationType) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName()
+                    .contentEquals(annotationType)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private static Object annotationValue(AnnotationMirror mirror, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror
+                .getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    private static List<String> alternates(AnnotationMirror serializedName) {
+        List<String> alternates = new ArrayList<>();
+        Object value = annotationValue(serializedName, "alternate");
+        if (value instanceof List) {
+            for (Object alternate : (List<?>) value) {
+                alternates.add((String) ((AnnotationValue) alternate).getValue());
+            }
+        }
+        return alternates;
+    }
+
+    /**
+     * Matches Gson's {@code FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES}, which the library's
+     * {@code Gson} instance is configured with.
+     */
+    private static String jsonName(String fieldName) {
+        StringBuilder name = new StringBuilder();
+        for (char c : fieldName.toCharArray()) {
+            if (Character.isUpperCase(c) && name.length() != 0) {
+                name.append('_');
+            }
+            name.append(c);
+        }
+        return name.toString().toLowerCase(Locale.ENGLISH);
+    }
+
+    private static final class Property {
+        private final TypeElement declaringClass;
+        private final VariableElement field;
+        private final String name;
+        private final List<String> alternates;
+        private final boolean writable;
+        private final boolean readable;
+
+        private Property(TypeElement declaringClass, VariableElement field) {
+            this.declaringClass = declaringClass;
+            this.field = field;
+            AnnotationMirror serializedName = annotation(field, SERIALIZED_NAME);
+            if (serializedName == null) {
+                this.name = jsonName(field.getSimpleName().toString());
+                this.alternates = new ArrayList<>();
+            } else {
+                this.name = (String) annotationValue(serializedName, "value");
+                this.alternates = alternates(serializedName);
+            }
+            this.writable = annotation(field, PATH_PARAM) == null;
+            this.readable = !field.getModifiers().contains(Modifier.FINAL);
+        }
+
+        private String constant() {
+            return jsonName(field.getSimpleName().toString()).toUpperCase(Locale.ENGLISH);
+        }
+
+        private String adapterField() {
+            return field.getSimpleName() + "Adapter";
+        }
+    }
+
+    private static final class Source {
+        private final StringBuilder builder = new StringBuilder();
+        private int indent = 0;
+
+        private Source(String packageName) {
+            line("// Generated by " + TypeAdapterProcessor.class.getName() + ". Do not edit.");
+            line("package " + packageName + ";");
+            line();
+        }
+
+        private void line() {
+            builder.append('\n');
+        }
+
+        private void line(String line) {
+            for (int i = 0; i < indent; i++) {
+                builder.append("    ");
+            }
+            builder.append(line).append('\n');
+        }
+
+        private void open(String line) {
+            line(line + " {");
+            indent();
+        }
+
+        private void close() {
+            outdent();
+            line("}");
+        }
+
+        private void indent() {
+            indent++;
+        }
+
+        private void outdent() {
+            indent--;
+        }
+
+        @Override
+        public String toString() {
+            return builder.toString();
+        }
+    }
+}
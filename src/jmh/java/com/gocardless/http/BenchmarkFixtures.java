@@ -0,0 +1,57 @@
+package com.gocardless.http;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Strings;
+import com.google.common.io.Resources;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds realistic API payloads for the benchmarks from the templates in
+ * {@code src/jmh/resources/fixtures}.
+ */
+final class BenchmarkFixtures {
+    private BenchmarkFixtures() {
+        // blank to prevent instantiation
+    }
+
+    static String paymentsPage(int size) {
+        return page("payments", "payment", size);
+    }
+
+    static String eventsPage(int size) {
+        return page("events", "event", size);
+    }
+
+    static String webhook(int size) {
+        return "{\"events\":[" + items("event", size)
+                + "],\"meta\":{\"webhook_id\":\"WB00001N6ZQM8A\"}}";
+    }
+
+    private static String page(String envelope, String fixture, int size) {
+        return "{\"" + envelope + "\":[" + items(fixture, size)
+                + "],\"meta\":{\"cursors\":{\"before\":null,\"after\":\"ID" + size
+                + "\"},\"limit\":" + size + "}}";
+    }
+
+    private static String items(String fixture, int size) {
+        String template = load("fixtures/" + fixture + ".json");
+        List<String> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(template.replace("{{n}}", Strings.padStart(Integer.toString(i), 12, '0')));
+        }
+        return Joiner.on(',').join(items);
+    }
+
+    private static String load(String name) {
+        try {
+            return Resources.toString(Resources.getResource(name), UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
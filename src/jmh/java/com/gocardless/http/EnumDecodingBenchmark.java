@@ -0,0 +1,76 @@
+package com.gocardless.http;
+
+import com.gocardless.resources.Payment;
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decodes an array of 100 payment statuses, including values the enum doesn't know about, with
+ * {@link GCEnumTypeAdapterFactory} and with the adapter generated at build time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnumDecodingBenchmark {
+    private static final String[] STATUSES = {"pending_submission", "submitted", "confirmed",
+            "paid_out", "cancelled", "failed", "charged_back", "some_new_status"};
+
+    private TypeAdapter<Payment.Status> gcEnumAdapter;
+    private TypeAdapter<Payment.Status> generatedAdapter;
+    private String statuses;
+
+    @Setup
+    public void setUp() {
+        Gson gson = new Gson();
+        gcEnumAdapter = new GCEnumTypeAdapterFactory().create(gson,
+                TypeToken.get(Payment.Status.class));
+        generatedAdapter = GsonFactory.build().getAdapter(Payment.Status.class);
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 100; i++) {
+            json.append(i == 0 ? "" : ",").append('"').append(STATUSES[i % STATUSES.length])
+                    .append('"');
+        }
+        statuses = json.append("]").toString();
+    }
+
+    @Benchmark
+    public int gcEnumTypeAdapterFactory() throws IOException {
+        return decode(gcEnumAdapter);
+    }
+
+    @Benchmark
+    public int generatedTypeAdapter() throws IOException {
+        return decode(generatedAdapter);
+    }
+
+    private int decode(TypeAdapter<Payment.Status> adapter) throws IOException {
+        JsonReader reader = new JsonReader(new StringReader(statuses));
+        int unknown = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (adapter.read(reader) == Payment.Status.UNKNOWN) {
+                unknown++;
+            }
+        }
+        reader.endArray();
+        return unknown;
+    }
+}
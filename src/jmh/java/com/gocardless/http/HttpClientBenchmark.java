@@ -0,0 +1,55 @@
+package com.gocardless.http;
+
+import com.gocardless.GoCardlessClient;
+import com.gocardless.resources.Payment;
+import com.gocardless.services.PaymentService.PaymentCreateRequest;
+import com.gocardless.services.PaymentService.PaymentListRequest;
+import java.util.concurrent.TimeUnit;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HttpClientBenchmark {
+    private HttpClient httpClient;
+    private PaymentListRequest<ListResponse<Payment>> list;
+    private PaymentCreateRequest create;
+
+    @Setup
+    public void setUp() {
+        httpClient = HttpClient
+                .newBuilder("benchmark_token", "https://api.gocardless.com", new OkHttpClient())
+                .build();
+        GoCardlessClient client = GoCardlessClient.newBuilder("benchmark_token").build();
+        list = client.payments().list().withLimit(500).withAfter("PM000AMA19XGEC")
+                .withCreatedAtGte("2024-03-01T00:00:00.000Z")
+                .withStatus(PaymentListRequest.Status.PAID_OUT);
+        create = client.payments().create().withAmount(1500)
+                .withCurrency(PaymentCreateRequest.Currency.GBP).withLinksMandate("MD000AMA19XGEC")
+                .withIdempotencyKey("benchmark-idempotency-key");
+    }
+
+    @Benchmark
+    public Request buildListRequest() {
+        return httpClient.buildRequest(list);
+    }
+
+    @Benchmark
+    public Request buildCreateRequest() {
+        return httpClient.buildRequest(create);
+    }
+}
@@ -0,0 +1,70 @@
+package com.gocardless.http;
+
+import com.gocardless.GoCardlessClient;
+import com.gocardless.services.InstalmentScheduleService.InstalmentScheduleCreateWithDatesRequest;
+import com.gocardless.services.PaymentService.PaymentCreateRequest;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import okio.Buffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestWriterBenchmark {
+    private static final int INSTALMENTS = 500;
+
+    private RequestWriter writer;
+    private PaymentCreateRequest payment;
+    private InstalmentScheduleCreateWithDatesRequest instalmentSchedule;
+    private Buffer buffer;
+
+    @Setup
+    public void setUp() {
+        writer = new RequestWriter(GsonFactory.build());
+        GoCardlessClient client = GoCardlessClient.newBuilder("benchmark_token").build();
+        payment = client.payments().create().withAmount(1500)
+                .withCurrency(PaymentCreateRequest.Currency.GBP).withChargeDate("2024-03-10")
+                .withReference("INV-000001").withMetadata("order_id", "ORD-000001")
+                .withLinksMandate("MD000AMA19XGEC");
+        instalmentSchedule = client.instalmentSchedules().createWithDates()
+                .withName("Bike purchase").withTotalAmount(INSTALMENTS * 1000)
+                .withCurrency(InstalmentScheduleCreateWithDatesRequest.Currency.GBP)
+                .withLinksMandate("MD000AMA19XGEC");
+        for (int i = 0; i < INSTALMENTS; i++) {
+            instalmentSchedule.withInstalments(
+                    new InstalmentScheduleCreateWithDatesRequest.Instalments().withAmount(1000)
+                            .withChargeDate("2024-03-10").withDescription("Instalment " + i));
+        }
+        buffer = new Buffer();
+    }
+
+    @Benchmark
+    public String writePayment() {
+        return writer.write(payment, "payments");
+    }
+
+    @Benchmark
+    public String writeInstalmentSchedule() {
+        return writer.write(instalmentSchedule, "instalment_schedules");
+    }
+
+    @Benchmark
+    public long streamInstalmentSchedule() throws IOException {
+        buffer.clear();
+        writer.toRequestBody(instalmentSchedule, "instalment_schedules").writeTo(buffer);
+        return buffer.size();
+    }
+}
@@ -0,0 +1,55 @@
+package com.gocardless.http;
+
+import com.gocardless.resources.Event;
+import com.gocardless.resources.Payment;
+import com.google.gson.reflect.TypeToken;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseParserBenchmark {
+    private static final TypeToken<List<Payment>> PAYMENTS = new TypeToken<List<Payment>>() {};
+    private static final TypeToken<List<Event>> EVENTS = new TypeToken<List<Event>>() {};
+
+    @Param({"50", "500"})
+    private int pageSize;
+
+    private ResponseParser parser;
+    private String paymentsPage;
+    private String eventsPage;
+
+    @Setup
+    public void setUp() {
+        parser = new ResponseParser(GsonFactory.build());
+        paymentsPage = BenchmarkFixtures.paymentsPage(pageSize);
+        eventsPage = BenchmarkFixtures.eventsPage(pageSize);
+    }
+
+    @Benchmark
+    public ListResponse<Payment> parsePaymentsPage() throws IOException {
+        return parser.parsePage(new StringReader(paymentsPage), "payments", PAYMENTS);
+    }
+
+    @Benchmark
+    public ListResponse<Event> parseEventsPage() throws IOException {
+        return parser.parsePage(new StringReader(eventsPage), "events", EVENTS);
+    }
+}
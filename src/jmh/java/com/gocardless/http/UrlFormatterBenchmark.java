@@ -0,0 +1,43 @@
+package com.gocardless.http;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import okhttp3.HttpUrl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UrlFormatterBenchmark {
+    private static final Map<String, String> PATH_PARAMS =
+            ImmutableMap.of("identity", "PM000AMA19XGEC");
+    private static final Map<String, Object> QUERY_PARAMS =
+            ImmutableMap.<String, Object>of("limit", 500, "after", "PM000AMA19XGEC",
+                    "created_at[gte]", "2024-03-01T00:00:00.000Z", "status", "paid_out");
+
+    private final UrlFormatter urlFormatter = new UrlFormatter("https://api.gocardless.com");
+
+    @Benchmark
+    public HttpUrl formatUrlWithPathParams() {
+        return urlFormatter.formatUrl("/payments/:identity/actions/cancel", PATH_PARAMS,
+                ImmutableMap.<String, Object>of());
+    }
+
+    @Benchmark
+    public HttpUrl formatUrlWithQueryParams() {
+        return urlFormatter.formatUrl("/payments", ImmutableMap.<String, String>of(),
+                QUERY_PARAMS);
+    }
+}
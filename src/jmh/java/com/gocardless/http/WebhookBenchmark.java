@@ -0,0 +1,49 @@
+package com.gocardless.http;
+
+import com.gocardless.Webhook;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.codec.digest.HmacAlgorithms;
+import org.apache.commons.codec.digest.HmacUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebhookBenchmark {
+    private static final String SECRET = "ED7D658C-D8EB-4941-948B-3973214F2D49";
+
+    @Param({"2", "250"})
+    private int events;
+
+    private String body;
+    private String signature;
+
+    @Setup
+    public void setUp() {
+        body = BenchmarkFixtures.webhook(events);
+        signature = new HmacUtils(HmacAlgorithms.HMAC_SHA_256, SECRET).hmacHex(body);
+    }
+
+    @Benchmark
+    public WebhookParseResult parseWithMeta() {
+        return WebhookParser.parseWithMeta(body);
+    }
+
+    @Benchmark
+    public boolean isValidSignature() {
+        return Webhook.isValidSignature(body, signature, SECRET);
+    }
+}
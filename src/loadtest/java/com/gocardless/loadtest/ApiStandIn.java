@@ -0,0 +1,201 @@
+package com.gocardless.loadtest;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.io.Resources;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.net.ServerSocketFactory;
+import okhttp3.HttpUrl;
+import okhttp3.Protocol;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * A local stand-in for the payments endpoints of the GoCardless API, serving fixture responses
+ * after a fixed latency.
+ *
+ * Creates return a new payment, gets return the requested payment, and lists return the given
+ * number of pages of the given size, linked through their cursors. It speaks either HTTP/1.1, or
+ * HTTP/2 without negotiation (h2c), and counts the connections it accepts and has open.
+ */
+final class ApiStandIn extends Dispatcher implements AutoCloseable {
+    private static final String PAYMENTS = "/payments";
+
+    private final MockWebServer server = new MockWebServer();
+    private final long latencyMillis;
+    private final String paymentTemplate;
+    private final List<String> pages;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger openConnections = new AtomicInteger();
+
+    ApiStandIn(long latencyMillis, int pageSize, int pageCount) throws IOException {
+        this(latencyMillis, pageSize, pageCount, false);
+    }
+
+    ApiStandIn(long latencyMillis, int pageSize, int pageCount, boolean http2)
+            throws IOException {
+        this.latencyMillis = latencyMillis;
+        this.paymentTemplate =
+                Resources.toString(Resources.getResource("payment.json"), UTF_8);
+        this.pages = new ArrayList<>(pageCount);
+        for (int page = 0; page < pageCount; page++) {
+            pages.add(page(page, pageSize, pageCount));
+        }
+        server.setDispatcher(this);
+        server.setServerSocketFactory(new NoDelayServerSocketFactory(connections, openConnections));
+        if (http2) {
+            server.setProtocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE));
+        }
+        server.start();
+    }
+
+    String getBaseUrl() {
+        return server.url("/").toString();
+    }
+
+    /**
+     * Returns the number of connections accepted so far.
+     */
+    int getConnectionCount() {
+        return connections.get();
+    }
+
+    /**
+     * Returns the number of connections currently open.
+     */
+    int getOpenConnectionCount() {
+        return openConnections.get();
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) {
+        HttpUrl url = request.getRequestUrl();
+        String path = url.encodedPath();
+        if (request.getMethod().equals("POST") && path.equals(PAYMENTS)) {
+            return respond(201, "{\"payments\":" + payment("PM" + System.nanoTime()) + "}");
+        }
+        if (request.getMethod().equals("GET") && path.equals(PAYMENTS)) {
+            String after = url.queryParameter("after");
+            int page = after == null ? 0 : Integer.parseInt(after.substring(1));
+            if (page < pages.size()) {
+                return respond(200, pages.get(page));
+            }
+        }
+        if (request.getMethod().equals("GET") && path.startsWith(PAYMENTS + "/")) {
+            String id = path.substring(PAYMENTS.length() + 1);
+            return respond(200, "{\"payments\":" + payment(id) + "}");
+        }
+        return respond(404, "{\"error\":{\"message\":\"Resource not found\","
+                + "\"type\":\"invalid_api_usage\",\"code\":404,\"errors\":[]}}");
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.shutdown();
+    }
+
+    private MockResponse respond(int code, String body) {
+        return new MockResponse().setResponseCode(code)
+                .setHeader("Content-Type", "application/json").setBody(body)
+                .setHeadersDelay(latencyMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private String page(int page, int pageSize, int pageCount) {
+        StringBuilder body = new StringBuilder("{\"payments\":[");
+        for (int i = 0; i < pageSize; i++) {
+            body.append(i == 0 ? "" : ",").append(payment("PM" + (page * pageSize + i)));
+        }
+        String after = page + 1 < pageCount ? "\"P" + (page + 1) + "\"" : "null";
+        return body.append("],\"meta\":{\"cursors\":{\"before\":null,\"after\":").append(after)
+                .append("},\"limit\":").append(pageSize).append("}}").toString();
+    }
+
+    private String payment(String id) {
+        return paymentTemplate.replace("{{id}}", id);
+    }
+
+    /**
+     * Counts accepted and open connections, and disables Nagle's algorithm on them. Without that,
+     * the response headers and body are sent in separate segments, and the body waits on the
+     * client's delayed ACK.
+     */
+    private static final class NoDelayServerSocketFactory extends ServerSocketFactory {
+        private final AtomicInteger connections;
+        private final AtomicInteger openConnections;
+
+        NoDelayServerSocketFactory(AtomicInteger connections, AtomicInteger openConnections) {
+            this.connections = connections;
+            this.openConnections = openConnections;
+        }
+
+        @Override
+        public ServerSocket createServerSocket() throws IOException {
+            return new ServerSocket() {
+                @Override
+                public Socket accept() throws IOException {
+                    Socket socket = new CountedSocket(openConnections);
+                    implAccept(socket);
+                    socket.setTcpNoDelay(true);
+                    connections.incrementAndGet();
+                    openConnections.incrementAndGet();
+                    return socket;
+                }
+            };
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port) throws IOException {
+            return createServerSocket(port, 50, null);
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port, int backlog) throws IOException {
+            return createServerSocket(port, backlog, null);
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port, int backlog, InetAddress address)
+                throws IOException {
+            ServerSocket socket = createServerSocket();
+            try {
+                socket.bind(new InetSocketAddress(address, port), backlog);
+            } catch (IOException e) {
+                socket.close();
+                throw e;
+            }
+            return socket;
+        }
+    }
+
+    /**
+     * An accepted socket which is no longer counted as open once it's closed.
+     */
+    private static final class CountedSocket extends Socket {
+        private final AtomicInteger openConnections;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        CountedSocket(AtomicInteger openConnections) {
+            this.openConnections = openConnections;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed.compareAndSet(false, true)) {
+                openConnections.decrementAndGet();
+            }
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.gocardless.loadtest;
+
+import com.gocardless.GoCardlessClient;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Compares a client making requests over HTTP/1.1, as it does by default, with one multiplexing
+ * them over HTTP/2, against a local {@link ApiStandIn}. Each is driven with payment gets from the
+ * same number of threads. The throughput and latency are reported for each, along with the
+ * connections opened while measuring, and those open at the end.
+ *
+ * Options are passed as {@code --name=value}:
+ *
+ * <ul>
+ * <li>{@code duration}: seconds to measure each protocol for (default 20)</li>
+ * <li>{@code warmup}: seconds to run each protocol for before measuring (default 5)</li>
+ * <li>{@code concurrency}: number of threads making requests (default 64)</li>
+ * <li>{@code latency-ms}: latency of each response from the stand-in (default 20)</li>
+ * <li>{@code connections}: maximum HTTP/2 connections (default 2)</li>
+ * <li>{@code streams}: maximum concurrent streams on each HTTP/2 connection (default 64)</li>
+ * </ul>
+ */
+public final class Http2Comparison {
+    private final int durationSeconds;
+    private final int warmupSeconds;
+    private final int concurrency;
+    private final long latencyMillis;
+    private final int connections;
+    private final int streams;
+
+    private Http2Comparison(Map<String, String> options) {
+        this.durationSeconds = Integer.parseInt(options.getOrDefault("duration", "20"));
+        this.warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "5"));
+        this.concurrency = Integer.parseInt(options.getOrDefault("concurrency", "64"));
+        this.latencyMillis = Long.parseLong(options.getOrDefault("latency-ms", "20"));
+        this.connections = Integer.parseInt(options.getOrDefault("connections", "2"));
+        this.streams = Integer.parseInt(options.getOrDefault("streams", "64"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new Http2Comparison(options).run();
+    }
+
+    private void run() throws Exception {
+        System.out.printf("%-22s %10s %8s %10s %9s %9s %8s %6s%n", "protocol", "requests",
+                "errors", "req/s", "p50 ms", "p99 ms", "opened", "open");
+        measure("HTTP/1.1", false);
+        measure(String.format("h2c (%dx%d streams)", connections, streams), true);
+    }
+
+    private void measure(String protocol, boolean http2) throws Exception {
+        try (ApiStandIn standIn = new ApiStandIn(latencyMillis, 1, 1, http2)) {
+            GoCardlessClient.Builder builder = GoCardlessClient.newBuilder("loadtest_token")
+                    .withBaseUrl(standIn.getBaseUrl());
+            if (http2) {
+                builder.withHttp2(connections, streams);
+            }
+            try (GoCardlessClient client = builder.build()) {
+                Histogram histogram = new ConcurrentHistogram(3);
+                LongAdder errors = new LongAdder();
+                drive(client, warmupSeconds, null, errors);
+                errors.reset();
+                // Connections raced open as the first requests start aren't counted
+                int opened = standIn.getConnectionCount();
+                drive(client, durationSeconds, histogram, errors);
+                System.out.printf("%-22s %10d %8d %10.1f %9.2f %9.2f %8d %6d%n", protocol,
+                        histogram.getTotalCount(), errors.sum(),
+                        histogram.getTotalCount() / (double) durationSeconds,
+                        histogram.getValueAtPercentile(50) / 1000.0,
+                        histogram.getValueAtPercentile(99) / 1000.0,
+                        standIn.getConnectionCount() - opened, standIn.getOpenConnectionCount());
+            }
+        }
+    }
+
+    /**
+     * Makes requests from every thread for the given time, recording their latencies in
+     * microseconds unless the histogram is null.
+     */
+    private void drive(GoCardlessClient client, int seconds, Histogram histogram,
+            LongAdder errors) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            workers.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        Operation.GET.run(client, 1);
+                        if (histogram != null) {
+                            histogram.recordValue(
+                                    TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                        }
+                    } catch (RuntimeException e) {
+                        errors.increment();
+                    }
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(seconds + 60, TimeUnit.SECONDS);
+    }
+}
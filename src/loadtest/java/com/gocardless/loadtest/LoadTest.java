@@ -0,0 +1,171 @@
+package com.gocardless.loadtest;
+
+import com.gocardless.GoCardlessClient;
+import com.google.common.base.Splitter;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Drives one {@link GoCardlessClient} against a local {@link ApiStandIn} from a number of
+ * threads, and reports the throughput and latency distribution of each endpoint.
+ *
+ * Options are passed as {@code --name=value}:
+ *
+ * <ul>
+ * <li>{@code duration}: seconds to measure for (default 30)</li>
+ * <li>{@code warmup}: seconds to run for before measuring (default 5)</li>
+ * <li>{@code concurrency}: number of threads making requests (default 16)</li>
+ * <li>{@code latency-ms}: latency of each response from the stand-in (default 20)</li>
+ * <li>{@code mix}: relative weights of each operation (default create=1,get=8,list=1)</li>
+ * <li>{@code page-size}: items per page when listing (default 50)</li>
+ * <li>{@code pages}: pages to iterate through when listing (default 4)</li>
+ * <li>{@code output}: directory to write an HDR histogram for each endpoint to (optional)</li>
+ * </ul>
+ */
+public final class LoadTest {
+    private final int durationSeconds;
+    private final int warmupSeconds;
+    private final int concurrency;
+    private final long latencyMillis;
+    private final Map<Operation, Integer> mix;
+    private final int pageSize;
+    private final int pages;
+    private final String output;
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private volatile boolean measuring = false;
+
+    private LoadTest(Map<String, String> options) {
+        this.durationSeconds = Integer.parseInt(options.getOrDefault("duration", "30"));
+        this.warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "5"));
+        this.concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+        this.latencyMillis = Long.parseLong(options.getOrDefault("latency-ms", "20"));
+        this.pageSize = Integer.parseInt(options.getOrDefault("page-size", "50"));
+        this.pages = Integer.parseInt(options.getOrDefault("pages", "4"));
+        this.output = options.get("output");
+        this.mix = new EnumMap<>(Operation.class);
+        for (Map.Entry<String, String> weight : Splitter.on(',').withKeyValueSeparator('=')
+                .split(options.getOrDefault("mix", "create=1,get=8,list=1")).entrySet()) {
+            mix.put(Operation.valueOf(weight.getKey().toUpperCase()),
+                    Integer.parseInt(weight.getValue()));
+        }
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new ConcurrentHistogram(3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        new LoadTest(options).run();
+    }
+
+    private void run() throws Exception {
+        try (ApiStandIn standIn = new ApiStandIn(latencyMillis, pageSize, pages)) {
+            GoCardlessClient client = GoCardlessClient.newBuilder("loadtest_token")
+                    .withBaseUrl(standIn.getBaseUrl()).build();
+            long deadline = System.nanoTime()
+                    + TimeUnit.SECONDS.toNanos(warmupSeconds + durationSeconds);
+            ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                workers.execute(() -> work(client, deadline));
+            }
+            System.out.printf("Warming up for %ds with %d threads...%n", warmupSeconds,
+                    concurrency);
+            TimeUnit.SECONDS.sleep(warmupSeconds);
+            measuring = true;
+            System.out.printf("Measuring for %ds...%n", durationSeconds);
+            workers.shutdown();
+            workers.awaitTermination(durationSeconds + 60, TimeUnit.SECONDS);
+            report();
+        }
+    }
+
+    private void work(GoCardlessClient client, long deadline) {
+        int totalWeight = 0;
+        for (int weight : mix.values()) {
+            totalWeight += weight;
+        }
+        while (System.nanoTime() < deadline) {
+            Operation operation = pick(ThreadLocalRandom.current().nextInt(totalWeight));
+            boolean recording = measuring;
+            long start = System.nanoTime();
+            try {
+                operation.run(client, pageSize);
+                if (recording) {
+                    histograms.get(operation)
+                            .recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                }
+            } catch (RuntimeException e) {
+                if (recording) {
+                    errors.get(operation).increment();
+                }
+            }
+        }
+    }
+
+    private Operation pick(int roll) {
+        int remaining = roll;
+        for (Map.Entry<Operation, Integer> weight : mix.entrySet()) {
+            remaining -= weight.getValue();
+            if (remaining < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("No operation for " + roll);
+    }
+
+    private void report() throws FileNotFoundException {
+        long total = 0;
+        System.out.printf("%n%-16s %10s %8s %10s %9s %9s %9s %9s %9s%n", "endpoint", "requests",
+                "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Operation operation : mix.keySet()) {
+            Histogram histogram = histograms.get(operation);
+            total += histogram.getTotalCount();
+            System.out.printf("%-16s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    operation.getEndpoint(), histogram.getTotalCount(),
+                    errors.get(operation).sum(),
+                    histogram.getTotalCount() / (double) durationSeconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+        System.out.printf("%-16s %10d %8s %10.1f%n", "total", total, "",
+                total / (double) durationSeconds);
+        if (output != null) {
+            File directory = new File(output);
+            directory.mkdirs();
+            for (Operation operation : mix.keySet()) {
+                File file = new File(directory, operation.getEndpoint() + ".hgrm");
+                try (PrintStream out = new PrintStream(file)) {
+                    // Recorded in microseconds, reported in milliseconds
+                    histograms.get(operation).outputPercentileDistribution(out, 1000.0);
+                }
+            }
+            System.out.println("\nHDR histograms written to " + directory);
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
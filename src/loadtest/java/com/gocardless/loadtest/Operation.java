@@ -0,0 +1,54 @@
+package com.gocardless.loadtest;
+
+import com.gocardless.GoCardlessClient;
+import com.gocardless.resources.Payment;
+import com.gocardless.services.PaymentService.PaymentCreateRequest;
+
+/**
+ * The kinds of request the load test makes, each recorded as a separate endpoint.
+ */
+enum Operation {
+    /**
+     * Creates a payment, through an {@code IdempotentPostRequest}.
+     */
+    CREATE("payments.create") {
+        @Override
+        void run(GoCardlessClient client, int pageSize) {
+            client.payments().create().withAmount(1500)
+                    .withCurrency(PaymentCreateRequest.Currency.GBP)
+                    .withLinksMandate("MD000AMA19XGEC").execute();
+        }
+    },
+    /**
+     * Fetches a single payment.
+     */
+    GET("payments.get") {
+        @Override
+        void run(GoCardlessClient client, int pageSize) {
+            client.payments().get("PM000AMA19XGEC").execute();
+        }
+    },
+    /**
+     * Iterates through every page of payments with {@code all()}.
+     */
+    LIST("payments.all") {
+        @Override
+        void run(GoCardlessClient client, int pageSize) {
+            for (Payment payment : client.payments().all().withLimit(pageSize).execute()) {
+                payment.getId();
+            }
+        }
+    };
+
+    private final String endpoint;
+
+    Operation(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    String getEndpoint() {
+        return endpoint;
+    }
+
+    abstract void run(GoCardlessClient client, int pageSize);
+}
@@ -1,18 +1,58 @@
 package com.gocardless;
 
+import com.gocardless.http.AdaptiveConcurrencyPolicy;
+import com.gocardless.http.BackoffRetryPolicy;
+import com.gocardless.http.BulkheadPolicy;
+import com.gocardless.http.CircuitBreakerPolicy;
+import com.gocardless.http.FairSchedulingPolicy;
+import com.gocardless.http.HedgingPolicy;
 import com.gocardless.http.HttpClient;
 import com.gocardless.http.LoggingInterceptor;
+import com.gocardless.http.RequestPriority;
+import com.gocardless.http.ResponseCache;
+import com.gocardless.http.RetryPolicy;
+import com.gocardless.resources.BillingRequest;
+import com.gocardless.resources.BillingRequestFlow;
+import com.gocardless.resources.Customer;
+import com.gocardless.resources.CustomerBankAccount;
+import com.gocardless.resources.Event;
+import com.gocardless.resources.InstalmentSchedule;
+import com.gocardless.resources.Mandate;
+import com.gocardless.resources.Payment;
+import com.gocardless.resources.Payout;
+import com.gocardless.resources.Refund;
+import com.gocardless.resources.Subscription;
 import com.gocardless.services.*;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
 import java.net.Proxy;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 import javax.net.ssl.SSLSocketFactory;
 import javax.net.ssl.X509TrustManager;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 
 /**
  * Entry point into the client.
  */
-public class GoCardlessClient {
+public class GoCardlessClient implements AutoCloseable {
+    /**
+     * How long {@link #close()} waits for requests in flight to finish.
+     */
+    public static final Duration DEFAULT_CLOSE_TIMEOUT = Duration.ofSeconds(30);
+    // The resources and request bodies whose JSON adapters are created by warmUp()
+    private static final Class<?>[] WARM_UP_TYPES = {BillingRequest.class,
+            BillingRequestFlow.class, Customer.class, CustomerBankAccount.class, Event.class,
+            InstalmentSchedule.class, Mandate.class, Payment.class, Payout.class, Refund.class,
+            Subscription.class, BillingRequestService.BillingRequestCreateRequest.class,
+            CustomerService.CustomerCreateRequest.class, MandateService.MandateCreateRequest.class,
+            PaymentService.PaymentCreateRequest.class, RefundService.RefundCreateRequest.class,
+            SubscriptionService.SubscriptionCreateRequest.class};
     private final HttpClient httpClient;
     private final BalanceService balances;
     private final BankAccountDetailService bankAccountDetails;
@@ -71,6 +111,29 @@ public class GoCardlessClient {
         private int maxNoOfRetries = HttpClient.MAX_RETRIES;
         private long waitBetweenRetriesInMilliSeconds =
                 HttpClient.WAIT_BETWEEN_RETRIES_IN_MILLI_SECONDS;
+        private int paginationPrefetchPages;
+        private int paginationPrefetchMaxItems = 1;
+        private boolean rateLimiting;
+        private RetryPolicy retryPolicy;
+        private HedgingPolicy hedgingPolicy;
+        private CircuitBreakerPolicy circuitBreakerPolicy;
+        private boolean requestCoalescing;
+        private ResponseCache responseCache;
+        private FairSchedulingPolicy fairSchedulingPolicy;
+        private RequestPriority defaultPriority = RequestPriority.NORMAL;
+        private AdaptiveConcurrencyPolicy concurrencyPolicy;
+        private BulkheadPolicy bulkheadPolicy;
+        private OkHttpClient sharedRawClient;
+        private int maxIdleConnections = -1;
+        private Duration keepAliveDuration;
+        private int maxRequests = -1;
+        private int maxRequestsPerHost;
+        private Duration connectTimeout;
+        private Duration readTimeout;
+        private Duration writeTimeout;
+        private Duration callTimeout;
+        private int http2MaxConnections;
+        private int http2MaxConcurrentStreams;
 
         /**
          * Constructor. Users of this library will not need to access this constructor directly -
@@ -126,6 +189,131 @@ public class GoCardlessClient {
             return this;
         }
 
+        /**
+         * Configures the client to make requests with an existing OkHttpClient, sharing its
+         * connection pool, dispatcher and other configuration, rather than building its own. Any
+         * connection, concurrency or timeout settings configured on this builder are applied on
+         * top of it, without changing the OkHttpClient passed in.
+         *
+         * @param okHttpClient the OkHttpClient to share
+         */
+        public Builder withOkHttpClient(OkHttpClient okHttpClient) {
+            this.sharedRawClient = okHttpClient;
+            return this;
+        }
+
+        /**
+         * Configures the pool of connections kept open to the API. By default, up to 5 idle
+         * connections are kept for 5 minutes.
+         *
+         * @param maxIdleConnections the maximum number of idle connections to keep open
+         * @param keepAliveDuration how long to keep an idle connection open for
+         */
+        public Builder withConnectionPool(int maxIdleConnections, Duration keepAliveDuration) {
+            Preconditions.checkArgument(maxIdleConnections >= 0,
+                    "maxIdleConnections must not be negative");
+            Preconditions.checkNotNull(keepAliveDuration, "keepAliveDuration");
+            Preconditions.checkArgument(
+                    !keepAliveDuration.isNegative() && !keepAliveDuration.isZero(),
+                    "keepAliveDuration must be positive");
+            this.maxIdleConnections = maxIdleConnections;
+            this.keepAliveDuration = keepAliveDuration;
+            return this;
+        }
+
+        /**
+         * Configures how many asynchronous requests can be in flight at once. Further requests are
+         * queued until others complete. By default, 64 requests can be in flight, of which 5 can
+         * be to the same host - so only 5 to the API.
+         *
+         * @param maxRequests the maximum number of requests in flight
+         * @param maxRequestsPerHost the maximum number of requests in flight to the API
+         */
+        public Builder withMaxConcurrentRequests(int maxRequests, int maxRequestsPerHost) {
+            Preconditions.checkArgument(maxRequests > 0, "maxRequests must be positive");
+            Preconditions.checkArgument(maxRequestsPerHost > 0,
+                    "maxRequestsPerHost must be positive");
+            this.maxRequests = maxRequests;
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        /**
+         * Configures how long to wait to connect to the API before failing. Defaults to 10
+         * seconds.
+         *
+         * @param connectTimeout the timeout, or zero for no timeout
+         */
+        public Builder withConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        /**
+         * Configures how long to wait for data from the API before failing. Defaults to 10
+         * seconds.
+         *
+         * @param readTimeout the timeout, or zero for no timeout
+         */
+        public Builder withReadTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+            return this;
+        }
+
+        /**
+         * Configures how long to wait while sending data to the API before failing. Defaults to
+         * 10 seconds.
+         *
+         * @param writeTimeout the timeout, or zero for no timeout
+         */
+        public Builder withWriteTimeout(Duration writeTimeout) {
+            this.writeTimeout = writeTimeout;
+            return this;
+        }
+
+        /**
+         * Configures the longest a single attempt at a request can take, from connecting to
+         * reading the whole response, before failing. By default, there's no limit.
+         *
+         * @param callTimeout the timeout, or zero for no timeout
+         */
+        public Builder withCallTimeout(Duration callTimeout) {
+            this.callTimeout = callTimeout;
+            return this;
+        }
+
+        /**
+         * Configures the client to multiplex requests over a few HTTP/2 connections, rather than
+         * needing a connection for each request in flight. HTTP/2 is used even if an OkHttpClient
+         * passed to {@link #withOkHttpClient(OkHttpClient)} is limited to HTTP/1.1, and with a base
+         * URL using plain <code>http</code>, as for a local stand-in for the API, it's used without
+         * negotiation (h2c).
+         *
+         * At most <code>maxConnections * maxConcurrentStreams</code> requests are in flight at
+         * once, with further requests waiting for one to finish. As long as the API allows at
+         * least <code>maxConcurrentStreams</code> streams on each connection, no more than
+         * <code>maxConnections</code> connections are opened. Unless configured separately, the
+         * connection pool keeps <code>maxConnections</code> idle connections, and as many
+         * asynchronous requests can be in flight to the API as there are streams.
+         *
+         * Over <code>https</code>, HTTP/2 is negotiated with the API, and HTTP/1.1 is used if it
+         * can't be, for example behind a proxy which doesn't support HTTP/2. With HTTP/1.1 each
+         * request needs a connection of its own, so once a response arrives over HTTP/1.1, at
+         * most <code>maxConnections</code> requests are in flight at once. Requests already in
+         * flight by then may have opened more connections.
+         *
+         * @param maxConnections the maximum number of connections to open
+         * @param maxConcurrentStreams the maximum number of requests in flight on each connection
+         */
+        public Builder withHttp2(int maxConnections, int maxConcurrentStreams) {
+            Preconditions.checkArgument(maxConnections > 0, "maxConnections must be positive");
+            Preconditions.checkArgument(maxConcurrentStreams > 0,
+                    "maxConcurrentStreams must be positive");
+            this.http2MaxConnections = maxConnections;
+            this.http2MaxConcurrentStreams = maxConcurrentStreams;
+            return this;
+        }
+
         /**
          * Configures the behaviour on an Idempotency Conflict error
          *
@@ -163,23 +351,237 @@ public class GoCardlessClient {
             return this;
         }
 
+        /**
+         * Configures iteration through list responses (with `all()`) to fetch the next pages in
+         * the background while the current page is being consumed
+         *
+         * @param pages the maximum number of pages to fetch ahead of the page being consumed, or 0
+         *        to disable prefetching
+         * @param maxItems the maximum number of items to hold in memory ahead of the page being
+         *        consumed
+         */
+        public Builder withPaginationPrefetch(int pages, int maxItems) {
+            this.paginationPrefetchPages = pages;
+            this.paginationPrefetchMaxItems = maxItems;
+            return this;
+        }
+
+        /**
+         * Configures whether the client paces its requests to stay within the rate limit reported
+         * by the API, rather than sending them as fast as it can and receiving rate limit errors.
+         * Disabled by default, as requests then wait on the calling thread, or on the
+         * OkHttpClient's dispatcher threads when made asynchronously, for up to the rest of the
+         * rate limit window.
+         *
+         * @param rateLimiting true to pace requests using the rate limit headers returned with
+         *        each response, false to send requests as soon as they're made
+         */
+        public Builder withRateLimiting(boolean rateLimiting) {
+            this.rateLimiting = rateLimiting;
+            return this;
+        }
+
+        /**
+         * Configures when the client retries failed requests, in place of the maximum number of
+         * retries and wait between retries. The default policy is a {@link BackoffRetryPolicy}.
+         *
+         * @param retryPolicy the policy deciding whether, and when, to retry failed requests
+         */
+        public Builder withRetryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * Configures the client to hedge requests for single resources, sending a second
+         * identical request if a response is slow to arrive and using whichever response arrives
+         * first. By default, requests aren't hedged.
+         *
+         * @param hedgingPolicy the policy deciding when to hedge requests
+         */
+        public Builder withHedging(HedgingPolicy hedgingPolicy) {
+            this.hedgingPolicy = hedgingPolicy;
+            return this;
+        }
+
+        /**
+         * Configures the client with a circuit breaker for each endpoint, so that requests to an
+         * endpoint which is failing or slow fail straight away with a
+         * {@link com.gocardless.http.CircuitBreakerOpenException}, rather than tying up threads.
+         * By default, there are no circuit breakers.
+         *
+         * @param circuitBreakerPolicy the policy deciding when to open circuit breakers
+         */
+        public Builder withCircuitBreaker(CircuitBreakerPolicy circuitBreakerPolicy) {
+            this.circuitBreakerPolicy = circuitBreakerPolicy;
+            return this;
+        }
+
+        /**
+         * Configures whether concurrent identical <code>GET</code> requests (with the same URL
+         * and custom headers) share a single call to the API and its result, rather than each
+         * making their own. Resources returned to several callers are the same instance.
+         * Disabled by default.
+         *
+         * @param requestCoalescing true to coalesce concurrent identical requests
+         */
+        public Builder withRequestCoalescing(boolean requestCoalescing) {
+            this.requestCoalescing = requestCoalescing;
+            return this;
+        }
+
+        /**
+         * Configures a cache for the responses to requests for single resources, which answers
+         * repeated <code>get</code> requests without calling the API. Individual requests can
+         * skip the cache with <code>withCacheBypass()</code>. Other requests to a resource
+         * through this client remove its cached responses, but changes made elsewhere aren't
+         * seen until they expire. By default, responses aren't cached.
+         *
+         * @param responseCache the cache, for example an
+         *        {@link com.gocardless.http.InMemoryResponseCache}
+         */
+        public Builder withResponseCache(ResponseCache responseCache) {
+            this.responseCache = responseCache;
+            return this;
+        }
+
+        /**
+         * Configures fair scheduling of requests between the access tokens of clients created by
+         * a {@link GoCardlessClientFactory}, limiting the requests in flight for each so that no
+         * merchant can hold up requests for the others. By default, requests aren't queued.
+         *
+         * @param fairSchedulingPolicy the policy deciding how many requests can be in flight
+         */
+        public Builder withFairScheduling(FairSchedulingPolicy fairSchedulingPolicy) {
+            this.fairSchedulingPolicy = fairSchedulingPolicy;
+            return this;
+        }
+
+        /**
+         * Configures the priority of requests which aren't given one with
+         * <code>withPriority</code>. When requests are queued by fair scheduling, those with a
+         * higher priority start first. Defaults to {@link RequestPriority#NORMAL}.
+         *
+         * @param defaultPriority the priority of requests which aren't given one
+         */
+        public Builder withDefaultPriority(RequestPriority defaultPriority) {
+            this.defaultPriority = defaultPriority;
+            return this;
+        }
+
+        /**
+         * Configures the client to limit the number of requests in flight at once, adapting the
+         * limit to how quickly and reliably the API responds. Requests beyond the limit wait for
+         * others to finish. By default, there's no limit.
+         *
+         * @param concurrencyPolicy the policy deciding how the limit adapts
+         */
+        public Builder withAdaptiveConcurrency(AdaptiveConcurrencyPolicy concurrencyPolicy) {
+            this.concurrencyPolicy = concurrencyPolicy;
+            return this;
+        }
+
+        /**
+         * Configures the client with bulkheads, separately limiting the requests in flight to
+         * different groups of endpoints, so that a slow or busy group can't hold up requests to
+         * the others. Requests to a full bulkhead fail with a
+         * {@link com.gocardless.http.BulkheadFullException}. By default, there are no bulkheads.
+         *
+         * @param bulkheadPolicy the bulkheads, and the endpoints assigned to each
+         */
+        public Builder withBulkheads(BulkheadPolicy bulkheadPolicy) {
+            this.bulkheadPolicy = bulkheadPolicy;
+            return this;
+        }
+
         /**
          * Builds a configured instance of the GoCardlessClient
          */
         public GoCardlessClient build() {
-            OkHttpClient.Builder rawClientBuilder = new OkHttpClient.Builder().proxy(proxy);
+            Preconditions.checkState(accessToken != null,
+                    "An access token is required to build a client - use buildFactory() to "
+                            + "build a factory for clients with different access tokens");
+            return new GoCardlessClient(buildHttpClient());
+        }
+
+        /**
+         * Builds a factory for clients with different access tokens, which share a single
+         * configuration, connection pool and set of threads. Use with
+         * GoCardlessClient.newFactoryBuilder().
+         */
+        public GoCardlessClientFactory buildFactory() {
+            return new GoCardlessClientFactory(buildHttpClient());
+        }
+
+        private HttpClient buildHttpClient() {
+            OkHttpClient.Builder rawClientBuilder = sharedRawClient != null
+                    ? sharedRawClient.newBuilder() : new OkHttpClient.Builder();
+            if (proxy != null) {
+                rawClientBuilder.proxy(proxy);
+            }
             if (sslSocketFactory != null && trustManager != null) {
                 rawClientBuilder.sslSocketFactory(sslSocketFactory, trustManager);
             }
+            int maxStreams = http2MaxConnections * http2MaxConcurrentStreams;
+            if (maxStreams > 0) {
+                rawClientBuilder.protocols(baseUrl.startsWith("http:")
+                        ? Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE)
+                        : Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1));
+            }
+            boolean ownsConnectionPool = sharedRawClient == null;
+            if (maxIdleConnections >= 0) {
+                rawClientBuilder.connectionPool(new ConnectionPool(maxIdleConnections,
+                        keepAliveDuration.toNanos(), TimeUnit.NANOSECONDS));
+                ownsConnectionPool = true;
+            } else if (maxStreams > 0) {
+                rawClientBuilder.connectionPool(
+                        new ConnectionPool(http2MaxConnections, 5, TimeUnit.MINUTES));
+                ownsConnectionPool = true;
+            }
+            boolean ownsDispatcher = sharedRawClient == null;
+            if (maxRequests >= 0) {
+                Dispatcher dispatcher = new Dispatcher();
+                dispatcher.setMaxRequests(maxRequests);
+                dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+                rawClientBuilder.dispatcher(dispatcher);
+                ownsDispatcher = true;
+            } else if (maxStreams > 0) {
+                Dispatcher dispatcher = new Dispatcher();
+                dispatcher.setMaxRequests(Math.max(dispatcher.getMaxRequests(), maxStreams));
+                dispatcher.setMaxRequestsPerHost(maxStreams);
+                rawClientBuilder.dispatcher(dispatcher);
+                ownsDispatcher = true;
+            }
+            if (connectTimeout != null) {
+                rawClientBuilder.connectTimeout(connectTimeout);
+            }
+            if (readTimeout != null) {
+                rawClientBuilder.readTimeout(readTimeout);
+            }
+            if (writeTimeout != null) {
+                rawClientBuilder.writeTimeout(writeTimeout);
+            }
+            if (callTimeout != null) {
+                rawClientBuilder.callTimeout(callTimeout);
+            }
             OkHttpClient rawClient =
                     rawClientBuilder.addInterceptor(new LoggingInterceptor()).build();
-            HttpClient client = new HttpClient(accessToken, baseUrl, rawClient,
-                    errorOnIdempotencyConflict, maxNoOfRetries, waitBetweenRetriesInMilliSeconds);
-            return new GoCardlessClient(client);
+            return HttpClient.newBuilder(accessToken, baseUrl, rawClient)
+                    .withErrorOnIdempotencyConflict(errorOnIdempotencyConflict)
+                    .withMaxNoOfRetries(maxNoOfRetries)
+                    .withWaitBetweenRetriesInMilliSeconds(waitBetweenRetriesInMilliSeconds)
+                    .withPaginationPrefetch(paginationPrefetchPages, paginationPrefetchMaxItems)
+                    .withRateLimiting(rateLimiting).withRetryPolicy(retryPolicy)
+                    .withHedging(hedgingPolicy).withCircuitBreaker(circuitBreakerPolicy)
+                    .withRequestCoalescing(requestCoalescing).withResponseCache(responseCache)
+                    .withFairScheduling(fairSchedulingPolicy).withDefaultPriority(defaultPriority)
+                    .withAdaptiveConcurrency(concurrencyPolicy).withBulkheads(bulkheadPolicy)
+                    .withMaxConcurrentStreams(http2MaxConnections, http2MaxConcurrentStreams)
+                    .withShutdownOnClose(ownsDispatcher, ownsConnectionPool).build();
         }
     }
 
-    private GoCardlessClient(HttpClient httpClient) {
+    GoCardlessClient(HttpClient httpClient) {
         this.httpClient = httpClient;
         this.balances = new BalanceService(httpClient);
         this.bankAccountDetails = new BankAccountDetailService(httpClient);
@@ -586,6 +988,63 @@ public class GoCardlessClient {
         return new Builder(accessToken);
     }
 
+    /**
+     * Returns a builder which can be used to configure and instantiate a
+     * {@link GoCardlessClientFactory}, for making requests on behalf of many merchants with their
+     * own access tokens. The factory will automatically be configured to use GoCardless' live
+     * environment.
+     */
+    public static Builder newFactoryBuilder() {
+        return new Builder(null);
+    }
+
+    /**
+     * Gets the client ready to make requests, so that the first ones made aren't slowed down by
+     * setting up. Resolves the API's host, opens the given number of connections to it and keeps
+     * them in the connection pool, and creates the JSON adapters for the main resources. Blocks
+     * until done, so it can be called before reporting an application as ready.
+     *
+     * The connections are opened with unauthenticated requests for the API's base URL. At most as
+     * many connections are kept as the pool allows to be idle - see
+     * {@link Builder#withConnectionPool(int, Duration)} - and they're closed as usual once they've
+     * been idle for the keep-alive duration.
+     *
+     * @param connections the number of connections to open
+     * @return the number of connections opened, which is fewer than asked for if some failed, if
+     *         idle connections in the pool were reused, or if the API multiplexes requests over
+     *         HTTP/2
+     * @throws com.gocardless.http.GoCardlessNetworkException if the API's host can't be resolved
+     */
+    public int warmUp(int connections) {
+        return httpClient.warmUp(connections, WARM_UP_TYPES);
+    }
+
+    /**
+     * Closes the client, waiting up to {@link #DEFAULT_CLOSE_TIMEOUT} for requests in flight to
+     * finish. See {@link #close(Duration)}.
+     */
+    @Override
+    public void close() {
+        close(DEFAULT_CLOSE_TIMEOUT);
+    }
+
+    /**
+     * Closes the client. New requests are refused straight away, with an
+     * {@link IllegalStateException}, while those already in flight - including any waiting to be
+     * retried - are given up to the timeout to finish, after which they're cancelled. The client's
+     * threads are then shut down and its idle connections closed, unless they're shared with an
+     * OkHttpClient passed to {@link Builder#withOkHttpClient(OkHttpClient)}.
+     *
+     * Closing a client created by a {@link GoCardlessClientFactory} only waits for its own
+     * requests, as its threads and connections belong to the factory.
+     *
+     * @param timeout how long to wait for requests in flight to finish
+     * @return whether every request in flight finished before the timeout
+     */
+    public boolean close(Duration timeout) {
+        return httpClient.close(timeout);
+    }
+
     @VisibleForTesting
     HttpClient getHttpClient() {
         return httpClient;
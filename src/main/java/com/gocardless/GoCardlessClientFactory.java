@@ -0,0 +1,71 @@
+package com.gocardless;
+
+import com.gocardless.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Creates clients which make requests on behalf of many merchants, each with their own access
+ * token.
+ *
+ * Every client created shares the factory's configuration, connection pool, threads and JSON
+ * parsers, so creating one is cheap and doesn't open any new connections. Each access token still
+ * has its own rate limit, shared by every client created for it, so clients can be created for
+ * each unit of work rather than kept. Instantiate using GoCardlessClient.newFactoryBuilder():
+ *
+ * <pre>
+ * GoCardlessClientFactory factory = GoCardlessClient.newFactoryBuilder()
+ *         .withEnvironment(GoCardlessClient.Environment.SANDBOX).buildFactory();
+ * GoCardlessClient client = factory.forAccessToken(merchantAccessToken);
+ * </pre>
+ */
+public final class GoCardlessClientFactory implements AutoCloseable {
+    private final HttpClient httpClient;
+
+    GoCardlessClientFactory(HttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    /**
+     * Returns a client which makes requests with the given access token.
+     *
+     * @param accessToken the access token to use to access the GoCardless API
+     */
+    public GoCardlessClient forAccessToken(String accessToken) {
+        return new GoCardlessClient(httpClient.withAccessToken(accessToken));
+    }
+
+    /**
+     * Returns a client which makes requests with the given access token, given a weight when
+     * scheduling requests fairly between access tokens - the number of its requests which start
+     * on each turn. Clients have a weight of 1 by default.
+     *
+     * @param accessToken the access token to use to access the GoCardless API
+     * @param weight the weight of the access token's requests
+     * @see GoCardlessClient.Builder#withFairScheduling(com.gocardless.http.FairSchedulingPolicy)
+     */
+    public GoCardlessClient forAccessToken(String accessToken, int weight) {
+        return new GoCardlessClient(httpClient.withAccessToken(accessToken, weight));
+    }
+
+    /**
+     * Closes the factory and every client it has created, waiting up to
+     * {@link GoCardlessClient#DEFAULT_CLOSE_TIMEOUT} for requests in flight to finish. See
+     * {@link #close(Duration)}.
+     */
+    @Override
+    public void close() {
+        close(GoCardlessClient.DEFAULT_CLOSE_TIMEOUT);
+    }
+
+    /**
+     * Closes the factory and every client it has created. New requests are refused, while those
+     * already in flight are given up to the timeout to finish, after which they're cancelled. The
+     * shared threads are then shut down and idle connections closed.
+     *
+     * @param timeout how long to wait for requests in flight to finish
+     * @return whether every request in flight finished before the timeout
+     */
+    public boolean close(Duration timeout) {
+        return httpClient.close(timeout);
+    }
+}
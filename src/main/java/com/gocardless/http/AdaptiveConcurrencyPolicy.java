@@ -0,0 +1,252 @@
+package com.gocardless.http;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configures a limit on the number of requests in flight at once which adapts to how the API is
+ * coping, so that there's no need to guess how many threads should call it.
+ *
+ * The limit is found by additive increase, multiplicative decrease. While requests succeed
+ * quickly and the limit is being used, it grows by about one each time a limit's worth of requests
+ * completes. When a request is rate limited, fails with a network or internal error, or is slow,
+ * the limit shrinks by the backoff ratio - but only once for each round trip, as the requests
+ * already in flight when it shrank were sent under the old limit, and a burst of them failing
+ * together says no more than the first did. Requests beyond the limit queue until others finish,
+ * blocking the calling thread for synchronous requests.
+ */
+public final class AdaptiveConcurrencyPolicy {
+    private final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+    private final Ticker ticker;
+    private int minLimit = 1;
+    private int maxLimit = 200;
+    private double backoffRatio = 0.9;
+    private long slowCallNanos = Duration.ofSeconds(5).toNanos();
+    private double limit = 20;
+    private int inFlight;
+    private long queuedCount;
+    private long droppedCount;
+    private boolean decreased;
+    private long decreasedAt;
+
+    public AdaptiveConcurrencyPolicy() {
+        this(Ticker.systemTicker());
+    }
+
+    @VisibleForTesting
+    AdaptiveConcurrencyPolicy(Ticker ticker) {
+        this.ticker = ticker;
+    }
+
+    /**
+     * The limit to start with. Defaults to 20.
+     */
+    public synchronized AdaptiveConcurrencyPolicy withInitialLimit(int initialLimit) {
+        Preconditions.checkArgument(initialLimit > 0, "initialLimit must be positive");
+        this.limit = initialLimit;
+        return this;
+    }
+
+    /**
+     * The smallest and largest the limit can be. Defaults to 1 and 200.
+     */
+    public synchronized AdaptiveConcurrencyPolicy withLimitRange(int minLimit, int maxLimit) {
+        Preconditions.checkArgument(minLimit > 0, "minLimit must be positive");
+        Preconditions.checkArgument(maxLimit >= minLimit, "maxLimit must be at least minLimit");
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        return this;
+    }
+
+    /**
+     * The proportion of the limit kept when a request fails or is slow. Defaults to 0.9.
+     */
+    public synchronized AdaptiveConcurrencyPolicy withBackoffRatio(double backoffRatio) {
+        Preconditions.checkArgument(backoffRatio > 0 && backoffRatio < 1,
+                "backoffRatio must be between 0 and 1");
+        this.backoffRatio = backoffRatio;
+        return this;
+    }
+
+    /**
+     * The time after which a request is considered slow, shrinking the limit. Defaults to 5
+     * seconds.
+     */
+    public synchronized AdaptiveConcurrencyPolicy withSlowCallThreshold(
+            Duration slowCallDuration) {
+        Preconditions.checkArgument(!slowCallDuration.isNegative(),
+                "slowCallDuration must not be negative");
+        this.slowCallNanos = slowCallDuration.toNanos();
+        return this;
+    }
+
+    /**
+     * Returns the current limit on the number of requests in flight.
+     */
+    public synchronized int getLimit() {
+        return currentLimit();
+    }
+
+    /**
+     * Returns statistics about the requests limited.
+     */
+    public synchronized Stats getStats() {
+        return new Stats(currentLimit(), inFlight, queue.size(), queuedCount, droppedCount);
+    }
+
+    /**
+     * Waits up to the given time for a request to be allowed to start. Unless it times out, it
+     * must be released once it has finished.
+     *
+     * @return false if the request wasn't allowed to start in time
+     */
+    boolean acquire(long timeoutNanos) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        Runnable request = started::countDown;
+        schedule(request);
+        try {
+            if (started.await(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            if (!cancel(request)) {
+                release(-1, false);
+            }
+            throw e;
+        }
+        // It may have been allowed to start since timing out
+        return !cancel(request);
+    }
+
+    /**
+     * Queues a request, running it once it's allowed to start, which may be straight away on this
+     * thread. It must be released once it has finished.
+     */
+    void schedule(Runnable request) {
+        boolean startNow;
+        synchronized (this) {
+            startNow = queue.isEmpty() && inFlight < currentLimit();
+            if (startNow) {
+                inFlight++;
+            } else {
+                queue.add(request);
+                queuedCount++;
+            }
+        }
+        if (startNow) {
+            request.run();
+        }
+    }
+
+    /**
+     * Removes a queued request, returning false if it has already been allowed to start.
+     */
+    synchronized boolean cancel(Runnable request) {
+        return queue.removeFirstOccurrence(request);
+    }
+
+    /**
+     * Records that a request has finished, adjusting the limit and letting queued requests start.
+     *
+     * @param latencyNanos how long the request took after it was sent, or -1 if it wasn't made
+     * @param dropped whether the request was rate limited or failed in a way suggesting the API
+     *        is overloaded
+     */
+    void release(long latencyNanos, boolean dropped) {
+        List<Runnable> started = new ArrayList<>();
+        long now = ticker.read();
+        synchronized (this) {
+            if (latencyNanos >= 0) {
+                if (dropped || latencyNanos > slowCallNanos) {
+                    droppedCount++;
+                    // Requests sent before the limit last shrank don't shrink it again
+                    if (!decreased || now - latencyNanos - decreasedAt > 0) {
+                        limit = Math.max(minLimit, limit * backoffRatio);
+                        decreased = true;
+                        decreasedAt = now;
+                    }
+                } else if (inFlight * 2 >= limit) {
+                    // Only grow while the limit is being used, or it would grow without bound
+                    limit = Math.min(maxLimit, limit + 1 / limit);
+                }
+            }
+            inFlight--;
+            while (!queue.isEmpty() && inFlight < currentLimit()) {
+                inFlight++;
+                started.add(queue.pollFirst());
+            }
+        }
+        started.forEach(Runnable::run);
+    }
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Statistics about the requests limited by an {@link AdaptiveConcurrencyPolicy}.
+     */
+    public static final class Stats {
+        private final int limit;
+        private final int inFlight;
+        private final int queueLength;
+        private final long queuedCount;
+        private final long droppedCount;
+
+        Stats(int limit, int inFlight, int queueLength, long queuedCount, long droppedCount) {
+            this.limit = limit;
+            this.inFlight = inFlight;
+            this.queueLength = queueLength;
+            this.queuedCount = queuedCount;
+            this.droppedCount = droppedCount;
+        }
+
+        /**
+         * Returns the limit on the number of requests in flight.
+         */
+        public int getLimit() {
+            return limit;
+        }
+
+        /**
+         * Returns the number of requests in flight.
+         */
+        public int getInFlight() {
+            return inFlight;
+        }
+
+        /**
+         * Returns the number of requests waiting to start.
+         */
+        public int getQueueLength() {
+            return queueLength;
+        }
+
+        /**
+         * Returns the number of requests which have had to wait to start.
+         */
+        public long getQueuedCount() {
+            return queuedCount;
+        }
+
+        /**
+         * Returns the number of requests which failed or were slow, shrinking the limit.
+         */
+        public long getDroppedCount() {
+            return droppedCount;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("limit=%d inFlight=%d queueLength=%d queued=%d dropped=%d",
+                    limit, inFlight, queueLength, queuedCount, droppedCount);
+        }
+    }
+}
@@ -2,6 +2,11 @@ package com.gocardless.http;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
+import com.google.common.io.CharStreams;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
 import okhttp3.HttpUrl;
 
@@ -16,6 +21,9 @@ abstract class ApiRequest<T> {
     // this serialization.
     private transient final HttpClient httpClient;
     private transient final Map<String, String> customHeaders;
+    private transient RequestPriority priority;
+    private transient Duration timeout;
+    private transient Instant deadline;
 
     ApiRequest(HttpClient httpClient) {
         this.httpClient = httpClient;
@@ -49,6 +57,41 @@ abstract class ApiRequest<T> {
         this.customHeaders.put(headerName, headerValue);
     }
 
+    protected final void setPriority(RequestPriority priority) {
+        this.priority = priority;
+    }
+
+    /**
+     * Returns the priority of this request, or null to use the client's default priority.
+     */
+    RequestPriority getPriority() {
+        return priority;
+    }
+
+    protected final void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    protected final void setDeadline(Instant deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * Returns the longest executing this request can take, including retries, or null if there's
+     * no limit.
+     */
+    Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Returns the time by which executing this request must have finished, including retries, or
+     * null if there's no limit.
+     */
+    Instant getDeadline() {
+        return deadline;
+    }
+
     protected final Map<String, String> getCustomHeaders() {
         return ImmutableMap.copyOf(this.customHeaders);
     }
@@ -65,5 +108,26 @@ abstract class ApiRequest<T> {
 
     protected abstract boolean hasBody();
 
-    protected abstract T parseResponse(String responseBody, ResponseParser responseParser);
+    /**
+     * Decodes a successful response's body, once it has been read in full. Requests must
+     * override either this or {@link #parseResponse(Reader, ResponseParser)}.
+     */
+    protected T parseResponse(String responseBody, ResponseParser responseParser) {
+        throw new UnsupportedOperationException(
+                getClass().getName() + " doesn't know how to parse its responses");
+    }
+
+    /**
+     * Decodes a successful response's body as it is read from the connection. By default, the
+     * body is read in full and passed to {@link #parseResponse(String, ResponseParser)}; the
+     * built-in requests override this to decode it as it arrives.
+     *
+     * A body which isn't valid should cause a
+     * {@link com.gocardless.errors.MalformedResponseException}, which the client reports with the
+     * status code and the start of the body.
+     */
+    protected T parseResponse(Reader responseBody, ResponseParser responseParser)
+            throws IOException {
+        return parseResponse(CharStreams.toString(responseBody), responseParser);
+    }
 }
@@ -0,0 +1,120 @@
+package com.gocardless.http;
+
+import com.gocardless.errors.GoCardlessInternalException;
+import com.gocardless.errors.RateLimitException;
+import com.google.common.base.Preconditions;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The default {@link RetryPolicy}, which retries network errors, internal errors and rate limit
+ * errors with exponential backoff.
+ *
+ * Waits are chosen with "decorrelated jitter": each is a random time between the base wait and
+ * three times the previous wait, up to the maximum wait. This spreads out the retries of clients
+ * which failed at the same time, rather than having them all retry together. Where the API says
+ * when to retry, with a <code>Retry-After</code> header or the <code>RateLimit-Reset</code>
+ * header of a rate limit error, the wait is at least that long. That wait is still limited to the
+ * maximum wait, unless there's a deadline, in which case it's limited by the deadline instead.
+ *
+ * Requests are not retried once the number of attempts or the deadline would be exceeded, or when
+ * the client's retry budget has been spent.
+ */
+public final class BackoffRetryPolicy implements RetryPolicy {
+    private int maxAttempts = HttpClient.MAX_RETRIES;
+    private long baseWaitMillis = HttpClient.WAIT_BETWEEN_RETRIES_IN_MILLI_SECONDS;
+    private long maxWaitMillis = 20_000;
+    private long deadlineMillis = -1;
+    private RetryBudget budget = new RetryBudget(0.2, 10);
+
+    /**
+     * The maximum number of attempts made at a request, including the first. Defaults to 3.
+     */
+    public BackoffRetryPolicy withMaxAttempts(int maxAttempts) {
+        Preconditions.checkArgument(maxAttempts > 0, "maxAttempts must be positive");
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * The shortest time to wait before retrying. Defaults to 500 milliseconds.
+     */
+    public BackoffRetryPolicy withBaseWait(Duration baseWait) {
+        Preconditions.checkArgument(!baseWait.isNegative(), "baseWait must not be negative");
+        this.baseWaitMillis = baseWait.toMillis();
+        return this;
+    }
+
+    /**
+     * The longest time to wait before retrying. The API may ask for a longer wait when there's a
+     * deadline, as long as it ends before the deadline. Defaults to 20 seconds.
+     */
+    public BackoffRetryPolicy withMaxWait(Duration maxWait) {
+        Preconditions.checkArgument(!maxWait.isNegative(), "maxWait must not be negative");
+        this.maxWaitMillis = maxWait.toMillis();
+        return this;
+    }
+
+    /**
+     * The time after the first attempt at a request by which it must have succeeded. A request
+     * isn't retried if the wait would take it past the deadline. By default there is no deadline.
+     */
+    public BackoffRetryPolicy withDeadline(Duration deadline) {
+        Preconditions.checkArgument(!deadline.isNegative(), "deadline must not be negative");
+        this.deadlineMillis = deadline.toMillis();
+        return this;
+    }
+
+    /**
+     * Limits the retries made through the client to a proportion of its requests over the last
+     * ten seconds, plus a minimum number of retries per second. Defaults to 20% of requests, plus
+     * 10 retries per second.
+     *
+     * @param ratio the number of retries allowed for each request made
+     * @param minRetriesPerSecond the number of retries allowed each second regardless of the
+     *        number of requests made
+     */
+    public BackoffRetryPolicy withRetryBudget(double ratio, int minRetriesPerSecond) {
+        Preconditions.checkArgument(ratio >= 0, "ratio must not be negative");
+        Preconditions.checkArgument(minRetriesPerSecond >= 0,
+                "minRetriesPerSecond must not be negative");
+        this.budget = new RetryBudget(ratio, minRetriesPerSecond);
+        return this;
+    }
+
+    @Override
+    public void onRequest() {
+        budget.recordRequest();
+    }
+
+    @Override
+    public long getWaitMillis(Failure failure) {
+        if (!isRetryable(failure) || failure.getAttempts() >= maxAttempts) {
+            return -1;
+        }
+        long retryAfterMillis = deadlineMillis >= 0 ? failure.getRetryAfterMillis()
+                : Math.min(failure.getRetryAfterMillis(), maxWaitMillis);
+        long wait = Math.max(backoff(failure.getPreviousWaitMillis()), retryAfterMillis);
+        if (deadlineMillis >= 0 && wait > deadlineMillis - failure.getElapsedMillis()) {
+            return -1;
+        }
+        if (!budget.tryRetry()) {
+            return -1;
+        }
+        return wait;
+    }
+
+    private boolean isRetryable(Failure failure) {
+        return failure.getError() instanceof GoCardlessNetworkException
+                || failure.getError() instanceof GoCardlessInternalException
+                || failure.getError() instanceof RateLimitException;
+    }
+
+    private long backoff(long previousWaitMillis) {
+        long upper = Math.max(baseWaitMillis, Math.max(previousWaitMillis, baseWaitMillis) * 3);
+        long wait = upper > baseWaitMillis
+                ? ThreadLocalRandom.current().nextLong(baseWaitMillis, upper + 1)
+                : baseWaitMillis;
+        return Math.min(wait, maxWaitMillis);
+    }
+}
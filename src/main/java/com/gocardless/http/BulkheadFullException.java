@@ -0,0 +1,23 @@
+package com.gocardless.http;
+
+import com.gocardless.GoCardlessException;
+
+/**
+ * Exception thrown instead of making a request when the bulkhead it's assigned to already has as
+ * many requests in flight and queued as it allows.
+ */
+public class BulkheadFullException extends GoCardlessException {
+    private final String bulkheadName;
+
+    BulkheadFullException(String bulkheadName) {
+        super(String.format("Bulkhead %s is full", bulkheadName));
+        this.bulkheadName = bulkheadName;
+    }
+
+    /**
+     * Returns the name of the bulkhead which is full.
+     */
+    public String getBulkheadName() {
+        return bulkheadName;
+    }
+}
@@ -0,0 +1,174 @@
+package com.gocardless.http;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configures bulkheads, which partition requests to different endpoints so that a slow or busy
+ * group of endpoints can't use up the connections and threads needed by the others.
+ *
+ * Each bulkhead is named and sized separately, and has endpoints assigned to it by resource, like
+ * <code>exports</code> or <code>payout_items</code>, or by path template, like
+ * <code>payments/:identity/actions/cancel</code>. Requests beyond a bulkhead's limit queue until
+ * its other requests finish, and once its queue is full too, they fail with a
+ * {@link BulkheadFullException} without being made. Requests to endpoints not assigned to a
+ * bulkhead aren't limited.
+ */
+public final class BulkheadPolicy {
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+    private final Map<String, Bulkhead> assignments = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a bulkhead, and assigns endpoints to it.
+     *
+     * @param name the name of the bulkhead, used in errors
+     * @param maxConcurrentRequests the maximum number of the bulkhead's requests in flight at once
+     * @param maxQueuedRequests the maximum number of the bulkhead's requests waiting to start, or
+     *        0 to fail requests as soon as the bulkhead is at its limit
+     * @param endpoints the resources, like <code>exports</code>, or path templates, like
+     *        <code>payments/:identity/actions/cancel</code>, assigned to the bulkhead
+     */
+    public BulkheadPolicy withBulkhead(String name, int maxConcurrentRequests,
+            int maxQueuedRequests, String... endpoints) {
+        Preconditions.checkArgument(maxConcurrentRequests > 0,
+                "maxConcurrentRequests must be positive");
+        Preconditions.checkArgument(maxQueuedRequests >= 0,
+                "maxQueuedRequests must not be negative");
+        Preconditions.checkArgument(!bulkheads.containsKey(name), "Bulkhead %s already exists",
+                name);
+        Bulkhead bulkhead = new Bulkhead(name, maxConcurrentRequests, maxQueuedRequests);
+        bulkheads.put(name, bulkhead);
+        for (String endpoint : endpoints) {
+            assignments.put(endpoint, bulkhead);
+        }
+        return this;
+    }
+
+    /**
+     * Returns the number of requests in flight in a bulkhead.
+     */
+    public int getInFlight(String name) {
+        return bulkhead(name).getInFlight();
+    }
+
+    /**
+     * Returns the number of requests waiting to start in a bulkhead.
+     */
+    public int getQueueLength(String name) {
+        return bulkhead(name).getQueueLength();
+    }
+
+    private Bulkhead bulkhead(String name) {
+        Bulkhead bulkhead = bulkheads.get(name);
+        Preconditions.checkArgument(bulkhead != null, "No bulkhead named %s", name);
+        return bulkhead;
+    }
+
+    /**
+     * Returns the bulkhead an endpoint is assigned to, or null if it isn't assigned to one.
+     */
+    Bulkhead forEndpoint(String pathTemplate) {
+        Bulkhead bulkhead = assignments.get(pathTemplate);
+        if (bulkhead != null) {
+            return bulkhead;
+        }
+        int slash = pathTemplate.indexOf('/');
+        return slash < 0 ? null : assignments.get(pathTemplate.substring(0, slash));
+    }
+
+    /**
+     * Limits the requests in flight to the endpoints assigned to a single bulkhead.
+     */
+    static final class Bulkhead {
+        private final String name;
+        private final int maxConcurrentRequests;
+        private final int maxQueuedRequests;
+        private final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+        private int inFlight;
+
+        Bulkhead(String name, int maxConcurrentRequests, int maxQueuedRequests) {
+            this.name = name;
+            this.maxConcurrentRequests = maxConcurrentRequests;
+            this.maxQueuedRequests = maxQueuedRequests;
+        }
+
+        /**
+         * Waits up to the given time for a request to be allowed to start. Unless it times out,
+         * it must be released once it has finished.
+         *
+         * @return false if the request wasn't allowed to start in time
+         * @throws BulkheadFullException if the bulkhead's queue is full
+         */
+        boolean acquire(long timeoutNanos) throws InterruptedException {
+            CountDownLatch started = new CountDownLatch(1);
+            Runnable request = started::countDown;
+            schedule(request);
+            try {
+                if (started.await(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                    return true;
+                }
+            } catch (InterruptedException e) {
+                if (!cancel(request)) {
+                    release();
+                }
+                throw e;
+            }
+            // It may have been allowed to start since timing out
+            return !cancel(request);
+        }
+
+        /**
+         * Queues a request, running it once it's allowed to start, which may be straight away on
+         * this thread. It must be released once it has finished.
+         *
+         * @throws BulkheadFullException if the bulkhead's queue is full
+         */
+        void schedule(Runnable request) {
+            synchronized (this) {
+                if (inFlight >= maxConcurrentRequests) {
+                    if (queue.size() >= maxQueuedRequests) {
+                        throw new BulkheadFullException(name);
+                    }
+                    queue.add(request);
+                    return;
+                }
+                inFlight++;
+            }
+            request.run();
+        }
+
+        /**
+         * Removes a queued request, returning false if it has already been allowed to start.
+         */
+        synchronized boolean cancel(Runnable request) {
+            return queue.removeFirstOccurrence(request);
+        }
+
+        /**
+         * Records that a request has finished, letting the next queued request start.
+         */
+        void release() {
+            Runnable next;
+            synchronized (this) {
+                next = queue.pollFirst();
+                if (next == null) {
+                    inFlight--;
+                    return;
+                }
+            }
+            next.run();
+        }
+
+        synchronized int getInFlight() {
+            return inFlight;
+        }
+
+        synchronized int getQueueLength() {
+            return queue.size();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.gocardless.http;
+
+/**
+ * The circuit breaker for a single endpoint. See {@link CircuitBreakerPolicy}.
+ */
+final class CircuitBreaker {
+    private final String pathTemplate;
+    private final CircuitBreakerPolicy policy;
+    // The outcomes of the most recent requests while closed
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+    private CircuitBreakerState state = CircuitBreakerState.CLOSED;
+    private boolean opened;
+    private long openedAt;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    CircuitBreaker(String pathTemplate, CircuitBreakerPolicy policy) {
+        this.pathTemplate = pathTemplate;
+        this.policy = policy;
+        this.failed = new boolean[policy.getWindowSize()];
+        this.slow = new boolean[policy.getWindowSize()];
+    }
+
+    synchronized CircuitBreakerState getState() {
+        return state;
+    }
+
+    /**
+     * Asks to make a request, returning the time it started at to pass to {@link #record}.
+     *
+     * @throws CircuitBreakerOpenException if the request can't be made
+     */
+    long acquire() {
+        long now = policy.getTicker().read();
+        CircuitBreakerState from = null;
+        boolean permitted;
+        synchronized (this) {
+            if (state == CircuitBreakerState.OPEN && now - openedAt >= policy.getOpenNanos()) {
+                from = transitionTo(CircuitBreakerState.HALF_OPEN, now);
+            }
+            if (state == CircuitBreakerState.HALF_OPEN) {
+                permitted = trialsStarted < policy.getHalfOpenCalls();
+                if (permitted) {
+                    trialsStarted++;
+                }
+            } else {
+                permitted = state == CircuitBreakerState.CLOSED;
+            }
+        }
+        notifyListener(from, CircuitBreakerState.HALF_OPEN);
+        if (!permitted) {
+            throw new CircuitBreakerOpenException(pathTemplate);
+        }
+        return now;
+    }
+
+    /**
+     * Records the outcome of a request which was allowed by {@link #acquire}. Requests which were
+     * started before the circuit breaker last opened are ignored, as they say nothing about
+     * whether the endpoint has recovered since.
+     *
+     * @param start the time returned by {@link #acquire}
+     * @param heldNanos how long the request was held back by the client's own limiters before it
+     *        was sent, which doesn't count towards whether it was slow
+     * @param failure whether the request failed with a network error or internal error
+     */
+    void record(long start, long heldNanos, boolean failure) {
+        long now = policy.getTicker().read();
+        boolean wasSlow = now - start - heldNanos >= policy.getSlowCallNanos();
+        CircuitBreakerState from = null;
+        CircuitBreakerState to = null;
+        synchronized (this) {
+            if (opened && start - openedAt < 0) {
+                return;
+            }
+            if (state == CircuitBreakerState.CLOSED) {
+                add(failure, wasSlow);
+                if (recorded >= policy.getMinimumCalls()
+                        && (failures >= policy.getFailureRateThreshold() * recorded
+                                || slowCalls >= policy.getSlowCallRateThreshold() * recorded)) {
+                    to = CircuitBreakerState.OPEN;
+                }
+            } else if (state == CircuitBreakerState.HALF_OPEN) {
+                if (failure || wasSlow) {
+                    to = CircuitBreakerState.OPEN;
+                } else if (++trialsSucceeded >= policy.getHalfOpenCalls()) {
+                    to = CircuitBreakerState.CLOSED;
+                }
+            }
+            // Requests finishing while open were started before it opened, and are ignored
+            if (to != null) {
+                from = transitionTo(to, now);
+            }
+        }
+        notifyListener(from, to);
+    }
+
+    /**
+     * Records that a request which was allowed by {@link #acquire} was abandoned before it had an
+     * outcome, so that it doesn't hold up closing the circuit breaker.
+     */
+    synchronized void release() {
+        if (state == CircuitBreakerState.HALF_OPEN) {
+            trialsStarted--;
+        }
+    }
+
+    private void add(boolean failure, boolean wasSlow) {
+        if (recorded == failed.length) {
+            failures -= failed[next] ? 1 : 0;
+            slowCalls -= slow[next] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        failed[next] = failure;
+        slow[next] = wasSlow;
+        failures += failure ? 1 : 0;
+        slowCalls += wasSlow ? 1 : 0;
+        next = (next + 1) % failed.length;
+    }
+
+    private CircuitBreakerState transitionTo(CircuitBreakerState to, long now) {
+        CircuitBreakerState from = state;
+        state = to;
+        if (to == CircuitBreakerState.OPEN) {
+            opened = true;
+            openedAt = now;
+        } else if (to == CircuitBreakerState.HALF_OPEN) {
+            trialsStarted = 0;
+            trialsSucceeded = 0;
+        } else {
+            next = 0;
+            recorded = 0;
+            failures = 0;
+            slowCalls = 0;
+        }
+        return from;
+    }
+
+    private void notifyListener(CircuitBreakerState from, CircuitBreakerState to) {
+        CircuitBreakerListener listener = policy.getListener();
+        if (from != null && listener != null) {
+            listener.onStateChange(pathTemplate, from, to);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.gocardless.http;
+
+/**
+ * Notified when the circuit breaker for an endpoint changes state. Called on the thread whose
+ * request caused the change, so implementations should return quickly.
+ */
+public interface CircuitBreakerListener {
+    /**
+     * @param pathTemplate the path template of the endpoint, for example
+     *        <code>billing_requests/:identity</code>
+     * @param from the state the circuit breaker was in
+     * @param to the state the circuit breaker is now in
+     */
+    void onStateChange(String pathTemplate, CircuitBreakerState from, CircuitBreakerState to);
+}
@@ -0,0 +1,23 @@
+package com.gocardless.http;
+
+import com.gocardless.GoCardlessException;
+
+/**
+ * Exception thrown instead of making a request when the circuit breaker for its endpoint is open,
+ * because recent requests to the endpoint have been failing or slow.
+ */
+public class CircuitBreakerOpenException extends GoCardlessException {
+    private final String pathTemplate;
+
+    CircuitBreakerOpenException(String pathTemplate) {
+        super(String.format("Circuit breaker for %s is open", pathTemplate));
+        this.pathTemplate = pathTemplate;
+    }
+
+    /**
+     * Returns the path template of the endpoint whose circuit breaker is open.
+     */
+    public String getPathTemplate() {
+        return pathTemplate;
+    }
+}
@@ -0,0 +1,162 @@
+package com.gocardless.http;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Configures circuit breakers which stop requests being made to endpoints which are failing, so
+ * that they fail straight away rather than tying up threads waiting on them.
+ *
+ * Each endpoint, identified by its path template, has its own circuit breaker. While it's closed,
+ * the outcomes of the most recent requests are recorded. Network errors and internal errors count
+ * as failures, and requests taking longer than the slow call duration count as slow. Once enough
+ * requests have been made, and the proportion of them which failed or were slow reaches its
+ * threshold, the circuit breaker opens, and requests fail with a
+ * {@link CircuitBreakerOpenException} without being made. After a while it becomes half-open and
+ * lets a few trial requests through, closing again if they succeed, or opening again if not.
+ */
+public final class CircuitBreakerPolicy {
+    private final ConcurrentMap<String, CircuitBreaker> circuitBreakers =
+            new ConcurrentHashMap<>();
+    private final Ticker ticker;
+    private double failureRateThreshold = 0.5;
+    private long slowCallNanos = Duration.ofSeconds(10).toNanos();
+    private double slowCallRateThreshold = 0.8;
+    private int windowSize = 50;
+    private int minimumCalls = 20;
+    private long openNanos = Duration.ofSeconds(30).toNanos();
+    private int halfOpenCalls = 5;
+    private CircuitBreakerListener listener;
+
+    public CircuitBreakerPolicy() {
+        this(Ticker.systemTicker());
+    }
+
+    CircuitBreakerPolicy(Ticker ticker) {
+        this.ticker = ticker;
+    }
+
+    /**
+     * The proportion of recent requests which must have failed for the circuit breaker to open.
+     * Defaults to 0.5.
+     */
+    public CircuitBreakerPolicy withFailureRateThreshold(double failureRateThreshold) {
+        Preconditions.checkArgument(failureRateThreshold > 0 && failureRateThreshold <= 1,
+                "failureRateThreshold must be between 0 and 1");
+        this.failureRateThreshold = failureRateThreshold;
+        return this;
+    }
+
+    /**
+     * The time after which a request is considered slow, and the proportion of recent requests
+     * which must have been slow for the circuit breaker to open. Defaults to 10 seconds and 0.8.
+     */
+    public CircuitBreakerPolicy withSlowCallThreshold(Duration slowCallDuration,
+            double slowCallRateThreshold) {
+        Preconditions.checkArgument(!slowCallDuration.isNegative(),
+                "slowCallDuration must not be negative");
+        Preconditions.checkArgument(slowCallRateThreshold > 0 && slowCallRateThreshold <= 1,
+                "slowCallRateThreshold must be between 0 and 1");
+        this.slowCallNanos = slowCallDuration.toNanos();
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        return this;
+    }
+
+    /**
+     * The number of most recent requests to an endpoint whose outcomes are recorded, and the
+     * minimum number of requests which must have been recorded before the circuit breaker can
+     * open. Defaults to 50 and 20.
+     */
+    public CircuitBreakerPolicy withWindow(int windowSize, int minimumCalls) {
+        Preconditions.checkArgument(windowSize > 0, "windowSize must be positive");
+        Preconditions.checkArgument(minimumCalls > 0 && minimumCalls <= windowSize,
+                "minimumCalls must be positive and no more than windowSize");
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        return this;
+    }
+
+    /**
+     * How long the circuit breaker stays open before letting trial requests through. Defaults to
+     * 30 seconds.
+     */
+    public CircuitBreakerPolicy withOpenDuration(Duration openDuration) {
+        Preconditions.checkArgument(!openDuration.isNegative(),
+                "openDuration must not be negative");
+        this.openNanos = openDuration.toNanos();
+        return this;
+    }
+
+    /**
+     * The number of trial requests let through while half-open. Defaults to 5.
+     */
+    public CircuitBreakerPolicy withHalfOpenCalls(int halfOpenCalls) {
+        Preconditions.checkArgument(halfOpenCalls > 0, "halfOpenCalls must be positive");
+        this.halfOpenCalls = halfOpenCalls;
+        return this;
+    }
+
+    /**
+     * A listener to notify when a circuit breaker changes state, for example to export the state
+     * as a metric.
+     */
+    public CircuitBreakerPolicy withListener(CircuitBreakerListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Returns the state of the circuit breaker for an endpoint.
+     *
+     * @param pathTemplate the path template of the endpoint, for example
+     *        <code>billing_requests/:identity</code>
+     */
+    public CircuitBreakerState getState(String pathTemplate) {
+        CircuitBreaker circuitBreaker = circuitBreakers.get(pathTemplate);
+        return circuitBreaker == null ? CircuitBreakerState.CLOSED : circuitBreaker.getState();
+    }
+
+    CircuitBreaker forEndpoint(String pathTemplate) {
+        return circuitBreakers.computeIfAbsent(pathTemplate,
+                key -> new CircuitBreaker(key, this));
+    }
+
+    Ticker getTicker() {
+        return ticker;
+    }
+
+    double getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    long getSlowCallNanos() {
+        return slowCallNanos;
+    }
+
+    double getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    int getWindowSize() {
+        return windowSize;
+    }
+
+    int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    long getOpenNanos() {
+        return openNanos;
+    }
+
+    int getHalfOpenCalls() {
+        return halfOpenCalls;
+    }
+
+    CircuitBreakerListener getListener() {
+        return listener;
+    }
+}
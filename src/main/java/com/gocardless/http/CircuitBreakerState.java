@@ -0,0 +1,21 @@
+package com.gocardless.http;
+
+/**
+ * The states of the circuit breaker for an endpoint.
+ */
+public enum CircuitBreakerState {
+    /**
+     * Requests are made as normal, and their outcomes recorded.
+     */
+    CLOSED,
+    /**
+     * Too many recent requests failed or were slow, so requests fail straight away with a
+     * {@link CircuitBreakerOpenException}.
+     */
+    OPEN,
+    /**
+     * The circuit breaker has been open for long enough that a limited number of trial requests
+     * are let through, to decide whether to close it again.
+     */
+    HALF_OPEN
+}
@@ -0,0 +1,26 @@
+package com.gocardless.http;
+
+import java.util.Iterator;
+
+/**
+ * An iterator through a paginated list which can be closed once it's no longer needed, to stop
+ * fetching pages and cancel any being fetched in the background.
+ *
+ * Iterators returned when iterating through the results of a list request's <code>all()</code>
+ * method, or {@link ListRequest#executeInParallel}, implement this interface:
+ *
+ * <pre>
+ * try (CloseableIterator&lt;Payment&gt; payments =
+ *         (CloseableIterator&lt;Payment&gt;) client.payments().all().execute().iterator()) {
+ *     ...
+ * }
+ * </pre>
+ */
+public interface CloseableIterator<T> extends Iterator<T>, AutoCloseable {
+    /**
+     * Stops fetching pages, and cancels any being fetched. Once closed, the iterator has no more
+     * items.
+     */
+    @Override
+    void close();
+}
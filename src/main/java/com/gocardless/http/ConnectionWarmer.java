@@ -0,0 +1,119 @@
+package com.gocardless.http;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Opens connections to the API ahead of the first requests, so that they don't pay for DNS
+ * resolution and the TCP and TLS handshakes.
+ *
+ * OkHttp has no way to open a connection without making a request, so this makes unauthenticated
+ * requests for the API's base URL. Each response is held open until every one has arrived, which
+ * stops one request's connection from being reused for another. Once they're closed, the
+ * connections are left idle in the pool.
+ *
+ * Only the connections the requests opened are counted, not those they reused from the pool or,
+ * over HTTP/2, shared with each other.
+ */
+final class ConnectionWarmer {
+    private final OkHttpClient rawClient;
+    private final HttpUrl baseUrl;
+    private final List<Response> responses = new ArrayList<>();
+    private final Set<Call> connected = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final Set<Connection> opened = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final EventListener listener = new EventListener() {
+        @Override
+        public void connectEnd(Call call, InetSocketAddress address, Proxy proxy,
+                Protocol protocol) {
+            connected.add(call);
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            if (connected.contains(call)) {
+                opened.add(connection);
+            }
+        }
+    };
+
+    ConnectionWarmer(OkHttpClient rawClient, HttpUrl baseUrl) {
+        this.rawClient = rawClient;
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Resolves the API's host, and opens up to the given number of connections to it.
+     *
+     * @return the number of connections opened
+     */
+    int warmUp(int connections) {
+        resolveHost();
+        // Shares the client's connection pool and threads, and still reports to its listeners
+        OkHttpClient client = rawClient.newBuilder().eventListenerFactory(
+                call -> rawClient.eventListenerFactory().create(call).plus(listener)).build();
+        final CountDownLatch finished = new CountDownLatch(connections);
+        Request request = new Request.Builder().url(baseUrl).build();
+        for (int i = 0; i < connections; i++) {
+            client.newCall(request).enqueue(new Callback() {
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    finished.countDown();
+                }
+
+                @Override
+                public void onResponse(Call call, Response response) {
+                    synchronized (ConnectionWarmer.this) {
+                        responses.add(response);
+                    }
+                    finished.countDown();
+                }
+            });
+        }
+        try {
+            finished.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GoCardlessNetworkException("Interrupted while opening connections",
+                    new InterruptedIOException());
+        } finally {
+            closeResponses();
+        }
+        return opened.size();
+    }
+
+    private void resolveHost() {
+        // With a proxy, it's the proxy which resolves the API's host
+        if (rawClient.proxy() != null) {
+            return;
+        }
+        try {
+            rawClient.dns().lookup(baseUrl.host());
+        } catch (UnknownHostException e) {
+            throw new GoCardlessNetworkException("Failed to resolve " + baseUrl.host(), e);
+        }
+    }
+
+    private synchronized void closeResponses() {
+        for (Response response : responses) {
+            response.close();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.gocardless.http;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * A {@link Spliterator} over the items of a list request created within a
+ * {@link CreatedAtWindow}, fetching pages as it is traversed.
+ *
+ * Until its first page has been fetched, it splits by dividing its window in two, up to a maximum
+ * number of windows. Once traversal has started it can only split off the rest of its current
+ * page. Its encounter order is window by window, from the latest window to the earliest, and
+ * within a window the order in which the API returns items, newest first.
+ */
+final class CreatedAtSpliterator<T> implements Spliterator<T> {
+    private final ListRequest<?, T> request;
+    private final HttpClient client;
+    private final int characteristics;
+    private CreatedAtWindow window;
+    private int maxWindows;
+    private List<T> page = ImmutableList.of();
+    private int position;
+    private String cursor;
+    private boolean started;
+
+    CreatedAtSpliterator(ListRequest<?, T> request, HttpClient client, CreatedAtWindow window,
+            int maxWindows, boolean ordered) {
+        this.request = request;
+        this.client = client;
+        this.window = window;
+        this.maxWindows = maxWindows;
+        this.characteristics = ordered ? ORDERED | NONNULL : NONNULL;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        while (position >= page.size()) {
+            if (started && cursor == null) {
+                return false;
+            }
+            fetchPage();
+        }
+        action.accept(page.get(position++));
+        return true;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        if (!started) {
+            if (maxWindows < 2) {
+                return null;
+            }
+            List<CreatedAtWindow> halves = window.split(2);
+            if (halves.size() < 2) {
+                return null;
+            }
+            int prefixWindows = maxWindows / 2;
+            Spliterator<T> prefix = new CreatedAtSpliterator<>(request, client, halves.get(0),
+                    prefixWindows, (characteristics & ORDERED) != 0);
+            window = halves.get(1);
+            maxWindows -= prefixWindows;
+            return prefix;
+        }
+        if (cursor == null || page.size() - position < 2) {
+            return null;
+        }
+        // Hand the rest of the current page to another thread while we fetch the next one.
+        Object[] rest = page.subList(position, page.size()).toArray();
+        position = page.size();
+        return Spliterators.spliterator(rest, characteristics);
+    }
+
+    @Override
+    public long estimateSize() {
+        if (started && cursor == null) {
+            return page.size() - position;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return characteristics;
+    }
+
+    private void fetchPage() {
+        ListResponse<T> response =
+                client.executeWithRetries(new WindowedListRequest<>(request, window, cursor));
+        page = response.getItems();
+        position = 0;
+        cursor = response.getAfter();
+        started = true;
+    }
+}
@@ -0,0 +1,61 @@
+package com.gocardless.http;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.time.Instant;
+import java.util.List;
+import okhttp3.HttpUrl;
+
+/**
+ * A half-open range of creation times, used to partition a list request into requests which can
+ * be paginated independently.
+ */
+final class CreatedAtWindow {
+    private static final String[] CREATED_AT_PARAMS =
+            {"created_at[gt]", "created_at[gte]", "created_at[lt]", "created_at[lte]"};
+    private final Instant from;
+    private final Instant to;
+
+    CreatedAtWindow(Instant from, Instant to) {
+        Preconditions.checkArgument(from.isBefore(to), "from must be before to");
+        this.from = from;
+        this.to = to;
+    }
+
+    Instant getFrom() {
+        return from;
+    }
+
+    Instant getTo() {
+        return to;
+    }
+
+    /**
+     * Splits this window into (at most) the given number of consecutive windows of equal length,
+     * from the latest to the earliest. This is the order in which the API lists items, newest
+     * first.
+     */
+    List<CreatedAtWindow> split(int count) {
+        long length = to.toEpochMilli() - from.toEpochMilli();
+        int windows = (int) Math.max(1, Math.min(count, length));
+        ImmutableList.Builder<CreatedAtWindow> result = ImmutableList.builder();
+        Instant end = to;
+        for (int i = 1; i <= windows; i++) {
+            Instant start = i == windows ? from : to.minusMillis(length * i / windows);
+            result.add(new CreatedAtWindow(start, end));
+            end = start;
+        }
+        return result.build();
+    }
+
+    /**
+     * Replaces any created_at filters in the given URL with this window.
+     */
+    HttpUrl.Builder applyTo(HttpUrl.Builder url) {
+        for (String param : CREATED_AT_PARAMS) {
+            url.removeAllQueryParameters(param);
+        }
+        return url.addQueryParameter("created_at[gte]", from.toString())
+                .addQueryParameter("created_at[lt]", to.toString());
+    }
+}
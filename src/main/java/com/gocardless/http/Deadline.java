@@ -0,0 +1,68 @@
+package com.gocardless.http;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.time.Duration;
+import java.time.Instant;
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+
+/**
+ * The time by which a request, including any retries, must have finished.
+ */
+final class Deadline {
+    private final long nanos;
+
+    private Deadline(long nanos) {
+        this.nanos = nanos;
+    }
+
+    /**
+     * Returns the deadline for a request being executed now, from its timeout and deadline, or
+     * null if it has neither.
+     */
+    static Deadline of(ApiRequest<?> apiRequest) {
+        Duration timeout = apiRequest.getTimeout();
+        Instant deadline = apiRequest.getDeadline();
+        if (timeout == null && deadline == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        long remaining = timeout == null ? Long.MAX_VALUE : timeout.toNanos();
+        if (deadline != null) {
+            remaining = Math.min(remaining, Duration.between(Instant.now(), deadline).toNanos());
+        }
+        return new Deadline(now + remaining);
+    }
+
+    long remainingNanos() {
+        return nanos - System.nanoTime();
+    }
+
+    /**
+     * Returns whether waiting for the given time would pass the deadline.
+     */
+    boolean isPassedAfter(long waitMillis) {
+        return MILLISECONDS.toNanos(waitMillis) >= remainingNanos();
+    }
+
+    /**
+     * Creates a call for a request, whose timeout is cut short to the time left before the
+     * deadline the request is tagged with, if any.
+     */
+    static Call newCall(OkHttpClient rawClient, Request request) {
+        Call call = rawClient.newCall(request);
+        Deadline deadline = request.tag(Deadline.class);
+        if (deadline != null) {
+            long timeout = deadline.remainingNanos();
+            if (rawClient.callTimeoutMillis() > 0) {
+                timeout = Math.min(timeout, MILLISECONDS.toNanos(rawClient.callTimeoutMillis()));
+            }
+            // A timeout of zero means no timeout at all
+            call.timeout().timeout(Math.max(timeout, 1), NANOSECONDS);
+        }
+        return call;
+    }
+}
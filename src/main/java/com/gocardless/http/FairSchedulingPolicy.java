@@ -0,0 +1,222 @@
+package com.gocardless.http;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configures fair scheduling of requests between tenants - the access tokens of clients created
+ * by a {@link com.gocardless.GoCardlessClientFactory} - so that a merchant making many requests
+ * can't hold up requests for the others.
+ *
+ * Only so many requests are in flight at once, and only so many for each tenant. Requests beyond
+ * these limits queue for their tenant, and tenants with queued requests take turns by deficit
+ * round robin: each turn, a tenant can start as many requests as its weight. Each access token
+ * also keeps its own rate limit, so one merchant running out of requests doesn't slow the others.
+ *
+ * Queued requests with a higher {@link RequestPriority} start before those with a lower one,
+ * whichever tenant they're for, so interactive requests jump ahead of batch work. Among requests
+ * with the same priority, tenants take turns, and requests for a tenant start in the order they
+ * were made. Asynchronous requests are handed to
+ * OkHttp's dispatcher once they start, so its limit on requests per host should be at least the
+ * maximum number of concurrent requests here.
+ */
+public final class FairSchedulingPolicy {
+    private final ConcurrentMap<String, Tenant> tenants = new ConcurrentHashMap<>();
+    // For each priority, the tenants with queued requests, in the order they take turns
+    private final List<ArrayDeque<Lane>> active = new ArrayList<>();
+    private int maxConcurrentRequests = 32;
+    private int maxConcurrentRequestsPerTenant = 8;
+    private int inFlight;
+
+    public FairSchedulingPolicy() {
+        for (int i = 0; i < RequestPriority.values().length; i++) {
+            active.add(new ArrayDeque<>());
+        }
+    }
+
+    /**
+     * The maximum number of requests in flight at once, across every tenant. Defaults to 32.
+     */
+    public FairSchedulingPolicy withMaxConcurrentRequests(int maxConcurrentRequests) {
+        Preconditions.checkArgument(maxConcurrentRequests > 0,
+                "maxConcurrentRequests must be positive");
+        synchronized (this) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+        }
+        return this;
+    }
+
+    /**
+     * The maximum number of requests in flight at once for a single tenant. Defaults to 8.
+     */
+    public FairSchedulingPolicy withMaxConcurrentRequestsPerTenant(
+            int maxConcurrentRequestsPerTenant) {
+        Preconditions.checkArgument(maxConcurrentRequestsPerTenant > 0,
+                "maxConcurrentRequestsPerTenant must be positive");
+        synchronized (this) {
+            this.maxConcurrentRequestsPerTenant = maxConcurrentRequestsPerTenant;
+        }
+        return this;
+    }
+
+    /**
+     * Returns the tenant with the given ID, setting its weight - the number of requests it can
+     * start on each turn - unless the weight given is 0.
+     */
+    Tenant tenant(String id, int weight) {
+        Tenant tenant = tenants.computeIfAbsent(id, key -> new Tenant());
+        if (weight > 0) {
+            synchronized (this) {
+                tenant.weight = weight;
+            }
+        }
+        return tenant;
+    }
+
+    /**
+     * Waits up to the given time for a request for a tenant to be allowed to start. Unless it
+     * times out, it must be released once it has finished.
+     *
+     * @return false if the request wasn't allowed to start in time
+     */
+    boolean acquire(Tenant tenant, RequestPriority priority, long timeoutNanos)
+            throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        Runnable request = started::countDown;
+        schedule(tenant, priority, request);
+        try {
+            if (started.await(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            if (!cancel(tenant, priority, request)) {
+                release(tenant);
+            }
+            throw e;
+        }
+        // It may have been allowed to start since timing out
+        return !cancel(tenant, priority, request);
+    }
+
+    /**
+     * Queues a request for a tenant, running it once it's allowed to start, which may be
+     * straight away on this thread. It must be released once it has finished.
+     */
+    void schedule(Tenant tenant, RequestPriority priority, Runnable request) {
+        List<Runnable> started;
+        synchronized (this) {
+            Lane lane = tenant.lanes[priority.ordinal()];
+            lane.queue.add(request);
+            if (!lane.active) {
+                lane.active = true;
+                active.get(priority.ordinal()).addLast(lane);
+            }
+            started = dispatch();
+        }
+        started.forEach(Runnable::run);
+    }
+
+    /**
+     * Removes a queued request, returning false if it has already been allowed to start.
+     */
+    synchronized boolean cancel(Tenant tenant, RequestPriority priority, Runnable request) {
+        return tenant.lanes[priority.ordinal()].queue.removeFirstOccurrence(request);
+    }
+
+    /**
+     * Records that a request has finished, letting the next queued request start.
+     */
+    void release(Tenant tenant) {
+        List<Runnable> started;
+        synchronized (this) {
+            tenant.inFlight--;
+            inFlight--;
+            started = dispatch();
+        }
+        started.forEach(Runnable::run);
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    private List<Runnable> dispatch() {
+        List<Runnable> started = new ArrayList<>();
+        for (ArrayDeque<Lane> lanes : active) {
+            if (inFlight >= maxConcurrentRequests) {
+                break;
+            }
+            dispatch(lanes, started);
+        }
+        return started;
+    }
+
+    private void dispatch(ArrayDeque<Lane> lanes, List<Runnable> started) {
+        // Tenants passed over since a request last started, because they're at their own limit
+        int blocked = 0;
+        while (inFlight < maxConcurrentRequests && blocked < lanes.size()) {
+            Lane lane = lanes.pollFirst();
+            Tenant tenant = lane.tenant;
+            if (lane.queue.isEmpty()) {
+                lane.active = false;
+                lane.deficit = 0;
+                continue;
+            }
+            if (tenant.inFlight >= maxConcurrentRequestsPerTenant) {
+                lanes.addLast(lane);
+                blocked++;
+                continue;
+            }
+            if (lane.deficit <= 0) {
+                lane.deficit += tenant.weight;
+            }
+            lane.deficit--;
+            tenant.inFlight++;
+            inFlight++;
+            started.add(lane.queue.pollFirst());
+            blocked = 0;
+            // A tenant keeps its turn until it has used up its weight
+            if (lane.deficit > 0) {
+                lanes.addFirst(lane);
+            } else {
+                lanes.addLast(lane);
+            }
+        }
+    }
+
+    /**
+     * The requests in flight for a single tenant. Guarded by the policy's lock.
+     */
+    static final class Tenant {
+        private final Lane[] lanes = new Lane[RequestPriority.values().length];
+        private int weight = 1;
+        private int inFlight;
+
+        Tenant() {
+            for (int i = 0; i < lanes.length; i++) {
+                lanes[i] = new Lane(this);
+            }
+        }
+    }
+
+    /**
+     * The requests queued for a single tenant with a single priority. Guarded by the policy's
+     * lock.
+     */
+    private static final class Lane {
+        private final Tenant tenant;
+        private final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+        private int deficit;
+        private boolean active;
+
+        Lane(Tenant tenant) {
+            this.tenant = tenant;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.gocardless.http;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a package whose classes get Gson type adapters generated at build time.
+ *
+ * Each marked package gets a {@code GeneratedTypeAdapterFactory}, which {@link GsonFactory}
+ * registers.
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.PACKAGE)
+public @interface GenerateTypeAdapters {
+}
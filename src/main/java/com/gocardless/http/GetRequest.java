@@ -1,15 +1,33 @@
 package com.gocardless.http;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Base class for GET requests that return a single item.
  *
  * @param <T> the type of the item returned by this request.
  */
 public abstract class GetRequest<T> extends ApiRequest<T> {
+    private transient boolean cacheBypassed;
+
     protected GetRequest(HttpClient httpClient) {
         super(httpClient);
     }
 
+    /**
+     * Sets whether to fetch the resource from the API even if the client's response cache holds
+     * a response for this request, replacing the cached response with the new one.
+     */
+    protected final void setCacheBypass(boolean cacheBypass) {
+        this.cacheBypassed = cacheBypass;
+    }
+
+    boolean isCacheBypassed() {
+        return cacheBypassed;
+    }
+
     /**
      * Executes this request.
      *
@@ -32,11 +50,38 @@ public abstract class GetRequest<T> extends ApiRequest<T> {
         return getHttpClient().executeWrapped(this);
     }
 
+    /**
+     * Executes this request asynchronously.
+     *
+     * Returns a future which completes with the response entity, or completes exceptionally with
+     * a {@link com.gocardless.GoCardlessException}.
+     */
+    public CompletableFuture<T> executeAsync() {
+        return getHttpClient().executeWithRetriesAsync(this);
+    }
+
+    /**
+     * Executes this request asynchronously.
+     *
+     * Returns a future which completes with a {@link com.gocardless.http.ApiResponse} that wraps
+     * the response entity, or completes exceptionally with a
+     * {@link com.gocardless.GoCardlessException}.
+     */
+    public CompletableFuture<ApiResponse<T>> executeWrappedAsync() {
+        return getHttpClient().executeWrappedAsync(this);
+    }
+
     @Override
     protected T parseResponse(String responseBody, ResponseParser responseParser) {
         return responseParser.parseSingle(responseBody, getEnvelope(), getResponseClass());
     }
 
+    @Override
+    protected T parseResponse(Reader responseBody, ResponseParser responseParser)
+            throws IOException {
+        return responseParser.parseSingle(responseBody, getEnvelope(), getResponseClass());
+    }
+
     @Override
     protected final String getMethod() {
         return "GET";
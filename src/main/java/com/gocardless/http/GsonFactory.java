@@ -2,6 +2,7 @@ package com.gocardless.http;
 
 import static com.google.gson.FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES;
 
+import com.gocardless.resources.GeneratedTypeAdapterFactory;
 import com.google.gson.ExclusionStrategy;
 import com.google.gson.FieldAttributes;
 import com.google.gson.Gson;
@@ -13,9 +14,22 @@ final class GsonFactory {
     }
 
     static Gson build() {
+        return reflectiveBuilder()
+                // Generated at build time by the codegen project's TypeAdapterProcessor
+                .registerTypeAdapterFactory(new GeneratedTypeAdapterFactory())
+                .registerTypeAdapterFactory(
+                        new com.gocardless.services.GeneratedTypeAdapterFactory())
+                .create();
+    }
+
+    /**
+     * Returns a builder configured like {@link #build()}, but without the generated type adapters,
+     * so that Gson's reflective adapters are used instead.
+     */
+    static GsonBuilder reflectiveBuilder() {
         return new GsonBuilder().setFieldNamingPolicy(LOWER_CASE_WITH_UNDERSCORES)
                 .addSerializationExclusionStrategy(new PathParamExclusionStrategy())
-                .registerTypeAdapterFactory(new GCEnumTypeAdapterFactory()).create();
+                .registerTypeAdapterFactory(new GCEnumTypeAdapterFactory());
     }
 
     private static class PathParamExclusionStrategy implements ExclusionStrategy {
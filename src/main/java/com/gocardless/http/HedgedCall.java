@@ -0,0 +1,204 @@
+package com.gocardless.http;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Makes a request, making an identical one if no response has arrived after a delay. The first
+ * response to arrive is used, and the other request is cancelled. See {@link HedgingPolicy}.
+ *
+ * If a request fails without a response, the other is waited for. If the first request fails
+ * before the delay is up, no hedged request is made.
+ *
+ * The hedged request counts towards the client's limits on requests in flight, like any other.
+ * If they have no room for it when the delay is up, it isn't made.
+ */
+final class HedgedCall {
+    private final OkHttpClient rawClient;
+    private final Request request;
+    private final HedgingPolicy policy;
+    private final String pathTemplate;
+    private final Admission admission;
+    private final CompletableFuture<Response> result = new CompletableFuture<>();
+    private final List<Call> calls = new ArrayList<>();
+    private boolean finished;
+    private ScheduledFuture<?> hedge;
+
+    HedgedCall(OkHttpClient rawClient, Request request, HedgingPolicy policy, String pathTemplate,
+            Admission admission) {
+        this.rawClient = rawClient;
+        this.request = request;
+        this.policy = policy;
+        this.pathTemplate = pathTemplate;
+        this.admission = admission;
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                finish(null);
+            }
+        });
+    }
+
+    /**
+     * Makes the request on the calling thread, returning the first response.
+     */
+    Response execute(ScheduledExecutorService scheduler) throws IOException {
+        Call primary = start(scheduler);
+        long start = System.nanoTime();
+        try {
+            onResponse(primary, primary.execute(), start);
+        } catch (IOException e) {
+            onFailure(primary, e);
+        }
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            throw (IOException) e.getCause();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a hedged request");
+        }
+    }
+
+    /**
+     * Makes the request asynchronously, returning a future which completes with the first
+     * response. Cancelling the future cancels the requests.
+     */
+    CompletableFuture<Response> enqueue(ScheduledExecutorService scheduler) {
+        Call primary = start(scheduler);
+        primary.enqueue(callback(primary, false));
+        return result;
+    }
+
+    private Call start(ScheduledExecutorService scheduler) {
+        long delay = policy.onRequest(pathTemplate);
+        Call primary = newCall();
+        if (delay >= 0) {
+            synchronized (this) {
+                hedge = scheduler.schedule(this::hedge, delay, TimeUnit.NANOSECONDS);
+            }
+        }
+        return primary;
+    }
+
+    private void hedge() {
+        if (result.isDone() || !admission.tryAcquire()) {
+            return;
+        }
+        Call call = policy.tryHedge() ? newCall() : null;
+        if (call == null) {
+            admission.release(null, null, -1);
+            return;
+        }
+        call.enqueue(callback(call, true));
+    }
+
+    private synchronized Call newCall() {
+        if (finished) {
+            return null;
+        }
+        Call call = Deadline.newCall(rawClient, request);
+        calls.add(call);
+        return call;
+    }
+
+    private Callback callback(final Call call, final boolean hedged) {
+        final long start = System.nanoTime();
+        return new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                if (hedged) {
+                    admission.release(null, e, call.isCanceled() ? -1 : System.nanoTime() - start);
+                }
+                HedgedCall.this.onFailure(call, e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                if (hedged) {
+                    admission.release(response, null, System.nanoTime() - start);
+                }
+                HedgedCall.this.onResponse(call, response, start);
+            }
+        };
+    }
+
+    private void onResponse(Call call, Response response, long start) {
+        if (result.complete(response)) {
+            policy.recordLatency(pathTemplate, System.nanoTime() - start);
+            finish(call);
+        } else {
+            response.close();
+        }
+    }
+
+    private void onFailure(Call call, IOException e) {
+        boolean last;
+        synchronized (this) {
+            calls.remove(call);
+            last = calls.isEmpty();
+        }
+        if (last) {
+            finish(null);
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Stops any more requests being made, and cancels those still running other than the winner.
+     */
+    private void finish(Call winner) {
+        List<Call> losers;
+        synchronized (this) {
+            finished = true;
+            if (hedge != null) {
+                hedge.cancel(false);
+            }
+            losers = new ArrayList<>(calls);
+        }
+        for (Call call : losers) {
+            if (call != winner) {
+                call.cancel();
+            }
+        }
+    }
+
+    /**
+     * Admits the hedged request to the client's limits on requests in flight, without waiting.
+     */
+    interface Admission {
+        Admission UNLIMITED = new Admission() {
+            @Override
+            public boolean tryAcquire() {
+                return true;
+            }
+
+            @Override
+            public void release(Response response, IOException error, long latencyNanos) {}
+        };
+
+        /**
+         * Returns whether there's room for the request straight away. If so, it must be released
+         * once it has finished.
+         */
+        boolean tryAcquire();
+
+        /**
+         * Records that the request has finished, taking the given time, or -1 if it wasn't made
+         * or was cancelled.
+         */
+        void release(Response response, IOException error, long latencyNanos);
+    }
+}
@@ -0,0 +1,132 @@
+package com.gocardless.http;
+
+import com.google.common.base.Preconditions;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configures hedging of requests for single resources, which cuts the latency added by the
+ * occasional slow connection.
+ *
+ * If a response hasn't arrived once a request has taken longer than most recent requests to the
+ * same endpoint, an identical request is sent. Whichever response arrives first is used, and the
+ * other request is cancelled. Hedging is limited to a proportion of requests, so it only slightly
+ * increases the load on the API, and nothing is hedged until enough requests have been made to an
+ * endpoint to know how long they usually take.
+ *
+ * Only requests made with {@link GetRequest} are hedged.
+ */
+public final class HedgingPolicy {
+    // Requests to an endpoint needed to know how long they usually take
+    private static final int MIN_SAMPLES = 20;
+    private static final int MAX_SAMPLES = 512;
+
+    private final ConcurrentMap<String, Latencies> latencies = new ConcurrentHashMap<>();
+    private double percentile = 95;
+    private long minDelayNanos = TimeUnit.MILLISECONDS.toNanos(10);
+    private long maxDelayNanos = TimeUnit.SECONDS.toNanos(1);
+    private RetryBudget budget = new RetryBudget(0.05, 1);
+
+    /**
+     * The percentile of recent response times to an endpoint after which a request is hedged.
+     * Defaults to 95.
+     */
+    public HedgingPolicy withPercentile(double percentile) {
+        Preconditions.checkArgument(percentile > 0 && percentile < 100,
+                "percentile must be between 0 and 100");
+        this.percentile = percentile;
+        return this;
+    }
+
+    /**
+     * The shortest time to wait for a response before hedging. Defaults to 10 milliseconds.
+     */
+    public HedgingPolicy withMinDelay(Duration minDelay) {
+        Preconditions.checkArgument(!minDelay.isNegative(), "minDelay must not be negative");
+        this.minDelayNanos = minDelay.toNanos();
+        return this;
+    }
+
+    /**
+     * The longest time to wait for a response before hedging. Defaults to 1 second.
+     */
+    public HedgingPolicy withMaxDelay(Duration maxDelay) {
+        Preconditions.checkArgument(!maxDelay.isNegative(), "maxDelay must not be negative");
+        this.maxDelayNanos = maxDelay.toNanos();
+        return this;
+    }
+
+    /**
+     * Limits hedged requests to a proportion of the requests made over the last ten seconds, plus
+     * a minimum number of hedged requests per second. Defaults to 5% of requests, plus 1 hedged
+     * request per second.
+     *
+     * @param ratio the number of hedged requests allowed for each request made
+     * @param minHedgesPerSecond the number of hedged requests allowed each second regardless of
+     *        the number of requests made
+     */
+    public HedgingPolicy withBudget(double ratio, int minHedgesPerSecond) {
+        Preconditions.checkArgument(ratio >= 0, "ratio must not be negative");
+        Preconditions.checkArgument(minHedgesPerSecond >= 0,
+                "minHedgesPerSecond must not be negative");
+        this.budget = new RetryBudget(ratio, minHedgesPerSecond);
+        return this;
+    }
+
+    /**
+     * Records that a request which may be hedged is being made, returning how long to wait for a
+     * response before hedging it in nanoseconds, or -1 if it shouldn't be hedged.
+     */
+    long onRequest(String pathTemplate) {
+        budget.recordRequest();
+        Latencies endpoint = latencies.get(pathTemplate);
+        long latency = endpoint == null ? -1 : endpoint.percentile(percentile);
+        if (latency < 0) {
+            return -1;
+        }
+        return Math.min(Math.max(latency, minDelayNanos), maxDelayNanos);
+    }
+
+    /**
+     * Takes a hedged request from the budget, returning false if there are none left.
+     */
+    boolean tryHedge() {
+        return budget.tryRetry();
+    }
+
+    void recordLatency(String pathTemplate, long latencyNanos) {
+        latencies.computeIfAbsent(pathTemplate, key -> new Latencies()).record(latencyNanos);
+    }
+
+    /**
+     * The most recent response times to an endpoint.
+     */
+    private static final class Latencies {
+        private final long[] samples = new long[MAX_SAMPLES];
+        private long count;
+        private long[] sorted;
+
+        synchronized void record(long latencyNanos) {
+            samples[(int) (count++ % MAX_SAMPLES)] = latencyNanos;
+            // Re-sorting after every sample isn't worth it - a slightly stale percentile will do
+            if (count % 32 == 0 || count <= MIN_SAMPLES) {
+                sorted = null;
+            }
+        }
+
+        synchronized long percentile(double percentile) {
+            if (count < MIN_SAMPLES) {
+                return -1;
+            }
+            if (sorted == null) {
+                sorted = Arrays.copyOf(samples, (int) Math.min(count, MAX_SAMPLES));
+                Arrays.sort(sorted);
+            }
+            int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+            return sorted[Math.max(index, 0)];
+        }
+    }
+}
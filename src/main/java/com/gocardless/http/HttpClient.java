@@ -1,18 +1,33 @@
 package com.gocardless.http;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
-import com.github.rholder.retry.*;
 import com.gocardless.GoCardlessException;
+import com.gocardless.errors.ApiErrorResponse;
 import com.gocardless.errors.GoCardlessInternalException;
+import com.gocardless.errors.MalformedResponseException;
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.base.Throwables;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.gson.Gson;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Map;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
 import okhttp3.*;
 
 /**
@@ -42,7 +57,10 @@ public class HttpClient {
                     cleanUserAgentToken(System.getProperty("os.name")),
                     cleanUserAgentToken(System.getProperty("os.version")));
     private static final RequestBody EMPTY_BODY = RequestBody.create(null, new byte[0]);
-    private static final MediaType MEDIA_TYPE = MediaType.parse("application/json");
+    // How much of a response body to keep while it's decoded, to report it if it's malformed.
+    private static final int BODY_PREVIEW_LENGTH = 1000;
+    // The most access tokens whose rate limits and requests to coalesce with are kept at once
+    private static final int MAX_ACCESS_TOKENS = 10_000;
     private static final Map<String, String> HEADERS;
     static {
         ImmutableMap.Builder<String, String> builder = ImmutableMap.builder();
@@ -52,6 +70,11 @@ public class HttpClient {
         builder.put("GoCardless-Client-Version", "8.6.3");
         HEADERS = builder.build();
     }
+    // Only used to schedule the wait between asynchronous retries, and before hedged requests -
+    // the requests themselves are dispatched by OkHttp.
+    private static final ScheduledExecutorService SCHEDULER =
+            Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true)
+                    .setNameFormat("gocardless-scheduler-%d").build());
     private final OkHttpClient rawClient;
     private final UrlFormatter urlFormatter;
     private final ResponseParser responseParser;
@@ -59,7 +82,24 @@ public class HttpClient {
     private final String credentials;
     private final boolean errorOnIdempotencyConflict;
     private final int maxNoOfRetries;
-    private final long waitBetweenRetriesInMilliSeconds;
+    private final RetryPolicy retryPolicy;
+    private final HedgingPolicy hedgingPolicy;
+    private final CircuitBreakerPolicy circuitBreakerPolicy;
+    private final SingleFlight singleFlight;
+    private final ResponseCache responseCache;
+    // Identifies the access token, keeping cached responses for different access tokens apart
+    private final String accessTokenHash;
+    private final RateLimiter rateLimiter;
+    private final FairSchedulingPolicy fairSchedulingPolicy;
+    private final FairSchedulingPolicy.Tenant tenant;
+    private final AdaptiveConcurrencyPolicy concurrencyPolicy;
+    private final BulkheadPolicy bulkheadPolicy;
+    private final RequestPriority defaultPriority;
+    private final int paginationPrefetchPages;
+    private final int paginationPrefetchMaxItems;
+    private final Lifecycle lifecycle;
+    // Shared by this client and every client created from it for another access token
+    private final Cache<String, AccessTokenState> accessTokens;
 
     /**
      * Constructor. Users of this library should not need to access this class directly - you should
@@ -74,15 +114,154 @@ public class HttpClient {
     public HttpClient(String accessToken, String baseUrl, OkHttpClient rawClient,
             boolean errorOnIdempotencyConflict, int maxNoOfRetries,
             long waitBetweenRetriesInMilliSeconds) {
-        this.rawClient = rawClient;
-        this.urlFormatter = new UrlFormatter(baseUrl);
+        this(newBuilder(accessToken, baseUrl, rawClient)
+                .withErrorOnIdempotencyConflict(errorOnIdempotencyConflict)
+                .withMaxNoOfRetries(maxNoOfRetries)
+                .withWaitBetweenRetriesInMilliSeconds(waitBetweenRetriesInMilliSeconds));
+    }
+
+    private HttpClient(Builder builder) {
+        this.rateLimiter = builder.rateLimiting ? new RateLimiter() : null;
+        this.rawClient = withInterceptors(builder.rawClient, rateLimiter,
+                builder.maxConnections > 0 && builder.maxConcurrentStreams > 0
+                        ? new StreamLimiter(builder.maxConnections, builder.maxConcurrentStreams)
+                        : null);
+        this.urlFormatter = new UrlFormatter(builder.baseUrl);
         Gson gson = GsonFactory.build();
         this.responseParser = new ResponseParser(gson);
         this.requestWriter = new RequestWriter(gson);
-        this.credentials = String.format("Bearer %s", accessToken);
-        this.errorOnIdempotencyConflict = errorOnIdempotencyConflict;
-        this.maxNoOfRetries = maxNoOfRetries;
-        this.waitBetweenRetriesInMilliSeconds = waitBetweenRetriesInMilliSeconds;
+        this.credentials = credentials(builder.accessToken);
+        this.errorOnIdempotencyConflict = builder.errorOnIdempotencyConflict;
+        this.maxNoOfRetries = builder.maxNoOfRetries;
+        this.retryPolicy = builder.retryPolicy != null ? builder.retryPolicy
+                : new BackoffRetryPolicy().withMaxAttempts(builder.maxNoOfRetries)
+                        .withBaseWait(Duration.ofMillis(builder.waitBetweenRetriesInMilliSeconds));
+        this.hedgingPolicy = builder.hedgingPolicy;
+        this.circuitBreakerPolicy = builder.circuitBreakerPolicy;
+        this.singleFlight = builder.requestCoalescing ? new SingleFlight() : null;
+        this.responseCache = builder.responseCache;
+        this.accessTokenHash = accessTokenHash(builder.accessToken);
+        this.fairSchedulingPolicy = builder.fairSchedulingPolicy;
+        this.tenant = fairSchedulingPolicy == null || accessTokenHash == null ? null
+                : fairSchedulingPolicy.tenant(accessTokenHash, 0);
+        this.defaultPriority = builder.defaultPriority;
+        this.concurrencyPolicy = builder.concurrencyPolicy;
+        this.bulkheadPolicy = builder.bulkheadPolicy;
+        this.paginationPrefetchPages = builder.paginationPrefetchPages;
+        this.paginationPrefetchMaxItems = builder.paginationPrefetchMaxItems;
+        this.lifecycle =
+                new Lifecycle(builder.shutDownDispatcherOnClose, builder.evictConnectionsOnClose);
+        this.accessTokens = CacheBuilder.newBuilder().maximumSize(MAX_ACCESS_TOKENS).build();
+        if (accessTokenHash != null) {
+            accessTokens.put(accessTokenHash, new AccessTokenState(rateLimiter, singleFlight));
+        }
+    }
+
+    /**
+     * Shares everything but the access token, and the requests in flight to wait for when
+     * closing. What's kept for each access token - its rate limit, and the requests in flight to
+     * coalesce with - is shared by every client for that access token, so it isn't lost when
+     * callers create a client for each unit of work. It's kept for the most recently used
+     * {@value #MAX_ACCESS_TOKENS} access tokens.
+     */
+    private HttpClient(HttpClient shared, String accessToken, int weight) {
+        this.rawClient = shared.rawClient;
+        this.urlFormatter = shared.urlFormatter;
+        this.responseParser = shared.responseParser;
+        this.requestWriter = shared.requestWriter;
+        this.credentials = credentials(accessToken);
+        this.errorOnIdempotencyConflict = shared.errorOnIdempotencyConflict;
+        this.maxNoOfRetries = shared.maxNoOfRetries;
+        this.retryPolicy = shared.retryPolicy;
+        this.hedgingPolicy = shared.hedgingPolicy;
+        this.circuitBreakerPolicy = shared.circuitBreakerPolicy;
+        this.responseCache = shared.responseCache;
+        this.accessTokenHash = accessTokenHash(accessToken);
+        this.accessTokens = shared.accessTokens;
+        AccessTokenState state = accessTokens.asMap().computeIfAbsent(accessTokenHash,
+                hash -> new AccessTokenState(
+                        shared.rateLimiter == null ? null : new RateLimiter(),
+                        shared.singleFlight == null ? null : new SingleFlight()));
+        this.rateLimiter = state.rateLimiter;
+        this.singleFlight = state.singleFlight;
+        this.fairSchedulingPolicy = shared.fairSchedulingPolicy;
+        this.tenant = fairSchedulingPolicy == null ? null
+                : fairSchedulingPolicy.tenant(accessTokenHash, weight);
+        this.defaultPriority = shared.defaultPriority;
+        this.concurrencyPolicy = shared.concurrencyPolicy;
+        this.bulkheadPolicy = shared.bulkheadPolicy;
+        this.paginationPrefetchPages = shared.paginationPrefetchPages;
+        this.paginationPrefetchMaxItems = shared.paginationPrefetchMaxItems;
+        this.lifecycle = shared.lifecycle.newChild();
+    }
+
+    private static String credentials(String accessToken) {
+        return accessToken == null ? null : String.format("Bearer %s", accessToken);
+    }
+
+    private static String accessTokenHash(String accessToken) {
+        return accessToken == null ? null
+                : Hashing.sha256().hashString(accessToken, StandardCharsets.UTF_8).toString();
+    }
+
+    /**
+     * Installs the rate limiter and stream limiter ahead of any other interceptors, so that
+     * requests waiting on the rate limit don't hold a stream, followed by what records when
+     * requests got past them.
+     */
+    private static OkHttpClient withInterceptors(OkHttpClient rawClient, RateLimiter rateLimiter,
+            StreamLimiter streamLimiter) {
+        if (rateLimiter == null && streamLimiter == null) {
+            return rawClient;
+        }
+        OkHttpClient.Builder builder = rawClient.newBuilder();
+        builder.interceptors().add(0, Pacing.INTERCEPTOR);
+        if (streamLimiter != null) {
+            builder.interceptors().add(0, streamLimiter);
+        }
+        if (rateLimiter != null) {
+            builder.interceptors().add(0, rateLimiter);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns a builder for an HttpClient. Users of this library should not need to access this
+     * directly - you should use GoCardlessClient.newBuilder() instead.
+     *
+     * @param accessToken the access token.
+     * @param baseUrl base URI to make requests against.
+     * @param rawClient the OkHttpClient instance to use to make requests.
+     */
+    public static Builder newBuilder(String accessToken, String baseUrl, OkHttpClient rawClient) {
+        return new Builder(accessToken, baseUrl, rawClient);
+    }
+
+    /**
+     * Returns an HttpClient which makes requests with a different access token, sharing this
+     * client's connections, threads and configuration. Users of this library should not need to
+     * access this directly - you should use GoCardlessClient.newFactoryBuilder() instead.
+     *
+     * @param accessToken the access token.
+     */
+    public HttpClient withAccessToken(String accessToken) {
+        Preconditions.checkNotNull(accessToken, "accessToken");
+        return new HttpClient(this, accessToken, 0);
+    }
+
+    /**
+     * Returns an HttpClient which makes requests with a different access token, sharing this
+     * client's connections, threads and configuration, and given the weight when fairly
+     * scheduling requests. Users of this library should not need to access this directly - you
+     * should use GoCardlessClient.newFactoryBuilder() instead.
+     *
+     * @param accessToken the access token.
+     * @param weight the number of requests started each turn when scheduling fairly.
+     */
+    public HttpClient withAccessToken(String accessToken, int weight) {
+        Preconditions.checkNotNull(accessToken, "accessToken");
+        Preconditions.checkArgument(weight > 0, "weight must be positive");
+        return new HttpClient(this, accessToken, weight);
     }
 
     public boolean isErrorOnIdempotencyConflict() {
@@ -94,41 +273,621 @@ public class HttpClient {
         return this.maxNoOfRetries;
     }
 
+    @VisibleForTesting
+    public OkHttpClient getRawClient() {
+        return this.rawClient;
+    }
+
+    /**
+     * Stops the client accepting any more requests, and waits up to the given time for those in
+     * flight to finish, before cancelling any which haven't. Then shuts down the threads and
+     * evicts the connections of the underlying OkHttpClient, unless configured not to, or this
+     * client shares them with the one it was created from. Users of this library should not need
+     * to access this directly - you should use GoCardlessClient.close() instead.
+     *
+     * @param timeout how long to wait for requests in flight to finish
+     * @return whether every request in flight finished in time
+     */
+    public boolean close(Duration timeout) {
+        return lifecycle.close(rawClient, timeout.toNanos(), NANOSECONDS);
+    }
+
+    /**
+     * Resolves the API's host and opens up to the given number of connections to it, which are
+     * kept in the connection pool for requests to use, and creates the JSON adapters for the given
+     * types. Users of this library should not need to access this directly - you should use
+     * GoCardlessClient.warmUp() instead.
+     *
+     * @param connections the number of connections to open
+     * @param types the request and resource types to create JSON adapters for
+     * @return the number of connections opened
+     */
+    public int warmUp(int connections, Class<?>... types) {
+        Preconditions.checkArgument(connections >= 0, "connections must not be negative");
+        responseParser.loadAdapter(ApiErrorResponse.class);
+        for (Class<?> type : types) {
+            responseParser.loadAdapter(type);
+        }
+        lifecycle.begin();
+        try {
+            return new ConnectionWarmer(rawClient, urlFormatter.getBaseUrl()).warmUp(connections);
+        } finally {
+            lifecycle.end();
+        }
+    }
+
+    @VisibleForTesting
+    int getInFlight() {
+        return lifecycle.getInFlight();
+    }
+
+    int getPaginationPrefetchPages() {
+        return this.paginationPrefetchPages;
+    }
+
+    int getPaginationPrefetchMaxItems() {
+        return this.paginationPrefetchMaxItems;
+    }
+
     <T> T execute(ApiRequest<T> apiRequest) {
-        Request request = buildRequest(apiRequest);
-        Response response = execute(request);
-        return parseResponseBody(apiRequest, response);
+        lifecycle.begin();
+        try {
+            Attempt attempt = new Attempt(Deadline.of(apiRequest));
+            Request request = buildRequest(apiRequest, attempt);
+            Response response = execute(apiRequest, request, attempt);
+            return parseResponseBody(apiRequest, response);
+        } finally {
+            lifecycle.end();
+        }
     }
 
     <T> ApiResponse<T> executeWrapped(ApiRequest<T> apiRequest) {
-        Request request = buildRequest(apiRequest);
-        Response response = execute(request);
-        T resource = parseResponseBody(apiRequest, response);
-        return new ApiResponse<>(resource, response.code(), response.headers().toMultimap());
+        lifecycle.begin();
+        try {
+            Attempt attempt = new Attempt(Deadline.of(apiRequest));
+            Request request = buildRequest(apiRequest, attempt);
+            Response response = execute(apiRequest, request, attempt);
+            T resource = parseResponseBody(apiRequest, response);
+            return new ApiResponse<>(resource, response.code(), response.headers().toMultimap());
+        } finally {
+            lifecycle.end();
+        }
     }
 
     <T> T executeWithRetries(final ApiRequest<T> apiRequest) {
-        Retryer<T> retrier = RetryerBuilder.<T>newBuilder()
-                .retryIfExceptionOfType(GoCardlessNetworkException.class)
-                .retryIfExceptionOfType(GoCardlessInternalException.class)
-                .withWaitStrategy(WaitStrategies.fixedWait(this.waitBetweenRetriesInMilliSeconds,
-                        MILLISECONDS))
-                .withStopStrategy(StopStrategies.stopAfterAttempt(this.maxNoOfRetries)).build();
-        Callable<T> executeOnce = new Callable<T>() {
+        lifecycle.begin();
+        try {
+            String cached = getCached(apiRequest);
+            if (cached != null) {
+                return parseResponseBody(apiRequest, cached);
+            }
+            if (isCoalesced(apiRequest)) {
+                return singleFlight.execute(coalescingKey(apiRequest),
+                        () -> executeWithRetriesUncoalesced(apiRequest), Deadline.of(apiRequest));
+            }
+            return executeWithRetriesUncoalesced(apiRequest);
+        } finally {
+            lifecycle.end();
+        }
+    }
+
+    private <T> T executeWithRetriesUncoalesced(final ApiRequest<T> apiRequest) {
+        retryPolicy.onRequest();
+        long start = System.nanoTime();
+        Deadline deadline = Deadline.of(apiRequest);
+        long waitMillis = 0;
+        for (int attempts = 1;; attempts++) {
+            Attempt attempt = new Attempt(deadline);
+            try {
+                Response response =
+                        execute(apiRequest, buildRequest(apiRequest, attempt), attempt);
+                return parseResponseBody(apiRequest, response);
+            } catch (GoCardlessException e) {
+                waitMillis = retryPolicy.getWaitMillis(new RetryPolicy.Failure(e, attempts,
+                        elapsedMillis(start), waitMillis, attempt.retryAfterMillis));
+                if (!shouldRetry(waitMillis, deadline)) {
+                    throw e;
+                }
+                try {
+                    MILLISECONDS.sleep(waitMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    <T> CompletableFuture<T> executeAsync(ApiRequest<T> apiRequest) {
+        return tracked(() -> enqueue(apiRequest, (resource, response) -> resource,
+                new Attempt(Deadline.of(apiRequest))));
+    }
+
+    <T> CompletableFuture<ApiResponse<T>> executeWrappedAsync(ApiRequest<T> apiRequest) {
+        return tracked(() -> enqueue(apiRequest, (resource, response) -> new ApiResponse<>(
+                resource, response.code(), response.headers().toMultimap()),
+                new Attempt(Deadline.of(apiRequest))));
+    }
+
+    <T> CompletableFuture<T> executeWithRetriesAsync(final ApiRequest<T> apiRequest) {
+        return tracked(() -> executeWithRetriesAsyncUntracked(apiRequest));
+    }
+
+    /**
+     * Counts a request as in flight until the future it returns completes, or is cancelled.
+     */
+    private <T> CompletableFuture<T> tracked(Supplier<CompletableFuture<T>> execute) {
+        lifecycle.begin();
+        CompletableFuture<T> future;
+        try {
+            future = execute.get();
+        } catch (RuntimeException e) {
+            lifecycle.end();
+            throw e;
+        }
+        future.whenComplete((result, error) -> lifecycle.end());
+        return future;
+    }
+
+    private <T> CompletableFuture<T> executeWithRetriesAsyncUntracked(
+            final ApiRequest<T> apiRequest) {
+        String cached = getCached(apiRequest);
+        if (cached != null) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            try {
+                result.complete(parseResponseBody(apiRequest, cached));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+            return result;
+        }
+        if (isCoalesced(apiRequest)) {
+            return singleFlight.executeAsync(coalescingKey(apiRequest),
+                    () -> executeWithRetriesAsyncUncoalesced(apiRequest));
+        }
+        return executeWithRetriesAsyncUncoalesced(apiRequest);
+    }
+
+    private <T> CompletableFuture<T> executeWithRetriesAsyncUncoalesced(ApiRequest<T> apiRequest) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        retryPolicy.onRequest();
+        attemptAsync(apiRequest, 1, System.nanoTime(), Deadline.of(apiRequest), 0, result);
+        return result;
+    }
+
+    private <T> void attemptAsync(final ApiRequest<T> apiRequest, final int attempts,
+            final long start, final Deadline deadline, final long previousWaitMillis,
+            final CompletableFuture<T> result) {
+        if (result.isDone()) {
+            return;
+        }
+        final Attempt attempt = new Attempt(deadline);
+        final CompletableFuture<T> attemptFuture =
+                enqueue(apiRequest, (resource, response) -> resource, attempt);
+        result.whenComplete((resource, error) -> {
+            if (result.isCancelled()) {
+                attemptFuture.cancel(true);
+            }
+        });
+        attemptFuture.whenComplete((resource, error) -> {
+            if (error == null) {
+                result.complete(resource);
+                return;
+            }
+            Throwable cause = unwrap(error);
+            long waitMillis = cause instanceof GoCardlessException
+                    ? retryPolicy.getWaitMillis(new RetryPolicy.Failure((GoCardlessException) cause,
+                            attempts, elapsedMillis(start), previousWaitMillis,
+                            attempt.retryAfterMillis))
+                    : -1;
+            if (shouldRetry(waitMillis, deadline)) {
+                SCHEDULER.schedule(() -> attemptAsync(apiRequest, attempts + 1, start, deadline,
+                        waitMillis, result), waitMillis, MILLISECONDS);
+            } else {
+                result.completeExceptionally(cause);
+            }
+        });
+    }
+
+    /**
+     * Returns whether to retry a request after the wait asked for by the retry policy, which is
+     * negative if it shouldn't be retried.
+     */
+    private boolean shouldRetry(long waitMillis, Deadline deadline) {
+        return waitMillis >= 0 && !lifecycle.isTerminated()
+                && (deadline == null || !deadline.isPassedAfter(waitMillis));
+    }
+
+    private static long elapsedMillis(long start) {
+        return MILLISECONDS.convert(System.nanoTime() - start, NANOSECONDS);
+    }
+
+    private boolean isCoalesced(ApiRequest<?> apiRequest) {
+        return singleFlight != null && apiRequest.getMethod().equals("GET");
+    }
+
+    /**
+     * Identifies identical requests. The request's class is included so that requests sharing a
+     * result always parse their responses in the same way.
+     */
+    private Object coalescingKey(ApiRequest<?> apiRequest) {
+        return Arrays.asList(apiRequest.getClass(), apiRequest.getMethod(),
+                apiRequest.getUrl(urlFormatter).toString(), apiRequest.getCustomHeaders());
+    }
+
+    /**
+     * Returns the resource type under which a request's response is cached, or null if it isn't
+     * cached.
+     */
+    private Class<?> cachedResourceType(ApiRequest<?> apiRequest) {
+        if (responseCache == null || !(apiRequest instanceof GetRequest)) {
+            return null;
+        }
+        Class<?> resourceType = ((GetRequest<?>) apiRequest).getResponseClass();
+        return responseCache.isCacheable(resourceType) ? resourceType : null;
+    }
+
+    private String getCached(ApiRequest<?> apiRequest) {
+        Class<?> resourceType = cachedResourceType(apiRequest);
+        if (resourceType == null || ((GetRequest<?>) apiRequest).isCacheBypassed()) {
+            return null;
+        }
+        return responseCache.get(resourceType, cacheKey(apiRequest));
+    }
+
+    private String cacheKey(ApiRequest<?> apiRequest) {
+        return cacheKeyPrefix(apiRequest.getUrl(urlFormatter).toString())
+                + apiRequest.getCustomHeaders();
+    }
+
+    private String cacheKeyPrefix(String url) {
+        return accessTokenHash + " " + url + " ";
+    }
+
+    /**
+     * Removes the cached responses which a request other than a GET may have made stale: those
+     * for its URL, and for each resource its URL is nested under, like the mandate an action is
+     * taken on. Responses cached for other access tokens are left to expire.
+     */
+    private void invalidateCached(ApiRequest<?> apiRequest) {
+        if (responseCache == null || apiRequest.getMethod().equals("GET")) {
+            return;
+        }
+        String baseUrl = urlFormatter.getBaseUrl().toString();
+        String url = apiRequest.getUrl(urlFormatter).newBuilder().query(null).build().toString();
+        while (url.length() > baseUrl.length() && url.startsWith(baseUrl)) {
+            responseCache.invalidate(cacheKeyPrefix(url));
+            url = url.substring(0, url.lastIndexOf('/'));
+        }
+    }
+
+    static Throwable unwrap(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            return error.getCause();
+        }
+        return error;
+    }
+
+    private <T, R> CompletableFuture<R> enqueue(final ApiRequest<T> apiRequest,
+            final BiFunction<T, Response, R> resultMapper, final Attempt attempt) {
+        final CompletableFuture<R> future = new CompletableFuture<>();
+        final BreakerPermit permit = breakerPermit(apiRequest, attempt);
+        final CompletableFuture<Response> responseFuture;
+        try {
+            responseFuture = send(apiRequest, buildRequest(apiRequest, attempt), permit);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+        responseFuture.whenComplete((response, error) -> {
+            invalidateCached(apiRequest);
+            if (error != null) {
+                Throwable cause = unwrap(error);
+                if (permit != null && responseFuture.isCancelled()) {
+                    permit.release();
+                } else if (permit != null) {
+                    permit.record(true);
+                }
+                future.completeExceptionally(cause instanceof CircuitBreakerOpenException ? cause
+                        : new GoCardlessNetworkException("Failed to execute request", cause));
+                return;
+            }
+            try {
+                if (!response.isSuccessful()) {
+                    GoCardlessException apiError = handleErrorResponse(response, attempt);
+                    if (permit != null) {
+                        permit.record(apiError instanceof GoCardlessInternalException);
+                    }
+                    throw apiError;
+                }
+                if (permit != null) {
+                    permit.record(false);
+                }
+                T resource = parseResponseBody(apiRequest, response);
+                future.complete(resultMapper.apply(resource, response));
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                responseFuture.cancel(true);
+            }
+        });
+        return future;
+    }
+
+    private CompletableFuture<Response> send(final ApiRequest<?> apiRequest,
+            final Request request, final BreakerPermit permit) {
+        final BulkheadPolicy.Bulkhead bulkhead = bulkhead(apiRequest);
+        if (bulkhead == null) {
+            return sendScheduled(apiRequest, request, permit);
+        }
+        return sendWhenAdmitted(request, new Admission() {
+            @Override
+            public void schedule(Runnable start) {
+                bulkhead.schedule(start);
+            }
+
+            @Override
+            public boolean cancel(Runnable start) {
+                return bulkhead.cancel(start);
+            }
+
+            @Override
+            public void release(Response response, Throwable error, long latencyNanos) {
+                bulkhead.release();
+            }
+        }, () -> sendScheduled(apiRequest, request, permit));
+    }
+
+    private CompletableFuture<Response> sendScheduled(final ApiRequest<?> apiRequest,
+            final Request request, final BreakerPermit permit) {
+        if (tenant == null) {
+            return sendLimited(apiRequest, request, permit);
+        }
+        final RequestPriority priority = priority(apiRequest);
+        return sendWhenAdmitted(request, new Admission() {
+            @Override
+            public void schedule(Runnable start) {
+                fairSchedulingPolicy.schedule(tenant, priority, start);
+            }
+
+            @Override
+            public boolean cancel(Runnable start) {
+                return fairSchedulingPolicy.cancel(tenant, priority, start);
+            }
+
+            @Override
+            public void release(Response response, Throwable error, long latencyNanos) {
+                fairSchedulingPolicy.release(tenant);
+            }
+        }, () -> sendLimited(apiRequest, request, permit));
+    }
+
+    private CompletableFuture<Response> sendLimited(final ApiRequest<?> apiRequest,
+            final Request request, final BreakerPermit permit) {
+        if (concurrencyPolicy == null) {
+            return sendNow(apiRequest, request, permit);
+        }
+        return sendWhenAdmitted(request, new Admission() {
+            @Override
+            public void schedule(Runnable start) {
+                concurrencyPolicy.schedule(start);
+            }
+
+            @Override
+            public boolean cancel(Runnable start) {
+                return concurrencyPolicy.cancel(start);
+            }
+
             @Override
-            public T call() throws Exception {
-                return execute(apiRequest);
+            public void release(Response response, Throwable error, long latencyNanos) {
+                concurrencyPolicy.release(latencyNanos, isOverloaded(response, error));
+            }
+        }, () -> sendNow(apiRequest, request, permit));
+    }
+
+    /**
+     * Sends a request once it's admitted, releasing it once it has finished. If the returned
+     * future is cancelled while the request is queued, it's never sent.
+     */
+    private static CompletableFuture<Response> sendWhenAdmitted(final Request request,
+            final Admission admission, final Supplier<CompletableFuture<Response>> send) {
+        final CompletableFuture<Response> future = new CompletableFuture<>();
+        final Runnable start = new Runnable() {
+            @Override
+            public void run() {
+                if (future.isDone()) {
+                    admission.release(null, null, -1);
+                    return;
+                }
+                try {
+                    // The client may have been closed while the request was queued
+                    request.tag(Lifecycle.class).checkNotTerminated();
+                } catch (IllegalStateException e) {
+                    admission.release(null, null, -1);
+                    future.completeExceptionally(e);
+                    return;
+                }
+                final long startedAt = System.nanoTime();
+                final CompletableFuture<Response> sent = send.get();
+                sent.whenComplete((response, error) -> {
+                    admission.release(response, error, sent.isCancelled() || isRejected(error) ? -1
+                            : latencySince(startedAt, request));
+                    if (error != null) {
+                        future.completeExceptionally(unwrap(error));
+                    } else if (!future.complete(response)) {
+                        response.close();
+                    }
+                });
+                future.whenComplete((response, error) -> {
+                    if (future.isCancelled()) {
+                        sent.cancel(true);
+                    }
+                });
             }
         };
-        try {
-            return retrier.call(executeOnce);
-        } catch (ExecutionException | RetryException e) {
-            Throwable cause = e.getCause();
-            throw Throwables.propagate(cause);
+        future.whenComplete((response, error) -> {
+            if (future.isCancelled()) {
+                admission.cancel(start);
+            }
+        });
+        admission.schedule(start);
+        return future;
+    }
+
+    /**
+     * Returns the time since a request started, less the time it was held back by the client's
+     * own limiters before being sent, which says nothing about how the API is coping.
+     */
+    private static long latencySince(long start, Request request) {
+        Pacing pacing = request.tag(Pacing.class);
+        return System.nanoTime() - start - (pacing == null ? 0 : pacing.heldSince(start));
+    }
+
+    /**
+     * Returns whether a request failed without being made, because its circuit breaker is open.
+     */
+    private static boolean isRejected(Throwable error) {
+        return error != null && unwrap(error) instanceof CircuitBreakerOpenException;
+    }
+
+    /**
+     * Returns whether a request failed in a way which suggests the API is overloaded. A request
+     * which was never made has neither a response nor an error.
+     */
+    private static boolean isOverloaded(Response response, Throwable error) {
+        return error != null
+                || (response != null && (response.code() == 429 || response.code() >= 500));
+    }
+
+    private RequestPriority priority(ApiRequest<?> apiRequest) {
+        RequestPriority priority = apiRequest.getPriority();
+        return priority == null ? defaultPriority : priority;
+    }
+
+    /**
+     * Sends a request once it's been admitted, first taking its circuit breaker permit, so that
+     * time spent queueing isn't counted towards whether it was slow.
+     */
+    private CompletableFuture<Response> sendNow(ApiRequest<?> apiRequest, Request request,
+            final BreakerPermit permit) {
+        if (permit != null) {
+            try {
+                permit.acquire();
+            } catch (CircuitBreakerOpenException e) {
+                CompletableFuture<Response> rejected = new CompletableFuture<>();
+                rejected.completeExceptionally(e);
+                return rejected;
+            }
+        }
+        CompletableFuture<Response> future = sendCall(apiRequest, request);
+        if (permit != null) {
+            future.whenComplete((response, error) -> {
+                if (future.isCancelled()) {
+                    permit.release();
+                }
+            });
+        }
+        return future;
+    }
+
+    private CompletableFuture<Response> sendCall(ApiRequest<?> apiRequest, Request request) {
+        if (isHedged(apiRequest)) {
+            return newHedgedCall(apiRequest, request).enqueue(SCHEDULER);
+        }
+        final CompletableFuture<Response> future = new CompletableFuture<>();
+        final Call call = Deadline.newCall(rawClient, request);
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                future.completeExceptionally(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                if (!future.complete(response)) {
+                    response.close();
+                }
+            }
+        });
+        future.whenComplete((response, error) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+        return future;
+    }
+
+    private boolean isHedged(ApiRequest<?> apiRequest) {
+        return hedgingPolicy != null && apiRequest instanceof GetRequest;
+    }
+
+    private HedgedCall newHedgedCall(ApiRequest<?> apiRequest, Request request) {
+        return new HedgedCall(rawClient, request, hedgingPolicy, apiRequest.getPathTemplate(),
+                hedgeAdmission(apiRequest));
+    }
+
+    /**
+     * Admits a hedged request through the same bulkhead, fair scheduler and concurrency limit as
+     * the request it hedges, but only if they all have room for it straight away.
+     */
+    private HedgedCall.Admission hedgeAdmission(ApiRequest<?> apiRequest) {
+        final BulkheadPolicy.Bulkhead bulkhead = bulkhead(apiRequest);
+        final RequestPriority priority = priority(apiRequest);
+        if (bulkhead == null && tenant == null && concurrencyPolicy == null) {
+            return HedgedCall.Admission.UNLIMITED;
         }
+        return new HedgedCall.Admission() {
+            @Override
+            public boolean tryAcquire() {
+                boolean isolated = false;
+                boolean scheduled = false;
+                try {
+                    isolated = bulkhead == null || bulkhead.acquire(0);
+                    scheduled = isolated && (tenant == null
+                            || fairSchedulingPolicy.acquire(tenant, priority, 0));
+                    if (scheduled && (concurrencyPolicy == null || concurrencyPolicy.acquire(0))) {
+                        return true;
+                    }
+                } catch (BulkheadFullException e) {
+                    // As with any other limit without room, the request isn't hedged
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (scheduled && tenant != null) {
+                    fairSchedulingPolicy.release(tenant);
+                }
+                if (isolated && bulkhead != null) {
+                    bulkhead.release();
+                }
+                return false;
+            }
+
+            @Override
+            public void release(Response response, IOException error, long latencyNanos) {
+                if (concurrencyPolicy != null) {
+                    concurrencyPolicy.release(latencyNanos, isOverloaded(response, error));
+                }
+                if (tenant != null) {
+                    fairSchedulingPolicy.release(tenant);
+                }
+                if (bulkhead != null) {
+                    bulkhead.release();
+                }
+            }
+        };
+    }
+
+    @VisibleForTesting
+    <T> Request buildRequest(ApiRequest<T> apiRequest) {
+        return buildRequest(apiRequest, null);
     }
 
-    private <T> Request buildRequest(ApiRequest<T> apiRequest) {
+    private <T> Request buildRequest(ApiRequest<T> apiRequest, Attempt attempt) {
+        Preconditions.checkState(credentials != null,
+                "Requests can only be made through a client with an access token");
         HttpUrl url = apiRequest.getUrl(urlFormatter);
         Request.Builder request =
                 new Request.Builder().url(url).headers(Headers.of(apiRequest.getHeaders()))
@@ -137,6 +896,17 @@ public class HttpClient {
         for (Map.Entry<String, String> entry : HEADERS.entrySet()) {
             request = request.header(entry.getKey(), entry.getValue());
         }
+        lifecycle.checkNotTerminated();
+        request = request.tag(Lifecycle.class, lifecycle);
+        if (rateLimiter != null) {
+            request = request.tag(RateLimiter.class, rateLimiter);
+        }
+        if (attempt != null) {
+            request = request.tag(Pacing.class, attempt.pacing);
+        }
+        if (attempt != null && attempt.deadline != null) {
+            request = request.tag(Deadline.class, attempt.deadline);
+        }
         return request.build();
     }
 
@@ -148,33 +918,199 @@ public class HttpClient {
                 return EMPTY_BODY;
             }
         }
-        String json = requestWriter.write(request, request.getRequestEnvelope());
-        return RequestBody.create(MEDIA_TYPE, json);
+        return requestWriter.toRequestBody(request, request.getRequestEnvelope());
+    }
+
+    private Response execute(ApiRequest<?> apiRequest, Request request, Attempt attempt) {
+        try {
+            return executeIsolated(apiRequest, request, attempt);
+        } finally {
+            invalidateCached(apiRequest);
+        }
+    }
+
+    private Response executeIsolated(ApiRequest<?> apiRequest, Request request,
+            Attempt attempt) {
+        BulkheadPolicy.Bulkhead bulkhead = bulkhead(apiRequest);
+        if (bulkhead == null) {
+            return executeScheduled(apiRequest, request, attempt);
+        }
+        try {
+            if (!bulkhead.acquire(admissionTimeoutNanos(attempt.deadline))) {
+                throw timedOut();
+            }
+        } catch (InterruptedException e) {
+            throw interrupted();
+        }
+        try {
+            // The client may have been closed while the request was queued
+            lifecycle.checkNotTerminated();
+            return executeScheduled(apiRequest, request, attempt);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private Response executeScheduled(ApiRequest<?> apiRequest, Request request,
+            Attempt attempt) {
+        if (tenant == null) {
+            return executeNow(apiRequest, request, attempt);
+        }
+        try {
+            if (!fairSchedulingPolicy.acquire(tenant, priority(apiRequest),
+                    admissionTimeoutNanos(attempt.deadline))) {
+                throw timedOut();
+            }
+        } catch (InterruptedException e) {
+            throw interrupted();
+        }
+        try {
+            lifecycle.checkNotTerminated();
+            return executeNow(apiRequest, request, attempt);
+        } finally {
+            fairSchedulingPolicy.release(tenant);
+        }
+    }
+
+    private Response executeNow(ApiRequest<?> apiRequest, Request request, Attempt attempt) {
+        BreakerPermit permit = breakerPermit(apiRequest, attempt);
+        boolean failure = true;
+        try {
+            Response response = executeLimited(apiRequest, request, permit);
+            if (!response.isSuccessful()) {
+                GoCardlessException error = handleErrorResponse(response, attempt);
+                failure = error instanceof GoCardlessInternalException;
+                throw error;
+            }
+            failure = false;
+            return response;
+        } finally {
+            if (permit != null) {
+                permit.record(failure);
+            }
+        }
     }
 
-    private Response execute(Request request) {
-        Response response;
+    /**
+     * Makes a request once it's been admitted, first taking its circuit breaker permit, as
+     * {@link #sendNow} does.
+     */
+    private Response executeLimited(ApiRequest<?> apiRequest, Request request,
+            BreakerPermit permit) {
+        if (concurrencyPolicy == null) {
+            if (permit != null) {
+                permit.acquire();
+            }
+            return call(apiRequest, request);
+        }
+        try {
+            if (!concurrencyPolicy.acquire(admissionTimeoutNanos(request.tag(Deadline.class)))) {
+                throw timedOut();
+            }
+        } catch (InterruptedException e) {
+            throw interrupted();
+        }
+        try {
+            lifecycle.checkNotTerminated();
+            if (permit != null) {
+                permit.acquire();
+            }
+        } catch (IllegalStateException | CircuitBreakerOpenException e) {
+            concurrencyPolicy.release(-1, false);
+            throw e;
+        }
+        long start = System.nanoTime();
+        Response response = null;
         try {
-            response = rawClient.newCall(request).execute();
+            response = call(apiRequest, request);
+            return response;
+        } finally {
+            concurrencyPolicy.release(latencySince(start, request),
+                    response == null || isOverloaded(response, null));
+        }
+    }
+
+    private Response call(ApiRequest<?> apiRequest, Request request) {
+        try {
+            if (isHedged(apiRequest)) {
+                return newHedgedCall(apiRequest, request).execute(SCHEDULER);
+            }
+            return Deadline.newCall(rawClient, request).execute();
         } catch (IOException e) {
             throw new GoCardlessNetworkException("Failed to execute request", e);
         }
-        if (!response.isSuccessful()) {
-            throw handleErrorResponse(response);
-        }
-        return response;
+    }
+
+    static GoCardlessNetworkException interrupted() {
+        Thread.currentThread().interrupt();
+        return new GoCardlessNetworkException("Interrupted while waiting to make request",
+                new InterruptedIOException());
+    }
+
+    static GoCardlessNetworkException timedOut() {
+        return new GoCardlessNetworkException("Timed out waiting to make request",
+                new InterruptedIOException("timeout"));
+    }
+
+    /**
+     * Returns how long a request can wait to be let through before its deadline, if it has one.
+     */
+    private static long admissionTimeoutNanos(Deadline deadline) {
+        return deadline == null ? Long.MAX_VALUE : Math.max(0, deadline.remainingNanos());
+    }
+
+    private BulkheadPolicy.Bulkhead bulkhead(ApiRequest<?> apiRequest) {
+        return bulkheadPolicy == null ? null
+                : bulkheadPolicy.forEndpoint(apiRequest.getPathTemplate());
+    }
+
+    private BreakerPermit breakerPermit(ApiRequest<?> apiRequest, Attempt attempt) {
+        return circuitBreakerPolicy == null ? null
+                : new BreakerPermit(
+                        circuitBreakerPolicy.forEndpoint(apiRequest.getPathTemplate()),
+                        attempt.pacing);
     }
 
     private <T> T parseResponseBody(ApiRequest<T> request, Response response) {
+        Class<?> resourceType = cachedResourceType(request);
+        try (ResponseBody responseBody = response.body()) {
+            if (resourceType == null) {
+                PreviewReader reader =
+                        new PreviewReader(responseBody.charStream(), BODY_PREVIEW_LENGTH);
+                try {
+                    return request.parseResponse(reader, responseParser);
+                } catch (MalformedResponseException e) {
+                    throw new MalformedResponseException(response.code(), reader.getPreview());
+                }
+            }
+            String body = responseBody.string();
+            T resource;
+            try {
+                resource = request.parseResponse(new StringReader(body), responseParser);
+            } catch (MalformedResponseException e) {
+                throw new MalformedResponseException(response.code(), body);
+            }
+            responseCache.put(resourceType, cacheKey(request), body);
+            return resource;
+        } catch (IOException e) {
+            throw new GoCardlessNetworkException("Failed to read response body", e);
+        }
+    }
+
+    private <T> T parseResponseBody(ApiRequest<T> request, String body) {
         try {
-            String responseBody = response.body().string();
-            return request.parseResponse(responseBody, responseParser);
+            return request.parseResponse(new StringReader(body), responseParser);
+        } catch (MalformedResponseException e) {
+            throw new MalformedResponseException(body);
         } catch (IOException e) {
             throw new GoCardlessNetworkException("Failed to read response body", e);
         }
     }
 
-    private GoCardlessException handleErrorResponse(Response response) {
+    private GoCardlessException handleErrorResponse(Response response, Attempt attempt) {
+        if (attempt != null) {
+            attempt.retryAfterMillis = retryAfterMillis(response);
+        }
         try {
             String responseBody = response.body().string();
             return responseParser.parseError(responseBody, response.code());
@@ -183,7 +1119,309 @@ public class HttpClient {
         }
     }
 
+    /**
+     * Returns how long the API asked for a failed request not to be retried for, or -1 if it
+     * didn't say. Rate limit errors say so through the time at which the rate limit resets.
+     */
+    private static long retryAfterMillis(Response response) {
+        Long delay = RateLimiter.parseDelay(response.headers(), "Retry-After");
+        if (delay == null && response.code() == 429) {
+            delay = RateLimiter.parseDelay(response.headers(), RateLimiter.RESET_HEADER);
+        }
+        return delay == null ? -1 : Math.max(0, NANOSECONDS.toMillis(delay));
+    }
+
     private static String cleanUserAgentToken(String s) {
         return s.replaceAll(DISALLOWED_USER_AGENT_CHARACTERS, "_");
     }
+
+    /**
+     * Lets requests start when there's room for them, queueing them until then.
+     */
+    private interface Admission {
+        void schedule(Runnable start);
+
+        boolean cancel(Runnable start);
+
+        /**
+         * Records that a request has finished, taking the given time, or -1 if it wasn't made.
+         */
+        void release(Response response, Throwable error, long latencyNanos);
+    }
+
+    /**
+     * What's learnt from a single attempt at a request, beyond whether it succeeded.
+     */
+    private static final class Attempt {
+        private final Deadline deadline;
+        private final Pacing pacing = new Pacing();
+        private volatile long retryAfterMillis = -1;
+
+        Attempt(Deadline deadline) {
+            this.deadline = deadline;
+        }
+    }
+
+    /**
+     * A request's permit from its endpoint's circuit breaker, taken once the request has been
+     * admitted to be sent, and given back exactly once - either with the request's outcome, or
+     * without one if it's abandoned.
+     */
+    private static final class BreakerPermit {
+        private final CircuitBreaker circuitBreaker;
+        private final Pacing pacing;
+        private boolean acquired;
+        private boolean finished;
+        private long start;
+        private long startedAt;
+
+        BreakerPermit(CircuitBreaker circuitBreaker, Pacing pacing) {
+            this.circuitBreaker = circuitBreaker;
+            this.pacing = pacing;
+        }
+
+        /**
+         * @throws CircuitBreakerOpenException if the request can't be made
+         */
+        synchronized void acquire() {
+            start = circuitBreaker.acquire();
+            startedAt = System.nanoTime();
+            acquired = true;
+        }
+
+        void record(boolean failure) {
+            synchronized (this) {
+                if (!acquired || finished) {
+                    return;
+                }
+                finished = true;
+            }
+            circuitBreaker.record(start, pacing.heldSince(startedAt), failure);
+        }
+
+        void release() {
+            synchronized (this) {
+                if (!acquired || finished) {
+                    return;
+                }
+                finished = true;
+            }
+            circuitBreaker.release();
+        }
+    }
+
+    /**
+     * What's kept for each access token, shared by every client using it.
+     */
+    private static final class AccessTokenState {
+        private final RateLimiter rateLimiter;
+        private final SingleFlight singleFlight;
+
+        AccessTokenState(RateLimiter rateLimiter, SingleFlight singleFlight) {
+            this.rateLimiter = rateLimiter;
+            this.singleFlight = singleFlight;
+        }
+    }
+
+    /**
+     * Builder for {@link HttpClient}.
+     */
+    public static final class Builder {
+        private final String accessToken;
+        private final String baseUrl;
+        private final OkHttpClient rawClient;
+        private boolean errorOnIdempotencyConflict;
+        private int maxNoOfRetries = MAX_RETRIES;
+        private long waitBetweenRetriesInMilliSeconds = WAIT_BETWEEN_RETRIES_IN_MILLI_SECONDS;
+        private int paginationPrefetchPages;
+        private int paginationPrefetchMaxItems;
+        private boolean rateLimiting;
+        private RetryPolicy retryPolicy;
+        private HedgingPolicy hedgingPolicy;
+        private CircuitBreakerPolicy circuitBreakerPolicy;
+        private boolean requestCoalescing;
+        private ResponseCache responseCache;
+        private FairSchedulingPolicy fairSchedulingPolicy;
+        private RequestPriority defaultPriority = RequestPriority.NORMAL;
+        private AdaptiveConcurrencyPolicy concurrencyPolicy;
+        private BulkheadPolicy bulkheadPolicy;
+        private int maxConnections;
+        private int maxConcurrentStreams;
+        private boolean shutDownDispatcherOnClose = true;
+        private boolean evictConnectionsOnClose = true;
+
+        private Builder(String accessToken, String baseUrl, OkHttpClient rawClient) {
+            this.accessToken = accessToken;
+            this.baseUrl = baseUrl;
+            this.rawClient = rawClient;
+        }
+
+        /**
+         * Configures the behaviour on an Idempotency Conflict error
+         *
+         * @param errorOnIdempotencyConflict true to raise an error upon conflict, false to fetch
+         *        the conflicting resource instead.
+         */
+        public Builder withErrorOnIdempotencyConflict(boolean errorOnIdempotencyConflict) {
+            this.errorOnIdempotencyConflict = errorOnIdempotencyConflict;
+            return this;
+        }
+
+        /**
+         * Configures the maximum number of attempts made for a retryable request.
+         */
+        public Builder withMaxNoOfRetries(int maxNoOfRetries) {
+            this.maxNoOfRetries = maxNoOfRetries;
+            return this;
+        }
+
+        /**
+         * Configures the time to wait before retrying a failed request, in milliseconds.
+         */
+        public Builder withWaitBetweenRetriesInMilliSeconds(long waitBetweenRetriesInMilliSeconds) {
+            this.waitBetweenRetriesInMilliSeconds = waitBetweenRetriesInMilliSeconds;
+            return this;
+        }
+
+        /**
+         * Configures how far ahead iteration through list responses fetches pages in the
+         * background.
+         *
+         * @param pages the maximum number of pages to fetch ahead of the one being consumed, or 0
+         *        to only fetch a page once the previous one has been consumed
+         * @param maxItems the maximum number of items to buffer ahead of the page being consumed
+         */
+        public Builder withPaginationPrefetch(int pages, int maxItems) {
+            Preconditions.checkArgument(pages >= 0, "pages must not be negative");
+            Preconditions.checkArgument(maxItems > 0, "maxItems must be positive");
+            this.paginationPrefetchPages = pages;
+            this.paginationPrefetchMaxItems = maxItems;
+            return this;
+        }
+
+        /**
+         * Configures whether requests are paced to stay within the rate limit reported in the
+         * {@code RateLimit-*} headers of each response. Disabled by default.
+         */
+        public Builder withRateLimiting(boolean rateLimiting) {
+            this.rateLimiting = rateLimiting;
+            return this;
+        }
+
+        /**
+         * Configures when failed requests are retried. By default, requests are retried with a
+         * {@link BackoffRetryPolicy} using the configured maximum number of retries and wait
+         * between retries.
+         */
+        public Builder withRetryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * Configures hedging of requests for single resources. By default, requests aren't
+         * hedged.
+         */
+        public Builder withHedging(HedgingPolicy hedgingPolicy) {
+            this.hedgingPolicy = hedgingPolicy;
+            return this;
+        }
+
+        /**
+         * Configures circuit breakers for each endpoint. By default, there are no circuit
+         * breakers.
+         */
+        public Builder withCircuitBreaker(CircuitBreakerPolicy circuitBreakerPolicy) {
+            this.circuitBreakerPolicy = circuitBreakerPolicy;
+            return this;
+        }
+
+        /**
+         * Configures whether concurrent identical <code>GET</code> requests share a single call
+         * and its result. Disabled by default.
+         */
+        public Builder withRequestCoalescing(boolean requestCoalescing) {
+            this.requestCoalescing = requestCoalescing;
+            return this;
+        }
+
+        /**
+         * Configures a cache for the responses to requests for single resources. By default,
+         * responses aren't cached.
+         */
+        public Builder withResponseCache(ResponseCache responseCache) {
+            this.responseCache = responseCache;
+            return this;
+        }
+
+        /**
+         * Configures fair scheduling of requests between access tokens. By default, requests
+         * aren't queued.
+         */
+        public Builder withFairScheduling(FairSchedulingPolicy fairSchedulingPolicy) {
+            this.fairSchedulingPolicy = fairSchedulingPolicy;
+            return this;
+        }
+
+        /**
+         * Configures the priority of requests which aren't given one. Defaults to
+         * {@link RequestPriority#NORMAL}.
+         */
+        public Builder withDefaultPriority(RequestPriority defaultPriority) {
+            this.defaultPriority = Preconditions.checkNotNull(defaultPriority, "defaultPriority");
+            return this;
+        }
+
+        /**
+         * Configures an adaptive limit on the number of requests in flight. By default, there's
+         * no limit.
+         */
+        public Builder withAdaptiveConcurrency(AdaptiveConcurrencyPolicy concurrencyPolicy) {
+            this.concurrencyPolicy = concurrencyPolicy;
+            return this;
+        }
+
+        /**
+         * Configures bulkheads partitioning requests to different endpoints. By default, there
+         * are no bulkheads.
+         */
+        public Builder withBulkheads(BulkheadPolicy bulkheadPolicy) {
+            this.bulkheadPolicy = bulkheadPolicy;
+            return this;
+        }
+
+        /**
+         * Configures the maximum number of requests in flight at once, for multiplexing requests
+         * over a bounded number of HTTP/2 connections: <code>maxConcurrentStreams</code> on each
+         * of <code>maxConnections</code> connections, or only <code>maxConnections</code> if
+         * HTTP/1.1 is negotiated instead. By default, there's no limit.
+         */
+        public Builder withMaxConcurrentStreams(int maxConnections, int maxConcurrentStreams) {
+            Preconditions.checkArgument(maxConnections >= 0,
+                    "maxConnections must not be negative");
+            Preconditions.checkArgument(maxConcurrentStreams >= 0,
+                    "maxConcurrentStreams must not be negative");
+            this.maxConnections = maxConnections;
+            this.maxConcurrentStreams = maxConcurrentStreams;
+            return this;
+        }
+
+        /**
+         * Configures whether closing the client shuts down the threads of the OkHttpClient's
+         * dispatcher, and evicts the connections in its pool. Both are done by default, and should
+         * be disabled for a dispatcher or connection pool which is shared with other clients.
+         */
+        public Builder withShutdownOnClose(boolean dispatcher, boolean connectionPool) {
+            this.shutDownDispatcherOnClose = dispatcher;
+            this.evictConnectionsOnClose = connectionPool;
+            return this;
+        }
+
+        /**
+         * Builds a configured HttpClient.
+         */
+        public HttpClient build() {
+            return new HttpClient(this);
+        }
+    }
 }
@@ -8,6 +8,7 @@ import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public abstract class IdempotentPostRequest<T> extends PostRequest<T> {
     private static final Predicate<ApiError> CONFLICT_ERROR = new Predicate<ApiError>() {
@@ -37,13 +38,57 @@ public abstract class IdempotentPostRequest<T> extends PostRequest<T> {
             Optional<ApiError> conflictError = Iterables.tryFind(e.getErrors(), CONFLICT_ERROR);
             if (conflictError.isPresent() && !getHttpClient().isErrorOnIdempotencyConflict()) {
                 String id = conflictError.get().getLinks().get("conflicting_resource_id");
-                return handleConflict(getHttpClient(), id).execute();
+                return conflicting(id).execute();
             } else {
                 throw Throwables.propagate(e);
             }
         }
     }
 
+    /**
+     * Executes this request asynchronously.
+     *
+     * Returns a future which completes with the response entity, or completes exceptionally with
+     * a {@link com.gocardless.GoCardlessException}.
+     */
+    @Override
+    public CompletableFuture<T> executeAsync() {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final CompletableFuture<T> creation = getHttpClient().executeWithRetriesAsync(this);
+        result.whenComplete((resource, error) -> {
+            if (result.isCancelled()) {
+                creation.cancel(true);
+            }
+        });
+        creation.whenComplete((resource, error) -> {
+            if (error == null) {
+                result.complete(resource);
+                return;
+            }
+            Throwable cause = HttpClient.unwrap(error);
+            if (cause instanceof InvalidStateException) {
+                Optional<ApiError> conflictError = Iterables
+                        .tryFind(((InvalidStateException) cause).getErrors(), CONFLICT_ERROR);
+                if (conflictError.isPresent()
+                        && !getHttpClient().isErrorOnIdempotencyConflict()) {
+                    String id = conflictError.get().getLinks().get("conflicting_resource_id");
+                    conflicting(id).executeAsync()
+                            .whenComplete((conflicting, conflictFailure) -> {
+                                if (conflictFailure == null) {
+                                    result.complete(conflicting);
+                                } else {
+                                    result.completeExceptionally(
+                                            HttpClient.unwrap(conflictFailure));
+                                }
+                            });
+                    return;
+                }
+            }
+            result.completeExceptionally(cause);
+        });
+        return result;
+    }
+
     protected void setIdempotencyKey(String idempotencyKey) {
         this.idempotencyKey = idempotencyKey;
     }
@@ -61,5 +106,13 @@ public abstract class IdempotentPostRequest<T> extends PostRequest<T> {
                 .putAll(super.getHeaders()).build();
     }
 
+    private GetRequest<T> conflicting(String id) {
+        GetRequest<T> request = handleConflict(getHttpClient(), id);
+        request.setPriority(getPriority());
+        request.setTimeout(getTimeout());
+        request.setDeadline(getDeadline());
+        return request;
+    }
+
     protected abstract GetRequest<T> handleConflict(HttpClient httpClient, String id);
 }
@@ -0,0 +1,226 @@
+package com.gocardless.http;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link ResponseCache} which holds responses in memory, up to a maximum size, evicting the
+ * least recently used responses to make room for new ones.
+ *
+ * Only responses for types of resource given a time to live are cached, for example resources
+ * which rarely change, like creditors or scheme identifiers. Other eviction policies, such as a
+ * W-TinyLFU cache from a caching library, can be used by implementing {@link ResponseCache}.
+ */
+public final class InMemoryResponseCache implements ResponseCache {
+    // Approximate memory used by an entry besides its key and body
+    private static final long ENTRY_OVERHEAD_BYTES = 96;
+
+    private final Map<Class<?>, Long> ttlNanos = new ConcurrentHashMap<>();
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Ticker ticker;
+    private long maxSizeBytes = 16 * 1024 * 1024;
+    private long sizeBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public InMemoryResponseCache() {
+        this(Ticker.systemTicker());
+    }
+
+    @VisibleForTesting
+    InMemoryResponseCache(Ticker ticker) {
+        this.ticker = ticker;
+    }
+
+    /**
+     * The maximum approximate memory used by cached responses, in bytes. Defaults to 16 MiB.
+     */
+    public InMemoryResponseCache withMaximumSize(long maxSizeBytes) {
+        Preconditions.checkArgument(maxSizeBytes > 0, "maxSizeBytes must be positive");
+        synchronized (this) {
+            this.maxSizeBytes = maxSizeBytes;
+            evictToFit(0);
+        }
+        return this;
+    }
+
+    /**
+     * Caches responses for a type of resource for the given time. Responses for types of resource
+     * which aren't given a time to live aren't cached.
+     *
+     * @param resourceType the type of resource, for example
+     *        <code>com.gocardless.resources.Creditor</code>
+     * @param ttl how long to use a cached response for
+     */
+    public InMemoryResponseCache withTtl(Class<?> resourceType, Duration ttl) {
+        Preconditions.checkArgument(!ttl.isNegative() && !ttl.isZero(), "ttl must be positive");
+        ttlNanos.put(resourceType, ttl.toNanos());
+        return this;
+    }
+
+    @Override
+    public boolean isCacheable(Class<?> resourceType) {
+        return ttlNanos.containsKey(resourceType);
+    }
+
+    @Override
+    public synchronized String get(Class<?> resourceType, String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && ticker.read() - entry.expiresAt >= 0) {
+            remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.body;
+    }
+
+    @Override
+    public void put(Class<?> resourceType, String key, String body) {
+        Long ttl = ttlNanos.get(resourceType);
+        if (ttl == null) {
+            return;
+        }
+        long size = sizeOf(key, body);
+        synchronized (this) {
+            remove(key);
+            if (size > maxSizeBytes) {
+                return;
+            }
+            evictToFit(size);
+            entries.put(key, new Entry(body, size, ticker.read() + ttl));
+            sizeBytes += size;
+        }
+    }
+
+    @Override
+    public synchronized void invalidate(String keyPrefix) {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Entry> entry = iterator.next();
+            if (entry.getKey().startsWith(keyPrefix)) {
+                sizeBytes -= entry.getValue().size;
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes every cached response.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+        sizeBytes = 0;
+    }
+
+    /**
+     * Returns statistics about the use of the cache.
+     */
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, evictions, entries.size(), sizeBytes);
+    }
+
+    private void evictToFit(long size) {
+        Iterator<Entry> leastRecentlyUsed = entries.values().iterator();
+        while (sizeBytes + size > maxSizeBytes && leastRecentlyUsed.hasNext()) {
+            sizeBytes -= leastRecentlyUsed.next().size;
+            leastRecentlyUsed.remove();
+            evictions++;
+        }
+    }
+
+    private void remove(String key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            sizeBytes -= entry.size;
+        }
+    }
+
+    private static long sizeOf(String key, String body) {
+        return ENTRY_OVERHEAD_BYTES + 2L * (key.length() + body.length());
+    }
+
+    private static final class Entry {
+        private final String body;
+        private final long size;
+        private final long expiresAt;
+
+        Entry(String body, long size, long expiresAt) {
+            this.body = body;
+            this.size = size;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Statistics about the use of an {@link InMemoryResponseCache}.
+     */
+    public static final class Stats {
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+        private final long entryCount;
+        private final long sizeBytes;
+
+        Stats(long hitCount, long missCount, long evictionCount, long entryCount,
+                long sizeBytes) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.entryCount = entryCount;
+            this.sizeBytes = sizeBytes;
+        }
+
+        /**
+         * Returns the number of requests answered from the cache.
+         */
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        /**
+         * Returns the number of requests for cacheable resources which weren't in the cache, or
+         * had expired.
+         */
+        public long getMissCount() {
+            return missCount;
+        }
+
+        /**
+         * Returns the number of responses removed to make room for others.
+         */
+        public long getEvictionCount() {
+            return evictionCount;
+        }
+
+        /**
+         * Returns the number of responses in the cache.
+         */
+        public long getEntryCount() {
+            return entryCount;
+        }
+
+        /**
+         * Returns the approximate memory used by the responses in the cache, in bytes.
+         */
+        public long getSizeBytes() {
+            return sizeBytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%d misses=%d evictions=%d entries=%d sizeBytes=%d",
+                    hitCount, missCount, evictionCount, entryCount, sizeBytes);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.gocardless.http;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Call;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+/**
+ * Tracks the requests a client has in flight, so that closing it can wait for them to finish.
+ *
+ * Clients sharing another's connections and threads, such as those for other access tokens, have
+ * a lifecycle of their own within the shared client's. Closing one only waits for and cancels
+ * its own requests, while closing the shared client does so for every client's requests, then
+ * shuts down the threads and connections if it owns them.
+ */
+final class Lifecycle {
+    private final Lifecycle parent;
+    private final boolean shutDownDispatcher;
+    private final boolean evictConnections;
+    private int inFlight;
+    private boolean closed;
+    private volatile boolean terminated;
+
+    Lifecycle(boolean shutDownDispatcher, boolean evictConnections) {
+        this(null, shutDownDispatcher, evictConnections);
+    }
+
+    private Lifecycle(Lifecycle parent, boolean shutDownDispatcher, boolean evictConnections) {
+        this.parent = parent;
+        this.shutDownDispatcher = shutDownDispatcher;
+        this.evictConnections = evictConnections;
+    }
+
+    Lifecycle newChild() {
+        return new Lifecycle(this, false, false);
+    }
+
+    /**
+     * Records that a request has started, which must be followed by a call to {@link #end()}.
+     *
+     * @throws IllegalStateException if the client has been closed
+     */
+    synchronized void begin() {
+        Preconditions.checkState(!closed, "Requests can't be made once the client is closed");
+        if (parent != null) {
+            parent.begin();
+        }
+        inFlight++;
+    }
+
+    synchronized void end() {
+        inFlight--;
+        if (parent != null) {
+            parent.end();
+        }
+        notifyAll();
+    }
+
+    /**
+     * Throws if the client gave up waiting for its requests when closing, so that requests
+     * waiting to be retried are not.
+     *
+     * @throws IllegalStateException if the client has been closed
+     */
+    void checkNotTerminated() {
+        Preconditions.checkState(!isTerminated(),
+                "Requests can't be made once the client is closed");
+    }
+
+    boolean isTerminated() {
+        return terminated || (parent != null && parent.isTerminated());
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Stops any more requests starting, and waits up to the given time for those in flight to
+     * finish before cancelling them. If interrupted, stops waiting straight away.
+     *
+     * @return whether every request finished in time
+     */
+    boolean close(OkHttpClient rawClient, long timeout, TimeUnit unit) {
+        boolean drained;
+        synchronized (this) {
+            closed = true;
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            long remaining;
+            try {
+                while (inFlight > 0 && (remaining = deadline - System.nanoTime()) > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            } catch (InterruptedException e) {
+                // Stop waiting, but still cancel what's left
+                Thread.currentThread().interrupt();
+            }
+            drained = inFlight == 0;
+        }
+        terminated = true;
+        Dispatcher dispatcher = rawClient.dispatcher();
+        List<Call> calls = new ArrayList<>(dispatcher.queuedCalls());
+        calls.addAll(dispatcher.runningCalls());
+        for (Call call : calls) {
+            Lifecycle lifecycle = call.request().tag(Lifecycle.class);
+            if (lifecycle != null && lifecycle.isWithin(this)) {
+                call.cancel();
+            }
+        }
+        if (shutDownDispatcher) {
+            dispatcher.executorService().shutdown();
+        }
+        if (evictConnections) {
+            rawClient.connectionPool().evictAll();
+        }
+        return drained;
+    }
+
+    private boolean isWithin(Lifecycle lifecycle) {
+        return this == lifecycle || (parent != null && parent.isWithin(lifecycle));
+    }
+}
@@ -1,9 +1,18 @@
 package com.gocardless.http;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
 import com.google.gson.reflect.TypeToken;
+import java.io.IOException;
+import java.io.Reader;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Base class for GET requests that return multiple items.
@@ -50,11 +59,112 @@ public abstract class ListRequest<S, T> extends ApiRequest<ListResponse<T>> {
         return executor.executeWrapped(this, getHttpClient());
     }
 
+    /**
+     * Executes this request asynchronously.
+     *
+     * Returns a future which completes with the API response, or completes exceptionally with a
+     * {@link com.gocardless.GoCardlessException}.
+     */
+    public CompletableFuture<S> executeAsync() {
+        return executor.executeAsync(this, getHttpClient());
+    }
+
+    /**
+     * Executes this request asynchronously.
+     *
+     * Returns a future which completes with a {@link com.gocardless.http.ApiResponse} that wraps
+     * the response entity, or completes exceptionally with a
+     * {@link com.gocardless.GoCardlessException}.
+     */
+    public CompletableFuture<ApiResponse<S>> executeWrappedAsync() {
+        return executor.executeWrappedAsync(this, getHttpClient());
+    }
+
+    /**
+     * Iterates through every item created within the range given by {@code pagination}, by
+     * splitting that range into windows which are paginated concurrently.
+     *
+     * Only available for list endpoints which support <code>created_at</code> filters. Any
+     * <code>created_at</code> filters already set on this request are replaced by the range being
+     * iterated through, and pages are fetched with this request's other filters and headers.
+     *
+     * In ordered mode (see {@link ParallelPagination#withOrdered}), windows are returned from the
+     * latest to the earliest, so items come in the API's default order, newest first. If this
+     * request asks for another sort order, items are only in that order within each window.
+     *
+     * The iterators returned are {@link CloseableIterator}s, which should be closed if they're
+     * abandoned before the end, to cancel the pages being fetched in the background.
+     *
+     * @throws com.gocardless.GoCardlessException
+     * @throws IllegalStateException if this endpoint doesn't support <code>created_at</code>
+     *         filters
+     */
+    public Iterable<T> executeInParallel(final ParallelPagination pagination) {
+        Preconditions.checkState(!hasBody(),
+                "executeInParallel not available for list requests with a body");
+        Preconditions.checkState(hasCreatedAtFilters(),
+                "executeInParallel not available for list requests without created_at filters");
+        return () -> new PartitionedPaginatingIterator<>(this, getHttpClient(), pagination);
+    }
+
+    /**
+     * Returns a sequential stream of every item matching this request, fetching pages as the
+     * stream is consumed. Closing the stream stops fetching pages, and cancels any being fetched
+     * in the background.
+     *
+     * @throws com.gocardless.GoCardlessException
+     */
+    public Stream<T> stream() {
+        final PaginatingIterable<T> items = new PaginatingIterable<>(this, getHttpClient());
+        final AtomicReference<CloseableIterator<T>> iterator = new AtomicReference<>();
+        return StreamSupport.stream(() -> {
+            iterator.set(items.iterator());
+            return Spliterators.spliteratorUnknownSize(iterator.get(),
+                    Spliterator.ORDERED | Spliterator.NONNULL);
+        }, Spliterator.ORDERED | Spliterator.NONNULL, false).onClose(() -> {
+            if (iterator.get() != null) {
+                iterator.get().close();
+            }
+        });
+    }
+
+    /**
+     * Returns a parallel stream of every item created within the range given by
+     * {@code pagination}. The range is divided into at most {@code pagination}'s number of windows
+     * as the stream is split, and each window is paginated by the thread processing it.
+     *
+     * Only available for list endpoints which support <code>created_at</code> filters. Any
+     * <code>created_at</code> filters already set on this request are replaced by the range being
+     * streamed. Pages are fetched on the threads running the stream, which for most terminal
+     * operations means the common fork-join pool.
+     *
+     * If {@code pagination} is ordered, the stream's encounter order is that of
+     * {@link #executeInParallel}: window by window from the latest to the earliest, newest first.
+     *
+     * @throws com.gocardless.GoCardlessException
+     * @throws IllegalStateException if this endpoint doesn't support <code>created_at</code>
+     *         filters
+     */
+    public Stream<T> parallelStream(ParallelPagination pagination) {
+        Preconditions.checkState(!hasBody(),
+                "parallelStream not available for list requests with a body");
+        Preconditions.checkState(hasCreatedAtFilters(),
+                "parallelStream not available for list requests without created_at filters");
+        return StreamSupport.stream(new CreatedAtSpliterator<>(this, getHttpClient(),
+                pagination.getRange(), pagination.getWindows(), pagination.isOrdered()), true);
+    }
+
     @Override
     protected ListResponse<T> parseResponse(String responseBody, ResponseParser responseParser) {
         return responseParser.parsePage(responseBody, getEnvelope(), getTypeToken());
     }
 
+    @Override
+    protected ListResponse<T> parseResponse(Reader responseBody, ResponseParser responseParser)
+            throws IOException {
+        return responseParser.parsePage(responseBody, getEnvelope(), getTypeToken());
+    }
+
     @Override
     protected final String getMethod() {
         return this.method;
@@ -65,6 +175,14 @@ public abstract class ListRequest<S, T> extends ApiRequest<ListResponse<T>> {
         return false;
     }
 
+    /**
+     * Returns whether this endpoint can be filtered by creation time, so can be split into windows
+     * of creation times.
+     */
+    protected boolean hasCreatedAtFilters() {
+        return false;
+    }
+
     @Override
     protected Map<String, Object> getQueryParams() {
         ImmutableMap.Builder<String, Object> params = ImmutableMap.builder();
@@ -98,6 +216,15 @@ public abstract class ListRequest<S, T> extends ApiRequest<ListResponse<T>> {
         S execute(ListRequest<S, T> request, HttpClient client);
 
         ApiResponse<S> executeWrapped(ListRequest<S, T> request, HttpClient client);
+
+        default CompletableFuture<S> executeAsync(ListRequest<S, T> request, HttpClient client) {
+            return CompletableFuture.supplyAsync(() -> execute(request, client));
+        }
+
+        default CompletableFuture<ApiResponse<S>> executeWrappedAsync(ListRequest<S, T> request,
+                HttpClient client) {
+            return CompletableFuture.supplyAsync(() -> executeWrapped(request, client));
+        }
     }
 
     public static <T> ListRequestExecutor<ListResponse<T>, T> pagingExecutor() {
@@ -113,6 +240,18 @@ public abstract class ListRequest<S, T> extends ApiRequest<ListResponse<T>> {
                     ListRequest<ListResponse<T>, T> request, HttpClient client) {
                 return client.executeWrapped(request);
             }
+
+            @Override
+            public CompletableFuture<ListResponse<T>> executeAsync(
+                    ListRequest<ListResponse<T>, T> request, HttpClient client) {
+                return client.executeWithRetriesAsync(request);
+            }
+
+            @Override
+            public CompletableFuture<ApiResponse<ListResponse<T>>> executeWrappedAsync(
+                    ListRequest<ListResponse<T>, T> request, HttpClient client) {
+                return client.executeWrappedAsync(request);
+            }
         };
     }
 
@@ -129,6 +268,21 @@ public abstract class ListRequest<S, T> extends ApiRequest<ListResponse<T>> {
                 throw new IllegalStateException(
                         "executeWrapped not available when iterating through list responses");
             }
+
+            @Override
+            public CompletableFuture<Iterable<T>> executeAsync(
+                    ListRequest<Iterable<T>, T> request, HttpClient client) {
+                // Pages are fetched lazily as the iterable is consumed, so there's nothing to
+                // wait for here.
+                return CompletableFuture.completedFuture(execute(request, client));
+            }
+
+            @Override
+            public CompletableFuture<ApiResponse<Iterable<T>>> executeWrappedAsync(
+                    ListRequest<Iterable<T>, T> request, HttpClient client) {
+                throw new IllegalStateException(
+                        "executeWrapped not available when iterating through list responses");
+            }
         };
     }
 }
@@ -0,0 +1,45 @@
+package com.gocardless.http;
+
+import java.io.IOException;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * Records when a request got past the client's own {@link RateLimiter} and {@link StreamLimiter},
+ * so that the time it was held back by them can be left out of the latencies which are meant to
+ * measure the API.
+ *
+ * A request is tagged with its own instance, which is stamped by the {@link #INTERCEPTOR}
+ * installed after the limiters. Only the first call to get past them stamps it, so a hedged
+ * request is timed from the call which was sent first.
+ */
+final class Pacing {
+    static final Interceptor INTERCEPTOR = new Interceptor() {
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            Pacing pacing = chain.request().tag(Pacing.class);
+            if (pacing != null) {
+                pacing.sent(System.nanoTime());
+            }
+            return chain.proceed(chain.request());
+        }
+    };
+
+    private boolean sent;
+    private long sentAt;
+
+    private synchronized void sent(long now) {
+        if (!sent) {
+            sent = true;
+            sentAt = now;
+        }
+    }
+
+    /**
+     * Returns how long the request was held back for after the given time, from
+     * {@link System#nanoTime()}, or zero if it never got past the limiters.
+     */
+    synchronized long heldSince(long start) {
+        return sent ? Math.max(0, sentAt - start) : 0;
+    }
+}
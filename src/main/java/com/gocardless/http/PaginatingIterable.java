@@ -1,7 +1,5 @@
 package com.gocardless.http;
 
-import java.util.Iterator;
-
 class PaginatingIterable<T> implements Iterable<T> {
     private final ListRequest<?, T> request;
     private final HttpClient client;
@@ -12,7 +10,11 @@ class PaginatingIterable<T> implements Iterable<T> {
     }
 
     @Override
-    public Iterator<T> iterator() {
+    public CloseableIterator<T> iterator() {
+        if (client.getPaginationPrefetchPages() > 0) {
+            return new PrefetchingPaginatingIterator<>(request, client,
+                    client.getPaginationPrefetchPages(), client.getPaginationPrefetchMaxItems());
+        }
         return new PaginatingIterator<>(request, client);
     }
 }
@@ -1,14 +1,14 @@
 package com.gocardless.http;
 
 import com.google.common.collect.AbstractIterator;
-import com.google.common.collect.Lists;
-import java.util.List;
+import java.util.Iterator;
 
-class PaginatingIterator<T> extends AbstractIterator<T> {
+class PaginatingIterator<T> extends AbstractIterator<T> implements CloseableIterator<T> {
     private final ListRequest<?, T> request;
     private final HttpClient client;
-    private List<T> items;
+    private Iterator<T> items;
     private String nextCursor;
+    private volatile boolean closed;
 
     PaginatingIterator(ListRequest<?, T> request, HttpClient client) {
         this.request = request;
@@ -18,21 +18,31 @@ class PaginatingIterator<T> extends AbstractIterator<T> {
 
     @Override
     protected T computeNext() {
-        if (items.isEmpty() && nextCursor != null) {
+        if (closed) {
+            return endOfData();
+        }
+        if (!items.hasNext() && nextCursor != null) {
             loadPage();
         }
-        if (items.isEmpty()) {
+        if (!items.hasNext()) {
             return endOfData();
         }
-        T item = items.get(0);
-        items.remove(0);
-        return item;
+        return items.next();
+    }
+
+    /**
+     * Stops fetching pages. A page already being fetched on the iterating thread is still
+     * fetched.
+     */
+    @Override
+    public void close() {
+        closed = true;
     }
 
     private void loadPage() {
         request.setAfter(nextCursor);
         ListResponse<T> response = client.executeWithRetries(request);
-        items = Lists.newArrayList(response.getItems());
+        items = response.getItems().iterator();
         nextCursor = response.getAfter();
     }
 }
@@ -0,0 +1,97 @@
+package com.gocardless.http;
+
+import com.google.common.base.Preconditions;
+import java.time.Instant;
+
+/**
+ * Configures iteration through a list request by splitting a range of creation times into
+ * windows which are paginated concurrently.
+ *
+ * Only list endpoints which support <code>created_at</code> filters can be iterated in this way.
+ * Any <code>created_at</code> filters already set on the request are replaced by the range
+ * given here.
+ */
+public final class ParallelPagination {
+    private final Instant from;
+    private final Instant to;
+    private int windows = 4;
+    private int parallelism = 4;
+    private boolean ordered = true;
+    private int maxBufferedItems = 10000;
+
+    /**
+     * @param from the start of the range of creation times to iterate through (inclusive)
+     * @param to the end of the range of creation times to iterate through (exclusive)
+     */
+    public ParallelPagination(Instant from, Instant to) {
+        Preconditions.checkArgument(from.isBefore(to), "from must be before to");
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * The number of equal-length windows to split the range into. Defaults to 4.
+     *
+     * For {@link ListRequest#parallelStream}, this is the maximum number of windows the range is
+     * divided into as the stream is split.
+     */
+    public ParallelPagination withWindows(int windows) {
+        Preconditions.checkArgument(windows > 0, "windows must be positive");
+        this.windows = windows;
+        return this;
+    }
+
+    /**
+     * The maximum number of pages to fetch at the same time. Defaults to 4.
+     *
+     * Not used by {@link ListRequest#parallelStream}, whose parallelism is that of the stream.
+     */
+    public ParallelPagination withParallelism(int parallelism) {
+        Preconditions.checkArgument(parallelism > 0, "parallelism must be positive");
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Whether items should be returned window by window, from the latest window to the earliest
+     * (the default), or as soon as their page has been fetched.
+     *
+     * Within a window, items are returned in the order the API lists them, which is newest first
+     * unless the request sorts them otherwise. Ordered iteration therefore returns items in the
+     * same order as iterating through the whole range page by page.
+     */
+    public ParallelPagination withOrdered(boolean ordered) {
+        this.ordered = ordered;
+        return this;
+    }
+
+    /**
+     * The maximum number of fetched items to hold in memory before pausing fetching. Defaults to
+     * 10,000.
+     */
+    public ParallelPagination withMaxBufferedItems(int maxBufferedItems) {
+        Preconditions.checkArgument(maxBufferedItems > 0, "maxBufferedItems must be positive");
+        this.maxBufferedItems = maxBufferedItems;
+        return this;
+    }
+
+    CreatedAtWindow getRange() {
+        return new CreatedAtWindow(from, to);
+    }
+
+    int getWindows() {
+        return windows;
+    }
+
+    int getParallelism() {
+        return parallelism;
+    }
+
+    boolean isOrdered() {
+        return ordered;
+    }
+
+    int getMaxBufferedItems() {
+        return maxBufferedItems;
+    }
+}
@@ -0,0 +1,206 @@
+package com.gocardless.http;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Iterates through a list request whose range of creation times has been split into windows,
+ * paginating several windows concurrently.
+ *
+ * Fetching pauses once the configured number of items is buffered, except that in ordered mode
+ * the window being consumed is always allowed to fetch its next page.
+ */
+class PartitionedPaginatingIterator<T> extends AbstractIterator<T>
+        implements CloseableIterator<T> {
+    private final ListRequest<?, T> request;
+    private final HttpClient client;
+    private final List<Partition> partitions;
+    private final int parallelism;
+    private final int maxItems;
+    private final boolean ordered;
+    private Iterator<T> items = ImmutableList.<T>of().iterator();
+    private int current;
+    private int inFlight;
+    private int bufferedItems;
+    private Throwable failure;
+    private volatile boolean closed;
+
+    PartitionedPaginatingIterator(ListRequest<?, T> request, HttpClient client,
+            ParallelPagination pagination) {
+        this.request = request;
+        this.client = client;
+        this.parallelism = pagination.getParallelism();
+        this.maxItems = pagination.getMaxBufferedItems();
+        this.ordered = pagination.isOrdered();
+        ImmutableList.Builder<Partition> partitions = ImmutableList.builder();
+        for (CreatedAtWindow window : pagination.getRange().split(pagination.getWindows())) {
+            partitions.add(new Partition(window));
+        }
+        this.partitions = partitions.build();
+        synchronized (this) {
+            fetchMore();
+        }
+    }
+
+    @Override
+    protected T computeNext() {
+        if (closed) {
+            return endOfData();
+        }
+        if (!items.hasNext()) {
+            List<T> page = takePage();
+            if (page == null) {
+                return endOfData();
+            }
+            items = page.iterator();
+        }
+        return items.next();
+    }
+
+    private synchronized List<T> takePage() {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                List<T> page = pollPage();
+                if (page != null) {
+                    bufferedItems -= page.size();
+                    fetchMore();
+                    if (!page.isEmpty()) {
+                        return page;
+                    }
+                    continue;
+                }
+                if (failure != null) {
+                    throw Throwables.propagate(failure);
+                }
+                if (closed || isExhausted()) {
+                    return null;
+                }
+                fetchMore();
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private List<T> pollPage() {
+        if (ordered) {
+            while (current < partitions.size()) {
+                Partition partition = partitions.get(current);
+                if (!partition.pages.isEmpty()) {
+                    return partition.pages.poll();
+                }
+                if (!partition.exhausted) {
+                    return null;
+                }
+                current++;
+            }
+            return null;
+        }
+        for (Partition partition : partitions) {
+            if (!partition.pages.isEmpty()) {
+                return partition.pages.poll();
+            }
+        }
+        return null;
+    }
+
+    private boolean isExhausted() {
+        for (int i = current; i < partitions.size(); i++) {
+            Partition partition = partitions.get(i);
+            if (!partition.exhausted || !partition.pages.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void fetchMore() {
+        for (int i = current; i < partitions.size() && failure == null && !closed; i++) {
+            if (inFlight >= parallelism) {
+                return;
+            }
+            Partition partition = partitions.get(i);
+            if (partition.fetching != null || partition.exhausted) {
+                continue;
+            }
+            boolean blockingConsumer = ordered && i == current && partition.pages.isEmpty();
+            if (bufferedItems < maxItems || blockingConsumer) {
+                fetch(partition);
+            }
+        }
+    }
+
+    private void fetch(final Partition partition) {
+        inFlight++;
+        WindowedListRequest<T> page =
+                new WindowedListRequest<>(request, partition.window, partition.cursor);
+        CompletableFuture<ListResponse<T>> fetching = client.executeWithRetriesAsync(page);
+        partition.fetching = fetching;
+        fetching.whenComplete((response, error) -> onPage(partition, response, error));
+    }
+
+    @Override
+    public void close() {
+        List<CompletableFuture<?>> fetching = new ArrayList<>();
+        synchronized (this) {
+            closed = true;
+            for (Partition partition : partitions) {
+                partition.pages.clear();
+                if (partition.fetching != null) {
+                    fetching.add(partition.fetching);
+                }
+            }
+            bufferedItems = 0;
+            notifyAll();
+        }
+        for (CompletableFuture<?> page : fetching) {
+            page.cancel(true);
+        }
+    }
+
+    private synchronized void onPage(Partition partition, ListResponse<T> response,
+            Throwable error) {
+        partition.fetching = null;
+        inFlight--;
+        if (closed) {
+            return;
+        }
+        if (error != null) {
+            failure = HttpClient.unwrap(error);
+        } else {
+            partition.pages.add(response.getItems());
+            bufferedItems += response.getItems().size();
+            partition.cursor = response.getAfter();
+            partition.exhausted = partition.cursor == null;
+            fetchMore();
+        }
+        notifyAll();
+    }
+
+    private final class Partition {
+        private final CreatedAtWindow window;
+        private final Deque<List<T>> pages = new ArrayDeque<>();
+        private String cursor;
+        private CompletableFuture<ListResponse<T>> fetching;
+        private boolean exhausted;
+
+        private Partition(CreatedAtWindow window) {
+            this.window = window;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.gocardless.http;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Throwables;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Iterates through a paginated list, fetching the following pages in the background while the
+ * current one is consumed.
+ *
+ * Because each page's cursor comes from the page before it, at most one page is in flight at a
+ * time. Fetching pauses once either {@code maxPages} pages or {@code maxItems} items are buffered
+ * ahead of the consumer, and resumes as the buffered pages are taken.
+ */
+class PrefetchingPaginatingIterator<T> extends AbstractIterator<T>
+        implements CloseableIterator<T> {
+    private final ListRequest<?, T> request;
+    private final HttpClient client;
+    private final int maxPages;
+    private final int maxItems;
+    private final Deque<List<T>> pages = new ArrayDeque<>();
+    private Iterator<T> items = ImmutableList.<T>of().iterator();
+    private int bufferedItems;
+    private String nextCursor;
+    private CompletableFuture<ListResponse<T>> fetching;
+    private boolean exhausted;
+    private volatile boolean closed;
+    private Throwable failure;
+
+    PrefetchingPaginatingIterator(ListRequest<?, T> request, HttpClient client, int maxPages,
+            int maxItems) {
+        this.request = request;
+        this.client = client;
+        this.maxPages = maxPages;
+        this.maxItems = maxItems;
+        synchronized (this) {
+            fetchNextPage();
+        }
+    }
+
+    @Override
+    protected T computeNext() {
+        if (closed) {
+            return endOfData();
+        }
+        if (!items.hasNext()) {
+            List<T> page = takePage();
+            if (page == null) {
+                return endOfData();
+            }
+            items = page.iterator();
+        }
+        return items.next();
+    }
+
+    private synchronized List<T> takePage() {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                // Skip over any empty pages, such as an empty last page.
+                while (!pages.isEmpty()) {
+                    List<T> page = pages.poll();
+                    bufferedItems -= page.size();
+                    maybeFetchNextPage();
+                    if (!page.isEmpty()) {
+                        return page;
+                    }
+                }
+                if (failure != null) {
+                    throw Throwables.propagate(failure);
+                }
+                if (exhausted || closed) {
+                    return null;
+                }
+                maybeFetchNextPage();
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void maybeFetchNextPage() {
+        if (fetching == null && !exhausted && !closed && failure == null
+                && pages.size() < maxPages && bufferedItems < maxItems) {
+            fetchNextPage();
+        }
+    }
+
+    private void fetchNextPage() {
+        request.setAfter(nextCursor);
+        CompletableFuture<ListResponse<T>> page = client.executeWithRetriesAsync(request);
+        fetching = page;
+        page.whenComplete(this::onPage);
+    }
+
+    @VisibleForTesting
+    synchronized int getBufferedPages() {
+        return pages.size();
+    }
+
+    @VisibleForTesting
+    synchronized boolean isFetching() {
+        return fetching != null;
+    }
+
+    @Override
+    public void close() {
+        CompletableFuture<ListResponse<T>> page;
+        synchronized (this) {
+            closed = true;
+            pages.clear();
+            bufferedItems = 0;
+            page = fetching;
+            notifyAll();
+        }
+        if (page != null) {
+            page.cancel(true);
+        }
+    }
+
+    private synchronized void onPage(ListResponse<T> response, Throwable error) {
+        fetching = null;
+        if (closed) {
+            return;
+        }
+        if (error != null) {
+            failure = HttpClient.unwrap(error);
+        } else {
+            pages.add(response.getItems());
+            bufferedItems += response.getItems().size();
+            nextCursor = response.getAfter();
+            exhausted = nextCursor == null;
+            maybeFetchNextPage();
+        }
+        notifyAll();
+    }
+}
@@ -0,0 +1,44 @@
+package com.gocardless.http;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Passes a response body through to its parser, keeping a copy of the first characters read so
+ * that a malformed body can still be reported without buffering the whole of every response.
+ */
+final class PreviewReader extends FilterReader {
+    private final StringBuilder preview = new StringBuilder();
+    private final int maxLength;
+
+    PreviewReader(Reader in, int maxLength) {
+        super(in);
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int c = super.read();
+        if (c != -1 && preview.length() < maxLength) {
+            preview.append((char) c);
+        }
+        return c;
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) throws IOException {
+        int read = super.read(buffer, offset, length);
+        if (read > 0 && preview.length() < maxLength) {
+            preview.append(buffer, offset, Math.min(read, maxLength - preview.length()));
+        }
+        return read;
+    }
+
+    /**
+     * Returns the first characters read, up to the maximum length.
+     */
+    String getPreview() {
+        return preview.toString();
+    }
+}
@@ -1,5 +1,7 @@
 package com.gocardless.http;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Base class for PUT requests.
  *
@@ -32,6 +34,27 @@ public abstract class PutRequest<T> extends ApiRequest<T> {
         return getHttpClient().executeWrapped(this);
     }
 
+    /**
+     * Executes this request asynchronously.
+     *
+     * Returns a future which completes with the response entity, or completes exceptionally with
+     * a {@link com.gocardless.GoCardlessException}.
+     */
+    public CompletableFuture<T> executeAsync() {
+        return getHttpClient().executeWithRetriesAsync(this);
+    }
+
+    /**
+     * Executes this request asynchronously.
+     *
+     * Returns a future which completes with a {@link com.gocardless.http.ApiResponse} that wraps
+     * the response entity, or completes exceptionally with a
+     * {@link com.gocardless.GoCardlessException}.
+     */
+    public CompletableFuture<ApiResponse<T>> executeWrappedAsync() {
+        return getHttpClient().executeWrappedAsync(this);
+    }
+
     @Override
     protected T parseResponse(String responseBody, ResponseParser responseParser) {
         return responseParser.parseSingle(responseBody, getEnvelope(), getResponseClass());
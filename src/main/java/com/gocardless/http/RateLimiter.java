@@ -0,0 +1,209 @@
+package com.gocardless.http;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.primitives.Longs;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * Paces requests to stay within the rate limit reported by the API.
+ *
+ * Every response carries {@code RateLimit-Limit}, {@code RateLimit-Remaining} and
+ * {@code RateLimit-Reset} headers. From these, the limiter refills a token bucket at the rate
+ * which spends the requests remaining in the window evenly until it resets, allowing bursts of up
+ * to a tenth of the limit. Once the remaining requests are used up, further requests wait for the
+ * window to reset, and are spread over the next window at the rate of the limit, rather than all
+ * being let through at once. Requests aren't delayed until a response with these headers has been
+ * seen, or after the window they described has reset.
+ *
+ * Each access token has its own rate limit, so each has its own limiter, shared by everything
+ * using it. A request is paced by the limiter it's tagged with, or else by the installed limiter
+ * itself, so clients for many access tokens can share one {@link okhttp3.OkHttpClient}. The
+ * limiter is installed ahead of any other interceptors, so time spent waiting isn't included in
+ * the times logged by {@link LoggingInterceptor}. Asynchronous requests wait on the dispatcher's
+ * threads. A waiting request gives up as soon as its call is cancelled, which includes the call
+ * timing out and the client being closed.
+ */
+final class RateLimiter implements Interceptor {
+    static final String LIMIT_HEADER = "RateLimit-Limit";
+    static final String REMAINING_HEADER = "RateLimit-Remaining";
+    static final String RESET_HEADER = "RateLimit-Reset";
+    private static final int BURST_DIVISOR = 10;
+    // How often a waiting request checks whether its call has been cancelled
+    private static final long POLL_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final Ticker ticker;
+    private boolean informed;
+    // Requests which have been let through, but whose responses haven't been seen yet
+    private int pending;
+    // Requests left in the current window, less those pending
+    private long remaining;
+    private long resetAt;
+    private long limit;
+    // The longest time until a reset seen, taken as the length of the window
+    private long windowNanos;
+    private double tokens;
+    private double capacity;
+    private double tokensPerNano;
+    private long refilledAt;
+
+    RateLimiter() {
+        this(Ticker.systemTicker());
+    }
+
+    @VisibleForTesting
+    RateLimiter(Ticker ticker) {
+        this.ticker = ticker;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        RateLimiter limiter = chain.request().tag(RateLimiter.class);
+        return limiter == null ? limit(chain) : limiter.limit(chain);
+    }
+
+    private Response limit(Chain chain) throws IOException {
+        long delay = reserve();
+        Response response;
+        try {
+            Deadline deadline = chain.request().tag(Deadline.class);
+            if (deadline != null && delay >= deadline.remainingNanos()) {
+                // No point waiting for the rate limit if the request would time out first
+                throw new InterruptedIOException("timeout");
+            }
+            if (delay > 0) {
+                await(chain, delay);
+            }
+            response = chain.proceed(chain.request());
+        } catch (InterruptedException e) {
+            release();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the rate limit");
+        } catch (IOException | RuntimeException e) {
+            release();
+            throw e;
+        }
+        update(response.headers());
+        return response;
+    }
+
+    /**
+     * Waits for the given time, unless the call is cancelled first.
+     */
+    private static void await(Chain chain, long delay) throws IOException, InterruptedException {
+        long until = System.nanoTime() + delay;
+        for (long remaining = delay; remaining > 0; remaining = until - System.nanoTime()) {
+            if (chain.call().isCanceled()) {
+                throw new IOException("Canceled while waiting for the rate limit");
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.min(remaining, POLL_INTERVAL_NANOS));
+        }
+    }
+
+    /**
+     * Lets a request through, returning how long it should wait before being made, in
+     * nanoseconds.
+     */
+    synchronized long reserve() {
+        long now = ticker.read();
+        pending++;
+        if (!informed) {
+            return 0;
+        }
+        if (now - resetAt >= 0) {
+            informed = false;
+            return 0;
+        }
+        if (remaining <= 0) {
+            // Those waiting for the reset are let through one at a time at the rate of the limit
+            long waiting = -remaining;
+            remaining--;
+            return resetAt - now + waiting * windowNanos / limit;
+        }
+        refill(now);
+        remaining--;
+        tokens -= 1;
+        if (tokens >= 0) {
+            return 0;
+        }
+        if (tokensPerNano == 0) {
+            return resetAt - now;
+        }
+        return Math.min((long) Math.ceil(-tokens / tokensPerNano), resetAt - now);
+    }
+
+    /**
+     * Records that a request failed without a response.
+     */
+    synchronized void release() {
+        pending--;
+    }
+
+    /**
+     * Records the response to a request, updating the bucket from its rate limit headers.
+     */
+    synchronized void update(Headers headers) {
+        pending--;
+        Long reportedLimit = parseLong(headers.get(LIMIT_HEADER));
+        Long reportedRemaining = parseLong(headers.get(REMAINING_HEADER));
+        Long resetIn = parseDelay(headers, RESET_HEADER);
+        if (reportedLimit == null || reportedLimit <= 0 || reportedRemaining == null
+                || resetIn == null) {
+            return;
+        }
+        long now = ticker.read();
+        if (resetIn <= 0) {
+            informed = false;
+            return;
+        }
+        limit = reportedLimit;
+        windowNanos = Math.max(windowNanos, resetIn);
+        if (informed) {
+            refill(now);
+        } else {
+            tokens = Double.MAX_VALUE;
+        }
+        informed = true;
+        remaining = reportedRemaining - pending;
+        resetAt = now + resetIn;
+        capacity = Math.max(1, reportedLimit / BURST_DIVISOR);
+        tokens = Math.min(tokens, Math.min(capacity, Math.max(remaining, 0)));
+        // Whatever isn't already in the bucket is spread over the rest of the window
+        tokensPerNano = Math.max(0, remaining - tokens) / (double) resetIn;
+        refilledAt = now;
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+    }
+
+    /**
+     * Returns the time until the time given in a header, in nanoseconds, or null if there isn't
+     * one. The header may be a number of seconds or an HTTP date, which is compared with the
+     * response's {@code Date} header where there is one to avoid depending on the local clock.
+     */
+    static Long parseDelay(Headers headers, String name) {
+        Long seconds = parseLong(headers.get(name));
+        if (seconds != null) {
+            return TimeUnit.SECONDS.toNanos(seconds);
+        }
+        Date time = headers.getDate(name);
+        if (time == null) {
+            return null;
+        }
+        Date date = headers.getDate("Date");
+        long base = date == null ? System.currentTimeMillis() : date.getTime();
+        return TimeUnit.MILLISECONDS.toNanos(time.getTime() - base);
+    }
+
+    private static Long parseLong(String value) {
+        return value == null ? null : Longs.tryParse(value.trim());
+    }
+}
@@ -0,0 +1,21 @@
+package com.gocardless.http;
+
+/**
+ * The priority of a request. When requests are queued by a {@link FairSchedulingPolicy}, those
+ * with a higher priority start first, so that interactive requests, like those made during
+ * checkout, don't wait behind batch work, like iterating through all of a merchant's payments.
+ */
+public enum RequestPriority {
+    /**
+     * For requests a user is waiting on.
+     */
+    HIGH,
+    /**
+     * The default priority.
+     */
+    NORMAL,
+    /**
+     * For background and batch work, which can wait.
+     */
+    LOW
+}
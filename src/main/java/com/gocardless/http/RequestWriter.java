@@ -1,9 +1,17 @@
 package com.gocardless.http;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
 
 final class RequestWriter {
+    private static final MediaType MEDIA_TYPE = MediaType.parse("application/json; charset=utf-8");
     private final Gson gson;
 
     RequestWriter(Gson gson) {
@@ -11,8 +19,84 @@ final class RequestWriter {
     }
 
     public <T> String write(T object, String envelope) {
-        JsonObject result = new JsonObject();
-        result.add(envelope, gson.toJsonTree(object));
-        return gson.toJson(result);
+        StringWriter writer = new StringWriter();
+        try {
+            write(object, envelope, writer);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Returns a request body holding the given object, wrapped in the given envelope, serialized
+     * straight into an okio buffer. The body has a known length, so it's sent with a
+     * Content-Length header, and the buffer's segments are shared rather than copied each time the
+     * body is written.
+     */
+    public <T> RequestBody toRequestBody(final T object, final String envelope) {
+        final Buffer buffer = new Buffer();
+        try {
+            write(object, envelope, new SinkWriter(buffer));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return MEDIA_TYPE;
+            }
+
+            @Override
+            public long contentLength() {
+                return buffer.size();
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                sink.write(buffer.copy(), buffer.size());
+            }
+        };
+    }
+
+    private <T> void write(T object, String envelope, Writer out) throws IOException {
+        JsonWriter writer = gson.newJsonWriter(out);
+        writer.beginObject();
+        writer.name(envelope);
+        gson.toJson(object, object.getClass(), writer);
+        writer.endObject();
+        writer.flush();
+    }
+
+    /**
+     * Encodes straight into an okio sink, without going through an intermediate String.
+     */
+    private static final class SinkWriter extends Writer {
+        private final BufferedSink sink;
+
+        private SinkWriter(BufferedSink sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            sink.writeUtf8CodePoint(c);
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            sink.writeUtf8(str, off, off + len);
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            sink.writeUtf8(new String(cbuf, off, len));
+        }
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
     }
 }
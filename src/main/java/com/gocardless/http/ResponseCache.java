@@ -0,0 +1,45 @@
+package com.gocardless.http;
+
+/**
+ * Caches the responses to requests for single resources, so that they don't have to be fetched
+ * from the API every time.
+ *
+ * Implementations decide which types of resource to cache, and for how long. A single cache is
+ * shared by every request made through a client, so implementations must be thread-safe.
+ *
+ * @see InMemoryResponseCache
+ */
+public interface ResponseCache {
+    /**
+     * Returns the body of a cached response, or null if there isn't one.
+     *
+     * @param resourceType the type of resource requested, for example
+     *        <code>com.gocardless.resources.Creditor</code>
+     * @param key identifies the request, from its URL and custom headers
+     */
+    String get(Class<?> resourceType, String key);
+
+    /**
+     * Offers the body of a response to the cache, which may store it.
+     *
+     * @param resourceType the type of resource requested
+     * @param key identifies the request, from its URL and custom headers
+     * @param body the body of the response
+     */
+    void put(Class<?> resourceType, String key, String body);
+
+    /**
+     * Returns whether responses for a type of resource may be cached. Responses for other types
+     * aren't offered to the cache.
+     */
+    boolean isCacheable(Class<?> resourceType);
+
+    /**
+     * Removes the cached responses for a URL, whatever custom headers they were requested with,
+     * after a request which may have changed the resource there. Does nothing by default, leaving
+     * them to expire.
+     *
+     * @param keyPrefix the start of the keys of the requests for the URL
+     */
+    default void invalidate(String keyPrefix) {}
+}
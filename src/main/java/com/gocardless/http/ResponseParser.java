@@ -7,8 +7,23 @@ import com.gocardless.errors.MalformedResponseException;
 import com.google.common.collect.ImmutableList;
 import com.google.gson.*;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.reflect.ParameterizedType;
 import java.util.List;
 
+/**
+ * Parses response bodies.
+ *
+ * Successful responses are decoded as they are read, straight from the response's reader into the
+ * target types, without building an intermediate tree of the whole document. The methods taking a
+ * String are kept for callers which already hold the whole body, such as webhook parsing.
+ */
 final class ResponseParser {
     private final Gson gson;
 
@@ -17,38 +32,91 @@ final class ResponseParser {
     }
 
     <T> T parseSingle(String responseBody, String envelope, Class<T> clazz) {
-        JsonElement json;
         try {
-            json = new JsonParser().parse(responseBody);
-        } catch (JsonSyntaxException e) {
+            return parseSingle(new StringReader(responseBody), envelope, clazz);
+        } catch (MalformedResponseException e) {
             throw new MalformedResponseException(responseBody);
+        } catch (IOException e) {
+            throw new AssertionError(e);
         }
-        JsonObject object = json.getAsJsonObject().getAsJsonObject(envelope);
-        return gson.fromJson(object, clazz);
+    }
+
+    <T> T parseSingle(Reader responseBody, String envelope, Class<T> clazz) throws IOException {
+        JsonReader reader = gson.newJsonReader(responseBody);
+        return readSingle(reader, envelope, clazz);
     }
 
     <T> ImmutableList<T> parseMultiple(String responseBody, String envelope,
             TypeToken<List<T>> clazz) {
-        JsonObject json = new JsonParser().parse(responseBody).getAsJsonObject();
-        JsonArray array = json.getAsJsonArray(envelope);
-        List<T> items = gson.fromJson(array, clazz.getType());
-        return ImmutableList.copyOf(items);
+        TypeAdapter<T> adapter = elementAdapter(clazz);
+        JsonReader reader = gson.newJsonReader(new StringReader(responseBody));
+        try {
+            ImmutableList<T> items = ImmutableList.of();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals(envelope)) {
+                    items = readList(reader, adapter);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            return items;
+        } catch (MalformedJsonException | EOFException | IllegalStateException
+                | JsonParseException e) {
+            throw new MalformedResponseException(responseBody);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
     }
 
-    <T> ImmutableList<T> parseMultiple(JsonObject json, String envelope, TypeToken<List<T>> clazz) {
-        JsonArray array = json.getAsJsonArray(envelope);
-        List<T> items = gson.fromJson(array, clazz.getType());
-        return ImmutableList.copyOf(items);
+    <T> ListResponse<T> parsePage(String responseBody, String envelope, TypeToken<List<T>> clazz) {
+        try {
+            return parsePage(new StringReader(responseBody), envelope, clazz);
+        } catch (MalformedResponseException e) {
+            throw new MalformedResponseException(responseBody);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
     }
 
-    <T> ListResponse<T> parsePage(String responseBody, String envelope, TypeToken<List<T>> clazz) {
-        JsonObject json = new JsonParser().parse(responseBody).getAsJsonObject();
-        List<T> items = parseMultiple(json, envelope, clazz);
-        JsonObject metaJson = json.getAsJsonObject("meta");
-        ListResponse.Meta meta = gson.fromJson(metaJson, ListResponse.Meta.class);
-        JsonObject linkedJson = json.getAsJsonObject("linked");
-        ListResponse.Linked linked = gson.fromJson(linkedJson, ListResponse.Linked.class);
-        return new ListResponse<>(ImmutableList.copyOf(items), meta, linked);
+    <T> ListResponse<T> parsePage(Reader responseBody, String envelope, TypeToken<List<T>> clazz)
+            throws IOException {
+        TypeAdapter<T> adapter = elementAdapter(clazz);
+        JsonReader reader = gson.newJsonReader(responseBody);
+        try {
+            ImmutableList<T> items = ImmutableList.of();
+            ListResponse.Meta meta = null;
+            ListResponse.Linked linked = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (name.equals(envelope)) {
+                    items = readList(reader, adapter);
+                } else if (name.equals("meta")) {
+                    meta = gson.getAdapter(ListResponse.Meta.class).read(reader);
+                } else if (name.equals("linked")) {
+                    linked = gson.getAdapter(ListResponse.Linked.class).read(reader);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            return new ListResponse<>(items, meta, linked);
+        } catch (MalformedJsonException | EOFException | IllegalStateException
+                | JsonParseException e) {
+            // An empty or truncated body is as malformed as one which isn't JSON. The caller
+            // knows the status code, and has a copy of the body to report.
+            throw new MalformedResponseException(null);
+        }
+    }
+
+    /**
+     * Creates the adapters for a type ahead of its first use, rather than when the first response
+     * containing it is parsed.
+     */
+    void loadAdapter(Class<?> type) {
+        gson.getAdapter(type);
     }
 
     GoCardlessApiException parseError(String responseBody, int statusCode) {
@@ -74,4 +142,47 @@ final class ResponseParser {
             throw new MalformedResponseException(statusCode, responseBody);
         }
     }
+
+    private <T> T readSingle(JsonReader reader, String envelope, Class<T> clazz)
+            throws IOException {
+        try {
+            T result = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals(envelope)) {
+                    result = gson.getAdapter(clazz).read(reader);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            return result;
+        } catch (MalformedJsonException | EOFException | IllegalStateException
+                | JsonParseException e) {
+            // An empty or truncated body is as malformed as one which isn't JSON. The caller
+            // knows the status code, and has a copy of the body to report.
+            throw new MalformedResponseException(null);
+        }
+    }
+
+    private static <T> ImmutableList<T> readList(JsonReader reader, TypeAdapter<T> adapter)
+            throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return ImmutableList.of();
+        }
+        ImmutableList.Builder<T> items = ImmutableList.builder();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            items.add(adapter.read(reader));
+        }
+        reader.endArray();
+        return items.build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> TypeAdapter<T> elementAdapter(TypeToken<List<T>> listType) {
+        ParameterizedType type = (ParameterizedType) listType.getType();
+        return (TypeAdapter<T>) gson.getAdapter(TypeToken.get(type.getActualTypeArguments()[0]));
+    }
 }
@@ -0,0 +1,82 @@
+package com.gocardless.http;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits retries to a proportion of the requests made over the last ten seconds, plus a minimum
+ * number of retries per second, so that retrying can't multiply the load on the API while it's
+ * failing. Also used to limit hedged requests in the same way.
+ */
+final class RetryBudget {
+    private static final int WINDOW_SECONDS = 10;
+
+    private final double ratio;
+    private final int minRetriesPerSecond;
+    private final Ticker ticker;
+    private final long[] requests = new long[WINDOW_SECONDS];
+    private final long[] retries = new long[WINDOW_SECONDS];
+    private long currentSecond;
+
+    RetryBudget(double ratio, int minRetriesPerSecond) {
+        this(ratio, minRetriesPerSecond, Ticker.systemTicker());
+    }
+
+    @VisibleForTesting
+    RetryBudget(double ratio, int minRetriesPerSecond, Ticker ticker) {
+        this.ratio = ratio;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.ticker = ticker;
+        this.currentSecond = second();
+    }
+
+    synchronized void recordRequest() {
+        advance();
+        requests[slot(currentSecond)]++;
+    }
+
+    /**
+     * Takes a retry from the budget, returning false if there are none left.
+     */
+    synchronized boolean tryRetry() {
+        advance();
+        double allowed = ratio * sum(requests) + minRetriesPerSecond * WINDOW_SECONDS;
+        if (sum(retries) + 1 > allowed) {
+            return false;
+        }
+        retries[slot(currentSecond)]++;
+        return true;
+    }
+
+    private void advance() {
+        long second = second();
+        if (second - currentSecond >= WINDOW_SECONDS) {
+            Arrays.fill(requests, 0);
+            Arrays.fill(retries, 0);
+        } else {
+            for (long s = currentSecond + 1; s <= second; s++) {
+                requests[slot(s)] = 0;
+                retries[slot(s)] = 0;
+            }
+        }
+        currentSecond = Math.max(currentSecond, second);
+    }
+
+    private long second() {
+        return TimeUnit.NANOSECONDS.toSeconds(ticker.read());
+    }
+
+    private static int slot(long second) {
+        return (int) Math.floorMod(second, (long) WINDOW_SECONDS);
+    }
+
+    private static long sum(long[] counts) {
+        long sum = 0;
+        for (long count : counts) {
+            sum += count;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,83 @@
+package com.gocardless.http;
+
+import com.gocardless.GoCardlessException;
+
+/**
+ * Decides whether, and when, a failed request is retried.
+ *
+ * A single policy is shared by every request made through a client, so implementations must be
+ * thread-safe. The policy is only consulted for requests which are safe to retry: <code>GET</code>,
+ * <code>PUT</code> and <code>DELETE</code> requests, and <code>POST</code> requests made with an
+ * idempotency key.
+ *
+ * @see BackoffRetryPolicy
+ */
+public interface RetryPolicy {
+    /**
+     * Records that a request which may be retried is about to be made for the first time.
+     */
+    void onRequest();
+
+    /**
+     * Returns how long to wait before attempting a failed request again, in milliseconds, or a
+     * negative number to stop and throw the request's error.
+     */
+    long getWaitMillis(Failure failure);
+
+    /**
+     * Describes a failed attempt at a request.
+     */
+    final class Failure {
+        private final GoCardlessException error;
+        private final int attempts;
+        private final long elapsedMillis;
+        private final long previousWaitMillis;
+        private final long retryAfterMillis;
+
+        Failure(GoCardlessException error, int attempts, long elapsedMillis,
+                long previousWaitMillis, long retryAfterMillis) {
+            this.error = error;
+            this.attempts = attempts;
+            this.elapsedMillis = elapsedMillis;
+            this.previousWaitMillis = previousWaitMillis;
+            this.retryAfterMillis = retryAfterMillis;
+        }
+
+        /**
+         * Returns the error the attempt failed with.
+         */
+        public GoCardlessException getError() {
+            return error;
+        }
+
+        /**
+         * Returns the number of attempts made so far, including this one.
+         */
+        public int getAttempts() {
+            return attempts;
+        }
+
+        /**
+         * Returns the time since the first attempt was made, in milliseconds.
+         */
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        /**
+         * Returns the time waited before this attempt, in milliseconds, or 0 for the first attempt.
+         */
+        public long getPreviousWaitMillis() {
+            return previousWaitMillis;
+        }
+
+        /**
+         * Returns how long the API asked for the request not to be retried for, from its
+         * <code>Retry-After</code> or <code>RateLimit-Reset</code> header, in milliseconds, or -1
+         * if it didn't say.
+         */
+        public long getRetryAfterMillis() {
+            return retryAfterMillis;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.gocardless.http;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical requests, so that only the first is made and the others share
+ * its result (or its error).
+ *
+ * A call made asynchronously is only cancelled once everyone sharing it has cancelled.
+ */
+final class SingleFlight {
+    private final ConcurrentMap<Object, Flight> flights = new ConcurrentHashMap<>();
+
+    /**
+     * Makes a call on the calling thread, or waits for an identical call already in flight. The
+     * identical call may have been made with a later deadline, so the wait for it is cut short by
+     * the caller's own deadline, if any.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T execute(Object key, Supplier<T> call, Deadline deadline) {
+        Flight flight = new Flight(key);
+        Flight existing = flights.putIfAbsent(key, flight);
+        if (existing != null) {
+            CompletableFuture<T> shared = existing.share();
+            try {
+                if (deadline == null) {
+                    return shared.join();
+                }
+                return shared.get(Math.max(0, deadline.remainingNanos()), NANOSECONDS);
+            } catch (CompletionException | ExecutionException e) {
+                throw (RuntimeException) e.getCause();
+            } catch (TimeoutException e) {
+                shared.cancel(true);
+                throw HttpClient.timedOut();
+            } catch (InterruptedException e) {
+                shared.cancel(true);
+                throw HttpClient.interrupted();
+            }
+        }
+        flight.share();
+        try {
+            T result = call.get();
+            flights.remove(key, flight);
+            flight.result.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            flights.remove(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Makes a call asynchronously, or shares an identical call already in flight.
+     */
+    @SuppressWarnings("unchecked")
+    <T> CompletableFuture<T> executeAsync(Object key, Supplier<CompletableFuture<T>> call) {
+        Flight flight = new Flight(key);
+        Flight existing = flights.putIfAbsent(key, flight);
+        if (existing != null) {
+            return (CompletableFuture<T>) existing.share();
+        }
+        CompletableFuture<T> shared = flight.share();
+        CompletableFuture<T> source = call.get();
+        flight.setSource(source);
+        source.whenComplete((result, error) -> {
+            flights.remove(key, flight);
+            if (error != null) {
+                flight.result.completeExceptionally(HttpClient.unwrap(error));
+            } else {
+                flight.result.complete(result);
+            }
+        });
+        return shared;
+    }
+
+    private final class Flight {
+        private final Object key;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private CompletableFuture<?> source;
+        private int sharers;
+        private boolean abandoned;
+
+        Flight(Object key) {
+            this.key = key;
+        }
+
+        /**
+         * Returns a future for the result of the call, which can be cancelled without affecting
+         * anyone else sharing it.
+         */
+        @SuppressWarnings("unchecked")
+        synchronized <T> CompletableFuture<T> share() {
+            sharers++;
+            CompletableFuture<T> shared = new CompletableFuture<>();
+            result.whenComplete((value, error) -> {
+                if (error != null) {
+                    shared.completeExceptionally(error);
+                } else {
+                    shared.complete((T) value);
+                }
+            });
+            shared.whenComplete((value, error) -> {
+                if (shared.isCancelled()) {
+                    abandon();
+                }
+            });
+            return shared;
+        }
+
+        synchronized void setSource(CompletableFuture<?> source) {
+            this.source = source;
+            if (abandoned) {
+                source.cancel(true);
+            }
+        }
+
+        private synchronized void abandon() {
+            if (--sharers == 0 && !result.isDone()) {
+                abandoned = true;
+                // Later identical calls shouldn't share one which is being cancelled
+                flights.remove(key, this);
+                if (source != null) {
+                    source.cancel(true);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.gocardless.http;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+/**
+ * Limits the number of requests in flight at once, so that requests multiplexed over HTTP/2 stay
+ * within the configured number of connections.
+ *
+ * OkHttp only opens another HTTP/2 connection once every open one has as many streams as the
+ * server allows. With at most {@code maxConnections * maxConcurrentStreams} requests in flight,
+ * and a server allowing at least {@code maxConcurrentStreams} streams per connection, no more
+ * than {@code maxConnections} connections are needed.
+ *
+ * Over https, HTTP/2 is negotiated with the server, which may settle on HTTP/1.1 instead - for
+ * example behind a proxy which doesn't support HTTP/2. Each request in flight then needs a
+ * connection of its own, so once a response arrives over HTTP/1.1, the limit drops to
+ * {@code maxConnections} requests. Requests sent before then may still open more connections.
+ *
+ * Like the {@link RateLimiter}, this covers both blocking and asynchronous requests, and
+ * asynchronous requests wait on the dispatcher's threads. A request's stream is only released
+ * once its response's body has been read to the end or closed.
+ */
+final class StreamLimiter implements Interceptor {
+    private final Streams streams;
+    private final int maxConnections;
+    private final int maxStreams;
+    private final AtomicBoolean fellBack = new AtomicBoolean();
+
+    StreamLimiter(int maxConnections, int maxConcurrentStreams) {
+        this.maxConnections = maxConnections;
+        this.maxStreams = maxConnections * maxConcurrentStreams;
+        this.streams = new Streams(maxStreams);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        try {
+            streams.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a stream");
+        }
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (IOException | RuntimeException e) {
+            streams.release();
+            throw e;
+        }
+        if (!isMultiplexed(response.protocol()) && fellBack.compareAndSet(false, true)) {
+            streams.reducePermits(maxStreams - maxConnections);
+        }
+        return response.newBuilder().body(new StreamBody(response.body())).build();
+    }
+
+    private static boolean isMultiplexed(Protocol protocol) {
+        return protocol == Protocol.HTTP_2 || protocol == Protocol.H2_PRIOR_KNOWLEDGE;
+    }
+
+    private static final class Streams extends Semaphore {
+        Streams(int permits) {
+            super(permits, true);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+
+    /**
+     * A response body which releases its request's stream once it's been read to the end or
+     * closed, whichever comes first.
+     */
+    private final class StreamBody extends ResponseBody {
+        private final ResponseBody body;
+        private final BufferedSource source;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        StreamBody(ResponseBody body) {
+            this.body = body;
+            this.source = Okio.buffer(new ForwardingSource(body.source()) {
+                @Override
+                public long read(Buffer sink, long byteCount) throws IOException {
+                    long read = super.read(sink, byteCount);
+                    if (read == -1) {
+                        release();
+                    }
+                    return read;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        release();
+                    }
+                }
+            });
+        }
+
+        @Override
+        public MediaType contentType() {
+            return body.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return body.contentLength();
+        }
+
+        @Override
+        public BufferedSource source() {
+            return source;
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                streams.release();
+            }
+        }
+    }
+}
@@ -12,6 +12,10 @@ final class UrlFormatter {
         this.baseUrl = HttpUrl.parse(baseUrl);
     }
 
+    HttpUrl getBaseUrl() {
+        return baseUrl;
+    }
+
     HttpUrl formatUrl(String template, Map<String, String> pathParams,
             Map<String, Object> queryParams) {
         String path = template;
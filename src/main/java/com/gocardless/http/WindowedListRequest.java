@@ -0,0 +1,83 @@
+package com.gocardless.http;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import okhttp3.HttpUrl;
+
+/**
+ * Requests a single page of a {@link ListRequest}, restricted to a {@link CreatedAtWindow}.
+ *
+ * The original request is never modified, so many windows of the same request can be paginated
+ * concurrently.
+ */
+final class WindowedListRequest<T> extends ApiRequest<ListResponse<T>> {
+    private final transient ListRequest<?, T> request;
+    private final transient CreatedAtWindow window;
+    private final transient String after;
+
+    WindowedListRequest(ListRequest<?, T> request, CreatedAtWindow window, String after) {
+        super(request.getHttpClient());
+        this.request = request;
+        this.window = window;
+        this.after = after;
+    }
+
+    @Override
+    HttpUrl getUrl(UrlFormatter urlFormatter) {
+        HttpUrl.Builder url = request.getUrl(urlFormatter).newBuilder()
+                .removeAllQueryParameters("after").removeAllQueryParameters("before");
+        if (after != null) {
+            url.addQueryParameter("after", after);
+        }
+        return window.applyTo(url).build();
+    }
+
+    @Override
+    protected Map<String, String> getHeaders() {
+        return request.getHeaders();
+    }
+
+    @Override
+    RequestPriority getPriority() {
+        return request.getPriority();
+    }
+
+    @Override
+    Duration getTimeout() {
+        return request.getTimeout();
+    }
+
+    @Override
+    Instant getDeadline() {
+        return request.getDeadline();
+    }
+
+    @Override
+    protected String getPathTemplate() {
+        return request.getPathTemplate();
+    }
+
+    @Override
+    protected String getMethod() {
+        return request.getMethod();
+    }
+
+    @Override
+    protected String getEnvelope() {
+        return request.getEnvelope();
+    }
+
+    @Override
+    protected boolean hasBody() {
+        return false;
+    }
+
+    @Override
+    protected ListResponse<T> parseResponse(Reader responseBody, ResponseParser responseParser)
+            throws IOException {
+        return request.parseResponse(responseBody, responseParser);
+    }
+}
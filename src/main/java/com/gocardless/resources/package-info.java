@@ -1,4 +1,7 @@
 /**
  * Representations of resources returned from the API.
  */
+@GenerateTypeAdapters
 package com.gocardless.resources;
+
+import com.gocardless.http.GenerateTypeAdapters;
@@ -3,6 +3,8 @@ package com.gocardless.services;
 import com.gocardless.http.*;
 import com.gocardless.resources.BankAccountDetail;
 import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
 
 /**
@@ -58,6 +60,26 @@ public class BankAccountDetailService {
             return this;
         }
 
+        public BankAccountDetailGetRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public BankAccountDetailGetRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public BankAccountDetailGetRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
+        public BankAccountDetailGetRequest withCacheBypass() {
+            this.setCacheBypass(true);
+            return this;
+        }
+
         @Override
         protected Map<String, String> getPathParams() {
             ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
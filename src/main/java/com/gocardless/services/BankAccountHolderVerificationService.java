@@ -4,6 +4,8 @@ import com.gocardless.http.*;
 import com.gocardless.resources.BankAccountHolderVerification;
 import com.google.common.collect.ImmutableMap;
 import com.google.gson.annotations.SerializedName;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
 
 /**
@@ -104,6 +106,21 @@ public class BankAccountHolderVerificationService {
             return this;
         }
 
+        public BankAccountHolderVerificationCreateRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public BankAccountHolderVerificationCreateRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public BankAccountHolderVerificationCreateRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
         @Override
         protected String getPathTemplate() {
             return "bank_account_holder_verifications";
@@ -169,6 +186,26 @@ public class BankAccountHolderVerificationService {
             return this;
         }
 
+        public BankAccountHolderVerificationGetRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public BankAccountHolderVerificationGetRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public BankAccountHolderVerificationGetRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
+        public BankAccountHolderVerificationGetRequest withCacheBypass() {
+            this.setCacheBypass(true);
+            return this;
+        }
+
         @Override
         protected Map<String, String> getPathParams() {
             ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
@@ -3,6 +3,8 @@ package com.gocardless.services;
 import com.gocardless.http.*;
 import com.gocardless.resources.BankAuthorisation;
 import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
 
 /**
@@ -121,6 +123,21 @@ public class BankAuthorisationService {
             return this;
         }
 
+        public BankAuthorisationCreateRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public BankAuthorisationCreateRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public BankAuthorisationCreateRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
         @Override
         protected String getPathTemplate() {
             return "bank_authorisations";
@@ -175,6 +192,26 @@ public class BankAuthorisationService {
             return this;
         }
 
+        public BankAuthorisationGetRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public BankAuthorisationGetRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public BankAuthorisationGetRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
+        public BankAuthorisationGetRequest withCacheBypass() {
+            this.setCacheBypass(true);
+            return this;
+        }
+
         @Override
         protected Map<String, String> getPathParams() {
             ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
@@ -2,6 +2,8 @@ package com.gocardless.services;
 
 import com.gocardless.http.*;
 import com.gocardless.resources.BankDetailsLookup;
+import java.time.Duration;
+import java.time.Instant;
 
 /**
  * Service class for working with bank details lookup resources.
@@ -159,6 +161,21 @@ public class BankDetailsLookupService {
             return this;
         }
 
+        public BankDetailsLookupCreateRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public BankDetailsLookupCreateRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public BankDetailsLookupCreateRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
         @Override
         protected String getPathTemplate() {
             return "bank_details_lookups";
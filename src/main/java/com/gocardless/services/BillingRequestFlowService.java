@@ -4,6 +4,8 @@ import com.gocardless.http.*;
 import com.gocardless.resources.BillingRequestFlow;
 import com.google.common.collect.ImmutableMap;
 import com.google.gson.annotations.SerializedName;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
 
 /**
@@ -395,6 +397,21 @@ public class BillingRequestFlowService {
             return this;
         }
 
+        public BillingRequestFlowCreateRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public BillingRequestFlowCreateRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public BillingRequestFlowCreateRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
         @Override
         protected String getPathTemplate() {
             return "billing_request_flows";
@@ -603,6 +620,21 @@ public class BillingRequestFlowService {
             return this;
         }
 
+        public BillingRequestFlowInitialiseRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public BillingRequestFlowInitialiseRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public BillingRequestFlowInitialiseRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
         @Override
         protected Map<String, String> getPathParams() {
             ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
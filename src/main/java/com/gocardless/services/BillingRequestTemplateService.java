@@ -5,6 +5,8 @@ import com.gocardless.resources.BillingRequestTemplate;
 import com.google.common.collect.ImmutableMap;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -132,6 +134,21 @@ public class BillingRequestTemplateService {
             return this;
         }
 
+        public BillingRequestTemplateListRequest<S> withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public BillingRequestTemplateListRequest<S> withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public BillingRequestTemplateListRequest<S> withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
         @Override
         protected Map<String, Object> getQueryParams() {
             ImmutableMap.Builder<String, Object> params = ImmutableMap.builder();
@@ -178,6 +195,26 @@ public class BillingRequestTemplateService {
             return this;
         }
 
+        public BillingRequestTemplateGetRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public BillingRequestTemplateGetRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public BillingRequestTemplateGetRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
+        public BillingRequestTemplateGetRequest withCacheBypass() {
+            this.setCacheBypass(true);
+            return this;
+        }
+
         @Override
         protected Map<String, String> getPathParams() {
             ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
@@ -526,6 +563,21 @@ public class BillingRequestTemplateService {
             return this;
         }
 
+        public BillingRequestTemplateCreateRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public BillingRequestTemplateCreateRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public BillingRequestTemplateCreateRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
         @Override
         protected String getPathTemplate() {
             return "billing_request_templates";
@@ -1031,6 +1083,21 @@ public class BillingRequestTemplateService {
             return this;
         }
 
+        public BillingRequestTemplateUpdateRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public BillingRequestTemplateUpdateRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public BillingRequestTemplateUpdateRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
         @Override
         protected Map<String, String> getPathParams() {
             ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
@@ -572,6 +572,12 @@ public class BillingRequestWithActionService {
             return this;
         }
 
+        public BillingRequestWithActionCreateWithActionsRequest withPriority(
+                RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
         @Override
         protected String getPathTemplate() {
             return "billing_requests/create_with_actions";
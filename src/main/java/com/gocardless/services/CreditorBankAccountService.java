@@ -5,6 +5,8 @@ import com.gocardless.resources.CreditorBankAccount;
 import com.google.common.collect.ImmutableMap;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -258,6 +260,21 @@ public class CreditorBankAccountService {
             return this;
         }
 
+        public CreditorBankAccountCreateRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public CreditorBankAccountCreateRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public CreditorBankAccountCreateRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
         @Override
         protected String getPathTemplate() {
             return "creditor_bank_accounts";
@@ -418,6 +435,21 @@ public class CreditorBankAccountService {
             return this;
         }
 
+        public CreditorBankAccountListRequest<S> withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public CreditorBankAccountListRequest<S> withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public CreditorBankAccountListRequest<S> withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
         @Override
         protected Map<String, Object> getQueryParams() {
             ImmutableMap.Builder<String, Object> params = ImmutableMap.builder();
@@ -449,6 +481,11 @@ public class CreditorBankAccountService {
             return new TypeToken<List<CreditorBankAccount>>() {};
         }
 
+        @Override
+        protected boolean hasCreatedAtFilters() {
+            return true;
+        }
+
         public static class CreatedAt {
             private String gt;
             private String gte;
@@ -526,6 +563,26 @@ public class CreditorBankAccountService {
             return this;
         }
 
+        public CreditorBankAccountGetRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public CreditorBankAccountGetRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public CreditorBankAccountGetRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
+        public CreditorBankAccountGetRequest withCacheBypass() {
+            this.setCacheBypass(true);
+            return this;
+        }
+
         @Override
         protected Map<String, String> getPathParams() {
             ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
@@ -575,6 +632,21 @@ public class CreditorBankAccountService {
             return this;
         }
 
+        public CreditorBankAccountDisableRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public CreditorBankAccountDisableRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public CreditorBankAccountDisableRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
         @Override
         protected Map<String, String> getPathParams() {
             ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
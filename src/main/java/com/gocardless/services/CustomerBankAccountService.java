@@ -5,6 +5,8 @@ import com.gocardless.resources.CustomerBankAccount;
 import com.google.common.collect.ImmutableMap;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -301,6 +303,21 @@ public class CustomerBankAccountService {
             return this;
         }
 
+        public CustomerBankAccountCreateRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public CustomerBankAccountCreateRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public CustomerBankAccountCreateRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
         @Override
         protected String getPathTemplate() {
             return "customer_bank_accounts";
@@ -471,6 +488,21 @@ public class CustomerBankAccountService {
             return this;
         }
 
+        public CustomerBankAccountListRequest<S> withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public CustomerBankAccountListRequest<S> withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public CustomerBankAccountListRequest<S> withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
         @Override
         protected Map<String, Object> getQueryParams() {
             ImmutableMap.Builder<String, Object> params = ImmutableMap.builder();
@@ -502,6 +534,11 @@ public class CustomerBankAccountService {
             return new TypeToken<List<CustomerBankAccount>>() {};
         }
 
+        @Override
+        protected boolean hasCreatedAtFilters() {
+            return true;
+        }
+
         public static class CreatedAt {
             private String gt;
             private String gte;
@@ -579,6 +616,26 @@ public class CustomerBankAccountService {
             return this;
         }
 
+        public CustomerBankAccountGetRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public CustomerBankAccountGetRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public CustomerBankAccountGetRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
+        public CustomerBankAccountGetRequest withCacheBypass() {
+            this.setCacheBypass(true);
+            return this;
+        }
+
         @Override
         protected Map<String, String> getPathParams() {
             ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
@@ -644,6 +701,21 @@ public class CustomerBankAccountService {
             return this;
         }
 
+        public CustomerBankAccountUpdateRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public CustomerBankAccountUpdateRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public CustomerBankAccountUpdateRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
         @Override
         protected Map<String, String> getPathParams() {
             ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
@@ -698,6 +770,21 @@ public class CustomerBankAccountService {
             return this;
         }
 
+        public CustomerBankAccountDisableRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public CustomerBankAccountDisableRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public CustomerBankAccountDisableRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
         @Override
         protected Map<String, String> getPathParams() {
             ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
@@ -3,6 +3,8 @@ package com.gocardless.services;
 import com.gocardless.http.*;
 import com.gocardless.resources.CustomerNotification;
 import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
 
 /**
@@ -65,6 +67,21 @@ public class CustomerNotificationService {
             return this;
         }
 
+        public CustomerNotificationHandleRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public CustomerNotificationHandleRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public CustomerNotificationHandleRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
         @Override
         protected Map<String, String> getPathParams() {
             ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
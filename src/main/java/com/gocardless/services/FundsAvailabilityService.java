@@ -3,6 +3,8 @@ package com.gocardless.services;
 import com.gocardless.http.*;
 import com.gocardless.resources.FundsAvailability;
 import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
 
 /**
@@ -60,6 +62,26 @@ public class FundsAvailabilityService {
             return this;
         }
 
+        public FundsAvailabilityCheckRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public FundsAvailabilityCheckRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public FundsAvailabilityCheckRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
+        public FundsAvailabilityCheckRequest withCacheBypass() {
+            this.setCacheBypass(true);
+            return this;
+        }
+
         @Override
         protected Map<String, String> getPathParams() {
             ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
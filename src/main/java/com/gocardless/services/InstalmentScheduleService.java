@@ -6,6 +6,8 @@ import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableMap;
 import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -367,6 +369,21 @@ public class InstalmentScheduleService {
             return this;
         }
 
+        public InstalmentScheduleCreateWithDatesRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public InstalmentScheduleCreateWithDatesRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public InstalmentScheduleCreateWithDatesRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
         @Override
         protected String getPathTemplate() {
             return "instalment_schedules";
@@ -761,6 +778,21 @@ public class InstalmentScheduleService {
             return this;
         }
 
+        public InstalmentScheduleCreateWithScheduleRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public InstalmentScheduleCreateWithScheduleRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public InstalmentScheduleCreateWithScheduleRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
         @Override
         protected String getPathTemplate() {
             return "instalment_schedules";
@@ -1010,6 +1042,21 @@ public class InstalmentScheduleService {
             return this;
         }
 
+        public InstalmentScheduleListRequest<S> withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public InstalmentScheduleListRequest<S> withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public InstalmentScheduleListRequest<S> withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
         @Override
         protected Map<String, Object> getQueryParams() {
             ImmutableMap.Builder<String, Object> params = ImmutableMap.builder();
@@ -1044,6 +1091,11 @@ public class InstalmentScheduleService {
             return new TypeToken<List<InstalmentSchedule>>() {};
         }
 
+        @Override
+        protected boolean hasCreatedAtFilters() {
+            return true;
+        }
+
         public enum Status {
             @SerializedName("pending")
             PENDING, @SerializedName("active")
@@ -1136,6 +1188,26 @@ public class InstalmentScheduleService {
             return this;
         }
 
+        public InstalmentScheduleGetRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public InstalmentScheduleGetRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public InstalmentScheduleGetRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
+        public InstalmentScheduleGetRequest withCacheBypass() {
+            this.setCacheBypass(true);
+            return this;
+        }
+
         @Override
         protected Map<String, String> getPathParams() {
             ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
@@ -1201,6 +1273,21 @@ public class InstalmentScheduleService {
             return this;
         }
 
+        public InstalmentScheduleUpdateRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public InstalmentScheduleUpdateRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public InstalmentScheduleUpdateRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
         @Override
         protected Map<String, String> getPathParams() {
             ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
@@ -1252,6 +1339,21 @@ public class InstalmentScheduleService {
             return this;
         }
 
+        public InstalmentScheduleCancelRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public InstalmentScheduleCancelRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public InstalmentScheduleCancelRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
         @Override
         protected Map<String, String> getPathParams() {
             ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
@@ -2,6 +2,8 @@ package com.gocardless.services;
 
 import com.gocardless.http.*;
 import com.gocardless.resources.Logo;
+import java.time.Duration;
+import java.time.Instant;
 
 /**
  * Service class for working with logo resources.
@@ -82,6 +84,21 @@ public class LogoService {
             return this;
         }
 
+        public LogoCreateForCreditorRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public LogoCreateForCreditorRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public LogoCreateForCreditorRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
         @Override
         protected String getPathTemplate() {
             return "branding/logos";
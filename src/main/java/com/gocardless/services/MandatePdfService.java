@@ -3,6 +3,8 @@ package com.gocardless.services;
 import com.gocardless.http.*;
 import com.gocardless.resources.MandatePdf;
 import com.google.gson.annotations.SerializedName;
+import java.time.Duration;
+import java.time.Instant;
 
 /**
  * Service class for working with mandate pdf resources.
@@ -389,6 +391,21 @@ public class MandatePdfService {
             return this;
         }
 
+        public MandatePdfCreateRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public MandatePdfCreateRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public MandatePdfCreateRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
         @Override
         protected String getPathTemplate() {
             return "mandate_pdfs";
@@ -4,6 +4,8 @@ import com.gocardless.http.*;
 import com.gocardless.resources.OutboundPaymentImportEntry;
 import com.google.common.collect.ImmutableMap;
 import com.google.gson.reflect.TypeToken;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
@@ -95,6 +97,21 @@ public class OutboundPaymentImportEntryService {
             return this;
         }
 
+        public OutboundPaymentImportEntryListRequest<S> withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public OutboundPaymentImportEntryListRequest<S> withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public OutboundPaymentImportEntryListRequest<S> withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
         @Override
         protected Map<String, Object> getQueryParams() {
             ImmutableMap.Builder<String, Object> params = ImmutableMap.builder();
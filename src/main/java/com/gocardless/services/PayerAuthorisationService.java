@@ -4,6 +4,8 @@ import com.gocardless.http.*;
 import com.gocardless.resources.PayerAuthorisation;
 import com.google.common.collect.ImmutableMap;
 import com.google.gson.annotations.SerializedName;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Map;
 
 /**
@@ -149,6 +151,26 @@ public class PayerAuthorisationService {
             return this;
         }
 
+        public PayerAuthorisationGetRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public PayerAuthorisationGetRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public PayerAuthorisationGetRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
+        public PayerAuthorisationGetRequest withCacheBypass() {
+            this.setCacheBypass(true);
+            return this;
+        }
+
         @Override
         protected Map<String, String> getPathParams() {
             ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
@@ -626,6 +648,21 @@ public class PayerAuthorisationService {
             return this;
         }
 
+        public PayerAuthorisationCreateRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public PayerAuthorisationCreateRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public PayerAuthorisationCreateRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
         @Override
         protected String getPathTemplate() {
             return "payer_authorisations";
@@ -1458,6 +1495,21 @@ public class PayerAuthorisationService {
             return this;
         }
 
+        public PayerAuthorisationUpdateRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public PayerAuthorisationUpdateRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public PayerAuthorisationUpdateRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
         @Override
         protected Map<String, String> getPathParams() {
             ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
@@ -1873,6 +1925,21 @@ public class PayerAuthorisationService {
             return this;
         }
 
+        public PayerAuthorisationSubmitRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public PayerAuthorisationSubmitRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public PayerAuthorisationSubmitRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
         @Override
         protected Map<String, String> getPathParams() {
             ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
@@ -1929,6 +1996,21 @@ public class PayerAuthorisationService {
             return this;
         }
 
+        public PayerAuthorisationConfirmRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public PayerAuthorisationConfirmRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public PayerAuthorisationConfirmRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
         @Override
         protected Map<String, String> getPathParams() {
             ImmutableMap.Builder<String, String> params = ImmutableMap.builder();
@@ -2,6 +2,8 @@ package com.gocardless.services;
 
 import com.gocardless.http.*;
 import com.gocardless.resources.PayerTheme;
+import java.time.Duration;
+import java.time.Instant;
 
 /**
  * Service class for working with payer theme resources.
@@ -101,6 +103,21 @@ public class PayerThemeService {
             return this;
         }
 
+        public PayerThemeCreateForCreditorRequest withPriority(RequestPriority priority) {
+            this.setPriority(priority);
+            return this;
+        }
+
+        public PayerThemeCreateForCreditorRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        public PayerThemeCreateForCreditorRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
         @Override
         protected String getPathTemplate() {
             return "branding/payer_themes";
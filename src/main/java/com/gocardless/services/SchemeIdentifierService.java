@@ -865,6 +865,11 @@ public class SchemeIdentifierService {
                   return this;
               }
 
+              public SchemeIdentifierGetRequest withCacheBypass() {
+                  this.setCacheBypass(true);
+                  return this;
+              }
+
           
               @Override
               protected Map<String, String> getPathParams() {
@@ -1,4 +1,7 @@
 /**
  * Services for interacting with API resources.
  */
+@GenerateTypeAdapters
 package com.gocardless.services;
+
+import com.gocardless.http.GenerateTypeAdapters;
@@ -0,0 +1,70 @@
+package com.gocardless;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import com.gocardless.http.GoCardlessNetworkException;
+import com.gocardless.http.MockHttp;
+import com.gocardless.resources.Customer;
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class GoCardlessClientFactoryTest {
+    @Rule
+    public final MockHttp http = new MockHttp();
+    private GoCardlessClientFactory factory;
+
+    @Before
+    public void setUp() {
+        factory = GoCardlessClient.newFactoryBuilder().withBaseUrl(http.getBaseUrl())
+                .buildFactory();
+    }
+
+    @Test
+    public void shouldMakeRequestsWithEachClientsAccessToken() throws Exception {
+        http.enqueueResponse(200, "fixtures/client/get_a_customer.json");
+        http.enqueueResponse(200, "fixtures/client/get_a_customer.json");
+        Customer customer = factory.forAccessToken("token-a").customers().get("CU00003068FG73")
+                .execute();
+        assertThat(customer.getId()).isEqualTo("CU00003068FG73");
+        http.assertRequestMade("GET", "/customers/CU00003068FG73",
+                ImmutableMap.of("Authorization", "Bearer token-a"));
+        factory.forAccessToken("token-b").customers().get("CU00003068FG73").execute();
+        http.assertRequestMade("GET", "/customers/CU00003068FG73",
+                ImmutableMap.of("Authorization", "Bearer token-b"));
+    }
+
+    @Test
+    public void shouldShareTheTransportBetweenClients() {
+        GoCardlessClient a = factory.forAccessToken("token-a");
+        GoCardlessClient b = factory.forAccessToken("token-b");
+        assertThat(a.getHttpClient().getRawClient()).isSameAs(b.getHttpClient().getRawClient());
+    }
+
+    @Test
+    public void shouldShareTheRateLimitBetweenClientsForTheSameAccessToken() throws Exception {
+        factory = GoCardlessClient.newFactoryBuilder().withBaseUrl(http.getBaseUrl())
+                .withRateLimiting(true).buildFactory();
+        http.enqueueResponse(200, "fixtures/client/get_a_customer.json", ImmutableMap.of(
+                "RateLimit-Limit", "1000", "RateLimit-Remaining", "0", "RateLimit-Reset", "60"));
+        http.enqueueResponse(200, "fixtures/client/get_a_customer.json");
+        factory.forAccessToken("token-a").customers().get("CU00003068FG73").execute();
+        factory.forAccessToken("token-b").customers().get("CU00003068FG73").execute();
+        try {
+            factory.forAccessToken("token-a").customers().get("CU00003068FG73")
+                    .withTimeout(Duration.ofMillis(200)).execute();
+            fail("Expected the request to wait for token-a's rate limit to reset");
+        } catch (GoCardlessNetworkException e) {
+            // expected
+        }
+        assertThat(http.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRequireAnAccessTokenToBuildAClient() {
+        GoCardlessClient.newFactoryBuilder().build();
+    }
+}
@@ -4,19 +4,34 @@ import static com.gocardless.services.MandateService.MandateListRequest.Status.A
 import static com.gocardless.services.MandateService.MandateListRequest.Status.FAILED;
 import static com.gocardless.services.SubscriptionService.SubscriptionCreateRequest.IntervalUnit.MONTHLY;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
 
+import com.gocardless.http.AdaptiveConcurrencyPolicy;
 import com.gocardless.http.ApiResponse;
+import com.gocardless.http.GetRequest;
 import com.gocardless.http.GoCardlessNetworkException;
 import com.gocardless.http.HttpClient;
+import com.gocardless.http.InMemoryResponseCache;
 import com.gocardless.http.ListResponse;
 import com.gocardless.http.MockHttp;
+import com.gocardless.http.MockHttp.SlowResponse;
 import com.gocardless.resources.*;
 import com.gocardless.services.CustomerService.CustomerCreateRequest;
 import com.gocardless.services.PaymentService.PaymentCreateRequest;
 import com.gocardless.services.SubscriptionService.SubscriptionCreateRequest;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import okhttp3.OkHttpClient;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -27,6 +42,8 @@ public class GoCardlessClientTest {
     private GoCardlessClient client;
     @Rule
     public final MockHttp http = new MockHttp();
+    @Rule
+    public final ExpectedException exception = ExpectedException.none();
 
     @Before
     public void setUp() throws Exception {
@@ -320,6 +337,209 @@ public class GoCardlessClientTest {
                 ImmutableMap.of("Authorization", "Bearer " + ACCESS_TOKEN));
     }
 
+    @Test
+    public void shouldConfigureConnectionsAndTimeouts() {
+        client = GoCardlessClient.newBuilder(ACCESS_TOKEN).withBaseUrl(http.getBaseUrl())
+                .withMaxConcurrentRequests(128, 32).withConnectTimeout(Duration.ofSeconds(2))
+                .withReadTimeout(Duration.ofSeconds(20)).withWriteTimeout(Duration.ofSeconds(5))
+                .withCallTimeout(Duration.ofSeconds(30)).build();
+        OkHttpClient rawClient = client.getHttpClient().getRawClient();
+        assertThat(rawClient.dispatcher().getMaxRequests()).isEqualTo(128);
+        assertThat(rawClient.dispatcher().getMaxRequestsPerHost()).isEqualTo(32);
+        assertThat(rawClient.connectTimeoutMillis()).isEqualTo(2000);
+        assertThat(rawClient.readTimeoutMillis()).isEqualTo(20000);
+        assertThat(rawClient.writeTimeoutMillis()).isEqualTo(5000);
+        assertThat(rawClient.callTimeoutMillis()).isEqualTo(30000);
+    }
+
+    @Test
+    public void shouldConfigureTheConnectionPool() throws Exception {
+        client = GoCardlessClient.newBuilder(ACCESS_TOKEN).withBaseUrl(http.getBaseUrl())
+                .withConnectionPool(0, Duration.ofMinutes(1)).build();
+        http.enqueueResponse(200, "fixtures/client/get_a_customer.json");
+        client.customers().get("CU00003068FG73").execute();
+        // No idle connections are kept, so the connection is closed once the request is done
+        assertThat(client.getHttpClient().getRawClient().connectionPool().connectionCount())
+                .isZero();
+    }
+
+    @Test
+    public void shouldRejectANegativeNumberOfIdleConnections() {
+        exception.expect(IllegalArgumentException.class);
+        GoCardlessClient.newBuilder(ACCESS_TOKEN).withConnectionPool(-1, Duration.ofMinutes(1));
+    }
+
+    @Test
+    public void shouldRejectAMissingKeepAliveDuration() {
+        exception.expect(NullPointerException.class);
+        exception.expectMessage("keepAliveDuration");
+        GoCardlessClient.newBuilder(ACCESS_TOKEN).withConnectionPool(5, null);
+    }
+
+    @Test
+    public void shouldRejectANegativeNumberOfConcurrentRequests() {
+        exception.expect(IllegalArgumentException.class);
+        GoCardlessClient.newBuilder(ACCESS_TOKEN).withMaxConcurrentRequests(-1, 5);
+    }
+
+    @Test
+    public void shouldShareAnExistingOkHttpClient() throws Exception {
+        OkHttpClient shared = new OkHttpClient.Builder().readTimeout(Duration.ofSeconds(3)).build();
+        client = GoCardlessClient.newBuilder(ACCESS_TOKEN).withBaseUrl(http.getBaseUrl())
+                .withOkHttpClient(shared).build();
+        OkHttpClient rawClient = client.getHttpClient().getRawClient();
+        assertThat(rawClient.connectionPool()).isSameAs(shared.connectionPool());
+        assertThat(rawClient.dispatcher()).isSameAs(shared.dispatcher());
+        assertThat(rawClient.readTimeoutMillis()).isEqualTo(3000);
+        assertThat(shared.interceptors()).isEmpty();
+        http.enqueueResponse(200, "fixtures/client/get_a_customer.json");
+        assertThat(client.customers().get("CU00003068FG73").execute().getId())
+                .isEqualTo("CU00003068FG73");
+    }
+
+    @Test
+    public void shouldFetchCachedResourcesAgainOnceChanged() throws Exception {
+        client = GoCardlessClient.newBuilder(ACCESS_TOKEN).withBaseUrl(http.getBaseUrl())
+                .withResponseCache(new InMemoryResponseCache().withTtl(Customer.class,
+                        Duration.ofMinutes(1)))
+                .build();
+        http.enqueueResponse(200, "fixtures/client/get_a_customer.json");
+        http.enqueueResponse(200, "fixtures/client/update_a_customer_response.json");
+        http.enqueueResponse(200, "fixtures/client/get_a_customer.json");
+        http.enqueueResponse(200, "fixtures/client/get_a_customer.json");
+        client.customers().get("CU00003068FG73").execute();
+        client.customers().get("CU00003068FG73").execute();
+        assertThat(http.getRequestCount()).isEqualTo(1);
+        client.customers().update("CU00003068FG73").withGivenName("Frank").execute();
+        client.customers().get("CU00003068FG73").execute();
+        assertThat(http.getRequestCount()).isEqualTo(3);
+        client.customers().get("CU00003068FG73").withCacheBypass()
+                .withTimeout(Duration.ofSeconds(5)).execute();
+        assertThat(http.getRequestCount()).isEqualTo(4);
+    }
+
+    @Test
+    public void shouldLetEveryGetRequestBypassTheCache() throws Exception {
+        int getRequests = 0;
+        for (Method service : GoCardlessClient.class.getMethods()) {
+            if (!service.getReturnType().getSimpleName().endsWith("Service")) {
+                continue;
+            }
+            for (Class<?> request : service.getReturnType().getDeclaredClasses()) {
+                if (GetRequest.class.isAssignableFrom(request)) {
+                    assertThat(request.getMethod("withCacheBypass").getReturnType())
+                            .isEqualTo(request);
+                    getRequests++;
+                }
+            }
+        }
+        assertThat(getRequests).isGreaterThanOrEqualTo(30);
+    }
+
+    @Test
+    public void shouldRefuseRequestsOnceClosed() throws Exception {
+        assertThat(client.close(Duration.ofSeconds(1))).isTrue();
+        assertThat(client.getHttpClient().getRawClient().dispatcher().executorService()
+                .isShutdown()).isTrue();
+        exception.expect(IllegalStateException.class);
+        client.customers().get("CU00003068FG73").execute();
+    }
+
+    @Test
+    public void shouldWaitForRequestsInFlightWhenClosing() throws Exception {
+        http.setDispatcher(new SlowResponse("fixtures/client/get_a_customer.json", 200));
+        CompletableFuture<Customer> customer = client.customers().get("CU00003068FG73")
+                .executeAsync();
+        assertThat(client.close(Duration.ofSeconds(5))).isTrue();
+        assertThat(customer.get().getId()).isEqualTo("CU00003068FG73");
+    }
+
+    @Test
+    public void shouldCancelRequestsStillInFlightAfterClosing() throws Exception {
+        http.setDispatcher(new SlowResponse("fixtures/client/get_a_customer.json", 5000));
+        CompletableFuture<Customer> customer = client.customers().get("CU00003068FG73")
+                .executeAsync();
+        assertThat(client.close(Duration.ofMillis(100))).isFalse();
+        try {
+            customer.get(1, TimeUnit.SECONDS);
+            fail("Expected the request to fail");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(GoCardlessNetworkException.class);
+        }
+    }
+
+    @Test
+    public void shouldCancelQueuedRequestsWhenClosing() throws Exception {
+        http.setDispatcher(new SlowResponse("fixtures/client/get_a_customer.json", 5000));
+        client = GoCardlessClient.newBuilder(ACCESS_TOKEN).withBaseUrl(http.getBaseUrl())
+                .withAdaptiveConcurrency(new AdaptiveConcurrencyPolicy().withInitialLimit(1)
+                        .withLimitRange(1, 1))
+                .build();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Customer>> customers = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                customers.add(executor
+                        .submit(() -> client.customers().get("CU00003068FG73").execute()));
+                // Let the first request be sent before queueing the second
+                TimeUnit.MILLISECONDS.sleep(200);
+            }
+            customers.add(client.customers().get("CU00003068FG73").executeAsync());
+            assertThat(client.close(Duration.ofMillis(100))).isFalse();
+            for (Future<Customer> customer : customers) {
+                try {
+                    customer.get(1, TimeUnit.SECONDS);
+                    fail("Expected the request to fail");
+                } catch (ExecutionException e) {
+                    // expected
+                }
+            }
+            assertThat(http.getRequestCount()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldNotShutDownASharedOkHttpClientWhenClosing() throws Exception {
+        OkHttpClient shared = new OkHttpClient();
+        client = GoCardlessClient.newBuilder(ACCESS_TOKEN).withBaseUrl(http.getBaseUrl())
+                .withOkHttpClient(shared).build();
+        client.close();
+        assertThat(shared.dispatcher().executorService().isShutdown()).isFalse();
+    }
+
+    @Test
+    public void shouldWarmUpConnections() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            http.enqueueResponse(404, "fixtures/invalid_api_usage.json");
+        }
+        assertThat(client.warmUp(3)).isEqualTo(3);
+        assertThat(http.getRequestCount()).isEqualTo(3);
+        assertThat(client.getHttpClient().getRawClient().connectionPool().idleConnectionCount())
+                .isEqualTo(3);
+    }
+
+    @Test
+    public void shouldNotCountReusedConnectionsAsOpened() throws Exception {
+        for (int i = 0; i < 6; i++) {
+            http.enqueueResponse(404, "fixtures/invalid_api_usage.json");
+        }
+        assertThat(client.warmUp(3)).isEqualTo(3);
+        assertThat(client.warmUp(3)).isEqualTo(0);
+        assertThat(http.getRequestCount()).isEqualTo(6);
+        assertThat(client.getHttpClient().getRawClient().connectionPool().connectionCount())
+                .isEqualTo(3);
+    }
+
+    @Test
+    public void shouldFailToWarmUpWhenTheHostCantBeResolved() {
+        client = GoCardlessClient.newBuilder(ACCESS_TOKEN)
+                .withBaseUrl("https://api.gocardless.invalid").build();
+        exception.expect(GoCardlessNetworkException.class);
+        client.warmUp(1);
+    }
+
     @Test
     public void shouldDoCustomNoOfRetries() {
         int noOfRetries = 2;
@@ -349,4 +569,5 @@ public class GoCardlessClientTest {
                 .withCity("London").withPostalCode("E8 3GX").withCountryCode("GB");
         assertThat(client.getHttpClient().getMaxNoOfRetries()).isEqualTo(HttpClient.MAX_RETRIES);
     }
+
 }
@@ -0,0 +1,117 @@
+package com.gocardless.http;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gocardless.http.HedgedCallTest.DummyGetRequest;
+import com.gocardless.http.HttpTestUtil.DummyItem;
+import com.google.common.base.Ticker;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import okhttp3.OkHttpClient;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class AdaptiveConcurrencyPolicyTest {
+    private static final long FAST = MILLISECONDS.toNanos(10);
+
+    @Rule
+    public final MockHttp http = new MockHttp();
+    private final FakeTicker ticker = new FakeTicker();
+    private final AdaptiveConcurrencyPolicy policy =
+            new AdaptiveConcurrencyPolicy(ticker).withInitialLimit(4).withBackoffRatio(0.5);
+    private final List<String> started = new ArrayList<>();
+
+    @Test
+    public void shouldGrowTheLimitWhileItIsUsed() {
+        schedule(4);
+        for (int i = 0; i < 17; i++) {
+            policy.release(FAST, false);
+            schedule(1);
+        }
+        assertThat(policy.getLimit()).isEqualTo(7);
+    }
+
+    @Test
+    public void shouldNotGrowTheLimitWhileItIsUnused() {
+        for (int i = 0; i < 100; i++) {
+            schedule(1);
+            policy.release(FAST, false);
+        }
+        assertThat(policy.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    public void shouldShrinkTheLimitWhenRequestsFailOrAreSlow() {
+        schedule(1);
+        policy.release(FAST, true);
+        assertThat(policy.getLimit()).isEqualTo(2);
+        ticker.advance(SECONDS.toNanos(7));
+        schedule(1);
+        policy.release(SECONDS.toNanos(6), false);
+        assertThat(policy.getLimit()).isEqualTo(1);
+        assertThat(policy.getStats().getDroppedCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldOnlyShrinkTheLimitOnceForRequestsInFlightTogether() {
+        schedule(4);
+        ticker.advance(FAST);
+        for (int i = 0; i < 4; i++) {
+            policy.release(FAST, true);
+        }
+        assertThat(policy.getLimit()).isEqualTo(2);
+        assertThat(policy.getStats().getDroppedCount()).isEqualTo(4);
+        // A request sent after the limit shrank shrinks it again
+        schedule(1);
+        ticker.advance(FAST);
+        policy.release(FAST / 2, true);
+        assertThat(policy.getLimit()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldQueueRequestsBeyondTheLimit() {
+        schedule(6);
+        assertThat(started).hasSize(4);
+        AdaptiveConcurrencyPolicy.Stats stats = policy.getStats();
+        assertThat(stats.getInFlight()).isEqualTo(4);
+        assertThat(stats.getQueueLength()).isEqualTo(2);
+        assertThat(stats.getQueuedCount()).isEqualTo(2);
+        policy.release(FAST, false);
+        assertThat(started).hasSize(5);
+        assertThat(policy.getStats().getQueueLength()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldShrinkTheLimitWhenTheApiIsOverloaded() throws Exception {
+        http.enqueueResponse(503, "fixtures/internal_error.json");
+        http.enqueueResponse(200, "fixtures/single.json");
+        HttpClient client = HttpClient.newBuilder("token", http.getBaseUrl(), new OkHttpClient())
+                .withWaitBetweenRetriesInMilliSeconds(1).withAdaptiveConcurrency(policy).build();
+        CompletableFuture<DummyItem> result = new DummyGetRequest(client).executeAsync();
+        assertThat(result.get(5, SECONDS).stringField).isEqualTo("foo");
+        assertThat(policy.getLimit()).isEqualTo(2);
+        assertThat(policy.getStats().getInFlight()).isZero();
+    }
+
+    private void schedule(int requests) {
+        for (int i = 0; i < requests; i++) {
+            policy.schedule(() -> started.add("request"));
+        }
+    }
+
+    private static final class FakeTicker extends Ticker {
+        private long nanos = SECONDS.toNanos(1000);
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long delta) {
+            nanos += delta;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.gocardless.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gocardless.GoCardlessException;
+import com.gocardless.errors.GoCardlessErrorMapper;
+import com.gocardless.http.RetryPolicy.Failure;
+import com.google.common.base.Charsets;
+import com.google.common.io.Resources;
+import com.google.gson.Gson;
+import java.io.IOException;
+import java.time.Duration;
+import org.junit.Test;
+
+public class BackoffRetryPolicyTest {
+    private final BackoffRetryPolicy policy = new BackoffRetryPolicy().withMaxAttempts(10)
+            .withBaseWait(Duration.ofMillis(100)).withMaxWait(Duration.ofSeconds(1))
+            .withRetryBudget(1, 1000);
+
+    @Test
+    public void shouldWaitBetweenTheBaseWaitAndThreeTimesThePreviousWait() {
+        for (int i = 0; i < 100; i++) {
+            assertThat(policy.getWaitMillis(failure(networkError(), 1, 0, -1))).isBetween(100L,
+                    300L);
+            assertThat(policy.getWaitMillis(failure(networkError(), 2, 200, -1)))
+                    .isBetween(100L, 600L);
+        }
+    }
+
+    @Test
+    public void shouldNotWaitLongerThanTheMaxWait() {
+        for (int i = 0; i < 100; i++) {
+            assertThat(policy.getWaitMillis(failure(networkError(), 5, 900, -1))).isBetween(100L,
+                    1000L);
+        }
+    }
+
+    @Test
+    public void shouldWaitAtLeastAsLongAsTheApiAsks() {
+        assertThat(policy.getWaitMillis(failure(error("rate_limit_exceeded.json", 429), 1, 0,
+                800))).isEqualTo(800);
+    }
+
+    @Test
+    public void shouldNotWaitLongerThanTheMaxWaitWhenTheApiAsksForAHugeWait() {
+        assertThat(policy.getWaitMillis(failure(error("rate_limit_exceeded.json", 429), 1, 0,
+                Long.MAX_VALUE))).isEqualTo(1000);
+    }
+
+    @Test
+    public void shouldWaitAsLongAsTheApiAsksUpToTheDeadline() {
+        policy.withDeadline(Duration.ofSeconds(10));
+        assertThat(policy.getWaitMillis(failure(error("rate_limit_exceeded.json", 429), 1, 0,
+                5000))).isEqualTo(5000);
+        assertThat(policy.getWaitMillis(failure(error("rate_limit_exceeded.json", 429), 1, 0,
+                Long.MAX_VALUE))).isNegative();
+    }
+
+    @Test
+    public void shouldRetryNetworkInternalAndRateLimitErrors() {
+        assertThat(policy.getWaitMillis(failure(networkError(), 1, 0, -1))).isPositive();
+        assertThat(policy.getWaitMillis(failure(error("internal_error.json", 500), 1, 0, -1)))
+                .isPositive();
+        assertThat(policy.getWaitMillis(failure(error("rate_limit_exceeded.json", 429), 1, 0,
+                -1))).isPositive();
+    }
+
+    @Test
+    public void shouldNotRetryOtherErrors() {
+        assertThat(policy.getWaitMillis(failure(error("invalid_api_usage.json", 400), 1, 0, -1)))
+                .isNegative();
+        assertThat(policy.getWaitMillis(failure(error("validation_failed.json", 422), 1, 0, -1)))
+                .isNegative();
+    }
+
+    @Test
+    public void shouldStopAfterMaxAttempts() {
+        policy.withMaxAttempts(3);
+        assertThat(policy.getWaitMillis(failure(networkError(), 2, 100, -1))).isPositive();
+        assertThat(policy.getWaitMillis(failure(networkError(), 3, 100, -1))).isNegative();
+    }
+
+    @Test
+    public void shouldNotWaitPastTheDeadline() {
+        policy.withDeadline(Duration.ofSeconds(2));
+        assertThat(policy.getWaitMillis(new Failure(networkError(), 1, 1000, 0, -1)))
+                .isPositive();
+        assertThat(policy.getWaitMillis(new Failure(networkError(), 1, 1000, 0, 1500)))
+                .isNegative();
+    }
+
+    @Test
+    public void shouldStopRetryingOnceTheBudgetIsSpent() {
+        policy.withRetryBudget(0.5, 0);
+        for (int i = 0; i < 4; i++) {
+            policy.onRequest();
+        }
+        assertThat(policy.getWaitMillis(failure(networkError(), 1, 0, -1))).isPositive();
+        assertThat(policy.getWaitMillis(failure(networkError(), 1, 0, -1))).isPositive();
+        assertThat(policy.getWaitMillis(failure(networkError(), 1, 0, -1))).isNegative();
+    }
+
+    private static Failure failure(GoCardlessException error, int attempts,
+            long previousWaitMillis, long retryAfterMillis) {
+        return new Failure(error, attempts, 0, previousWaitMillis, retryAfterMillis);
+    }
+
+    private static GoCardlessException networkError() {
+        return new GoCardlessNetworkException("Failed to execute request", null);
+    }
+
+    private static GoCardlessException error(String fixture, int code) {
+        try {
+            String body = Resources.toString(Resources.getResource("fixtures/" + fixture),
+                    Charsets.UTF_8);
+            return new ResponseParser(GsonFactory.build()).parseError(body, code);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.gocardless.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import com.gocardless.http.HedgedCallTest.DummyGetRequest;
+import com.gocardless.http.HttpTestUtil.DummyItem;
+import java.util.ArrayList;
+import java.util.List;
+import okhttp3.OkHttpClient;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class BulkheadPolicyTest {
+    @Rule
+    public final MockHttp http = new MockHttp();
+    private final BulkheadPolicy policy = new BulkheadPolicy()
+            .withBulkhead("reporting", 2, 1, "exports", "payout_items")
+            .withBulkhead("cancellations", 1, 0, "payments/:identity/actions/cancel");
+    private final List<String> started = new ArrayList<>();
+
+    @Test
+    public void shouldAssignEndpointsByResourceOrPathTemplate() {
+        assertThat(policy.forEndpoint("exports")).isSameAs(policy.forEndpoint("exports/:identity"));
+        assertThat(policy.forEndpoint("payout_items")).isSameAs(policy.forEndpoint("exports"));
+        assertThat(policy.forEndpoint("payments/:identity/actions/cancel"))
+                .isNotSameAs(policy.forEndpoint("exports"));
+        assertThat(policy.forEndpoint("payments/:identity")).isNull();
+        assertThat(policy.forEndpoint("payments")).isNull();
+    }
+
+    @Test
+    public void shouldQueueRequestsBeyondTheLimitThenFail() {
+        BulkheadPolicy.Bulkhead bulkhead = policy.forEndpoint("exports");
+        schedule(bulkhead, "a");
+        schedule(bulkhead, "b");
+        schedule(bulkhead, "c");
+        assertThat(started).containsExactly("a", "b");
+        assertThat(policy.getQueueLength("reporting")).isEqualTo(1);
+        Throwable error = catchThrowable(() -> schedule(bulkhead, "d"));
+        assertThat(error).isInstanceOf(BulkheadFullException.class);
+        assertThat(((BulkheadFullException) error).getBulkheadName()).isEqualTo("reporting");
+        bulkhead.release();
+        assertThat(started).containsExactly("a", "b", "c");
+        assertThat(policy.getInFlight("reporting")).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldNotLimitOtherBulkheads() {
+        BulkheadPolicy.Bulkhead reporting = policy.forEndpoint("exports");
+        schedule(reporting, "a");
+        schedule(reporting, "b");
+        schedule(policy.forEndpoint("payments/:identity/actions/cancel"), "cancel");
+        assertThat(started).containsExactly("a", "b", "cancel");
+    }
+
+    @Test
+    public void shouldFailRequestsToAFullBulkheadWithoutMakingThem() throws Exception {
+        http.enqueueResponse(200, "fixtures/single.json");
+        BulkheadPolicy dummies = new BulkheadPolicy().withBulkhead("dummies", 1, 0, "dummy");
+        HttpClient client = HttpClient.newBuilder("token", http.getBaseUrl(), new OkHttpClient())
+                .withBulkheads(dummies).build();
+        BulkheadPolicy.Bulkhead bulkhead = dummies.forEndpoint("dummy/:id");
+        schedule(bulkhead, "a");
+        assertThat(catchThrowable(() -> new DummyGetRequest(client).execute()))
+                .isInstanceOf(BulkheadFullException.class);
+        assertThat(catchThrowable(() -> new DummyGetRequest(client).executeAsync().join()))
+                .hasCauseInstanceOf(BulkheadFullException.class);
+        assertThat(http.getRequestCount()).isZero();
+        bulkhead.release();
+        DummyItem result = new DummyGetRequest(client).execute();
+        assertThat(result.stringField).isEqualTo("foo");
+        assertThat(dummies.getInFlight("dummies")).isZero();
+    }
+
+    private void schedule(BulkheadPolicy.Bulkhead bulkhead, String request) {
+        bulkhead.schedule(() -> started.add(request));
+    }
+}
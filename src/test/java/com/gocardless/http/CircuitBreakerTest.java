@@ -0,0 +1,199 @@
+package com.gocardless.http;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gocardless.errors.GoCardlessInternalException;
+import com.gocardless.http.HedgedCallTest.DummyGetRequest;
+import com.gocardless.http.HttpTestUtil.DummyItem;
+import com.gocardless.http.MockHttp.SlowResponse;
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import okhttp3.OkHttpClient;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class CircuitBreakerTest {
+    @Rule
+    public final MockHttp http = new MockHttp();
+    @Rule
+    public final ExpectedException exception = ExpectedException.none();
+    private final FakeTicker ticker = new FakeTicker();
+    private final List<String> transitions = new ArrayList<>();
+    private final CircuitBreakerPolicy policy = new CircuitBreakerPolicy(ticker)
+            .withWindow(10, 4).withFailureRateThreshold(0.5)
+            .withSlowCallThreshold(Duration.ofSeconds(5), 0.5)
+            .withOpenDuration(Duration.ofSeconds(30)).withHalfOpenCalls(2)
+            .withListener((pathTemplate, from, to) -> transitions
+                    .add(pathTemplate + ": " + from + " -> " + to));
+    private final CircuitBreaker circuitBreaker = policy.forEndpoint("billing_requests");
+
+    @Test
+    public void shouldStayClosedUntilTheMinimumCallsHaveBeenMade() {
+        succeed(1);
+        fail(2);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreakerState.CLOSED);
+    }
+
+    @Test
+    public void shouldOpenWhenTheFailureRateReachesTheThreshold() {
+        succeed(2);
+        fail(2);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreakerState.OPEN);
+        assertThat(policy.getState("billing_requests")).isEqualTo(CircuitBreakerState.OPEN);
+        assertThat(policy.getState("payments")).isEqualTo(CircuitBreakerState.CLOSED);
+        assertThat(transitions).containsExactly("billing_requests: CLOSED -> OPEN");
+        exception.expect(CircuitBreakerOpenException.class);
+        circuitBreaker.acquire();
+    }
+
+    @Test
+    public void shouldOpenWhenTheSlowCallRateReachesTheThreshold() {
+        succeed(2);
+        for (int i = 0; i < 2; i++) {
+            long start = circuitBreaker.acquire();
+            ticker.advance(SECONDS.toNanos(5));
+            circuitBreaker.record(start, 0, false);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreakerState.OPEN);
+    }
+
+    @Test
+    public void shouldOnlyConsiderTheMostRecentCalls() {
+        succeed(10);
+        fail(4);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreakerState.CLOSED);
+        // Half of the last ten calls have now failed
+        fail(1);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreakerState.OPEN);
+    }
+
+    @Test
+    public void shouldCloseAfterSuccessfulTrialCalls() {
+        fail(4);
+        ticker.advance(SECONDS.toNanos(30));
+        long first = circuitBreaker.acquire();
+        long second = circuitBreaker.acquire();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreakerState.HALF_OPEN);
+        circuitBreaker.record(first, 0, false);
+        circuitBreaker.record(second, 0, false);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreakerState.CLOSED);
+        assertThat(transitions).isEqualTo(ImmutableList.of("billing_requests: CLOSED -> OPEN",
+                "billing_requests: OPEN -> HALF_OPEN", "billing_requests: HALF_OPEN -> CLOSED"));
+    }
+
+    @Test
+    public void shouldReopenWhenATrialCallFails() {
+        fail(4);
+        ticker.advance(SECONDS.toNanos(30));
+        circuitBreaker.record(circuitBreaker.acquire(), 0, true);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreakerState.OPEN);
+    }
+
+    @Test
+    public void shouldNotCountTimeHeldBackByTheClientAsSlow() {
+        succeed(2);
+        for (int i = 0; i < 2; i++) {
+            long start = circuitBreaker.acquire();
+            ticker.advance(SECONDS.toNanos(5));
+            circuitBreaker.record(start, SECONDS.toNanos(1), false);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreakerState.CLOSED);
+    }
+
+    @Test
+    public void shouldIgnoreCallsStartedBeforeOpeningWhileHalfOpen() {
+        long stale = circuitBreaker.acquire();
+        ticker.advance(SECONDS.toNanos(1));
+        fail(4);
+        ticker.advance(SECONDS.toNanos(30));
+        long trial = circuitBreaker.acquire();
+        circuitBreaker.record(stale, 0, true);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreakerState.HALF_OPEN);
+        circuitBreaker.record(trial, 0, false);
+        circuitBreaker.record(circuitBreaker.acquire(), 0, false);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreakerState.CLOSED);
+    }
+
+    @Test
+    public void shouldOnlyLetTheTrialCallsThroughWhileHalfOpen() {
+        fail(4);
+        ticker.advance(SECONDS.toNanos(30));
+        circuitBreaker.acquire();
+        circuitBreaker.acquire();
+        circuitBreaker.release();
+        circuitBreaker.acquire();
+        exception.expect(CircuitBreakerOpenException.class);
+        circuitBreaker.acquire();
+    }
+
+    @Test
+    public void shouldFailRequestsWithoutMakingThemWhileOpen() throws Exception {
+        HttpClient client = HttpClient.newBuilder("token", http.getBaseUrl(), new OkHttpClient())
+                .withRetryPolicy(new BackoffRetryPolicy().withMaxAttempts(1))
+                .withCircuitBreaker(new CircuitBreakerPolicy().withWindow(2, 2)).build();
+        http.enqueueResponse(500, "fixtures/internal_error.json");
+        http.enqueueResponse(500, "fixtures/internal_error.json");
+        for (int i = 0; i < 2; i++) {
+            try {
+                new DummyGetRequest(client).execute();
+            } catch (GoCardlessInternalException e) {
+                // expected
+            }
+        }
+        exception.expect(CircuitBreakerOpenException.class);
+        try {
+            new DummyGetRequest(client).execute();
+        } finally {
+            assertThat(http.getRequestCount()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void shouldNotCountTimeQueuedBehindOtherRequestsAsSlow() throws Exception {
+        CircuitBreakerPolicy policy = new CircuitBreakerPolicy().withWindow(2, 2)
+                .withSlowCallThreshold(Duration.ofMillis(200), 1.0);
+        HttpClient client = HttpClient.newBuilder("token", http.getBaseUrl(), new OkHttpClient())
+                .withCircuitBreaker(policy).withAdaptiveConcurrency(
+                        new AdaptiveConcurrencyPolicy().withInitialLimit(1).withLimitRange(1, 1))
+                .build();
+        http.setDispatcher(new SlowResponse(300).firstOnly());
+        CompletableFuture<DummyItem> first = new DummyGetRequest(client).executeAsync();
+        CompletableFuture<DummyItem> second = new DummyGetRequest(client).executeAsync();
+        first.get(5, SECONDS);
+        second.get(5, SECONDS);
+        // Only the first request was slow, while the second waited for it to finish
+        assertThat(policy.getState("dummy/:id")).isEqualTo(CircuitBreakerState.CLOSED);
+        assertThat(http.getRequestCount()).isEqualTo(2);
+    }
+
+    private void succeed(int calls) {
+        for (int i = 0; i < calls; i++) {
+            circuitBreaker.record(circuitBreaker.acquire(), 0, false);
+        }
+    }
+
+    private void fail(int calls) {
+        for (int i = 0; i < calls; i++) {
+            circuitBreaker.record(circuitBreaker.acquire(), 0, true);
+        }
+    }
+
+    private static final class FakeTicker extends Ticker {
+        private long nanos = SECONDS.toNanos(1000);
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long delta) {
+            nanos += delta;
+        }
+    }
+}
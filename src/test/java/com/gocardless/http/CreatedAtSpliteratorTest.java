@@ -0,0 +1,134 @@
+package com.gocardless.http;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gocardless.GoCardlessClient;
+import com.gocardless.http.HttpTestUtil.DummyItem;
+import com.gocardless.http.ListRequestTest.DummyListRequest;
+import com.google.common.collect.ContiguousSet;
+import com.google.common.collect.DiscreteDomain;
+import com.google.common.collect.Range;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class CreatedAtSpliteratorTest {
+    private static final Instant FROM = Instant.parse("2020-01-01T00:00:00Z");
+    private static final Instant TO = Instant.parse("2020-01-03T00:00:00Z");
+    @Rule
+    public final MockHttp http = new MockHttp();
+    @Rule
+    public final ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void shouldStreamAllItemsInParallelInOrder() throws Exception {
+        http.setDispatcher(new HourlyRecordsDispatcher(FROM, TO, 5));
+        DummyListRequest<Iterable<DummyItem>> request =
+                DummyListRequest.iterableRequest(http.client());
+        List<Integer> items = request
+                .parallelStream(new ParallelPagination(FROM, TO).withWindows(8))
+                .map(item -> item.intField).collect(toList());
+        assertThat(items).containsExactlyElementsOf(
+                ContiguousSet.create(Range.closedOpen(0, 48), DiscreteDomain.integers())
+                        .descendingSet());
+    }
+
+    @Test
+    public void shouldNotSplitBeyondMaximumWindows() throws Exception {
+        HourlyRecordsDispatcher dispatcher = new HourlyRecordsDispatcher(FROM, TO, 5);
+        http.setDispatcher(dispatcher);
+        DummyListRequest<Iterable<DummyItem>> request =
+                DummyListRequest.iterableRequest(http.client());
+        List<Spliterator<DummyItem>> windows = new ArrayList<>();
+        splitFully(new CreatedAtSpliterator<>(request, http.client(), new CreatedAtWindow(FROM, TO),
+                4, true), windows);
+        assertThat(windows).hasSize(4);
+        List<String> starts = new ArrayList<>();
+        List<Integer> items = new ArrayList<>();
+        for (Spliterator<DummyItem> window : windows) {
+            dispatcher.getRequests().clear();
+            window.forEachRemaining(item -> items.add(item.intField));
+            Set<String> requested = dispatcher.getRequests().stream()
+                    .map(recorded -> recorded.getRequestUrl().queryParameter("created_at[gte]"))
+                    .collect(toSet());
+            assertThat(requested).hasSize(1);
+            starts.addAll(requested);
+        }
+        assertThat(starts).containsExactly("2020-01-02T12:00:00Z", "2020-01-02T00:00:00Z",
+                "2020-01-01T12:00:00Z", "2020-01-01T00:00:00Z");
+        assertThat(items).containsExactlyElementsOf(
+                ContiguousSet.create(Range.closedOpen(0, 48), DiscreteDomain.integers())
+                        .descendingSet());
+    }
+
+    @Test
+    public void shouldRejectEndpointsWithoutCreatedAtFilters() {
+        GoCardlessClient client =
+                GoCardlessClient.newBuilder("token").withBaseUrl(http.getBaseUrl()).build();
+        exception.expect(IllegalStateException.class);
+        client.mandateImportEntries().all().parallelStream(new ParallelPagination(FROM, TO));
+    }
+
+    @Test
+    public void shouldSplitWindowBeforeTraversal() throws Exception {
+        HourlyRecordsDispatcher dispatcher = new HourlyRecordsDispatcher(FROM, TO, 5);
+        http.setDispatcher(dispatcher);
+        DummyListRequest<Iterable<DummyItem>> request =
+                DummyListRequest.iterableRequest(http.client());
+        CreatedAtSpliterator<DummyItem> spliterator = new CreatedAtSpliterator<>(request,
+                http.client(), new CreatedAtWindow(FROM, TO), 2, true);
+        Spliterator<DummyItem> prefix = spliterator.trySplit();
+        assertThat(prefix).isNotNull();
+        assertThat(spliterator.trySplit()).isNull();
+        assertThat(prefix.hasCharacteristics(Spliterator.ORDERED)).isTrue();
+        assertThat(prefix.hasCharacteristics(Spliterator.SIZED)).isFalse();
+        assertThat(prefix.tryAdvance(item -> assertThat(item.intField).isEqualTo(47))).isTrue();
+        assertThat(spliterator.tryAdvance(item -> assertThat(item.intField).isEqualTo(23)))
+                .isTrue();
+        for (RecordedRequest recorded : dispatcher.getRequests()) {
+            assertThat(recorded.getRequestUrl().queryParameter("created_at[gte]"))
+                    .isIn(FROM.toString(), "2020-01-02T00:00:00Z");
+        }
+    }
+
+    @Test
+    public void shouldSplitOffRestOfPageOnceStarted() throws Exception {
+        http.setDispatcher(new HourlyRecordsDispatcher(FROM, TO, 5));
+        DummyListRequest<Iterable<DummyItem>> request =
+                DummyListRequest.iterableRequest(http.client());
+        CreatedAtSpliterator<DummyItem> spliterator = new CreatedAtSpliterator<>(request,
+                http.client(), new CreatedAtWindow(FROM, TO), 1, true);
+        assertThat(spliterator.tryAdvance(item -> assertThat(item.intField).isEqualTo(47)))
+                .isTrue();
+        Spliterator<DummyItem> rest = spliterator.trySplit();
+        assertThat(rest.hasCharacteristics(Spliterator.SIZED)).isTrue();
+        assertThat(rest.estimateSize()).isEqualTo(4);
+        List<Integer> items = new ArrayList<>();
+        rest.forEachRemaining(item -> items.add(item.intField));
+        assertThat(items).containsExactly(46, 45, 44, 43);
+        assertThat(spliterator.tryAdvance(item -> assertThat(item.intField).isEqualTo(42)))
+                .isTrue();
+    }
+
+    /**
+     * Splits the spliterator as far as it goes, adding the resulting spliterators in encounter
+     * order.
+     */
+    private static <T> void splitFully(Spliterator<T> spliterator, List<Spliterator<T>> result) {
+        Spliterator<T> prefix = spliterator.trySplit();
+        if (prefix == null) {
+            result.add(spliterator);
+            return;
+        }
+        splitFully(prefix, result);
+        splitFully(spliterator, result);
+    }
+}
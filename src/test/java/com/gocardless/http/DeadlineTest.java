@@ -0,0 +1,186 @@
+package com.gocardless.http;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import com.gocardless.errors.GoCardlessInternalException;
+import com.gocardless.http.HttpTestUtil.DummyItem;
+import com.gocardless.http.MockHttp.SlowResponse;
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import okhttp3.OkHttpClient;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class DeadlineTest {
+    @Rule
+    public final MockHttp http = new MockHttp();
+
+    @Test
+    public void shouldNotSetADeadlineWithoutATimeoutOrDeadline() {
+        assertThat(Deadline.of(new DummyGetRequest())).isNull();
+    }
+
+    @Test
+    public void shouldUseTheEarlierOfTheTimeoutAndDeadline() {
+        Deadline deadline = Deadline.of(new DummyGetRequest().withTimeout(Duration.ofSeconds(10))
+                .withDeadline(Instant.now().plusSeconds(1)));
+        assertThat(deadline.remainingNanos()).isBetween(0L, SECONDS.toNanos(1));
+    }
+
+    @Test
+    public void shouldTimeOutSlowRequests() throws Exception {
+        http.setDispatcher(new SlowResponse(2000));
+        long start = System.nanoTime();
+        try {
+            new DummyGetRequest().withTimeout(Duration.ofMillis(200)).execute();
+            fail("Expected a GoCardlessNetworkException");
+        } catch (GoCardlessNetworkException e) {
+            // expected
+        }
+        assertThat(System.nanoTime() - start).isLessThan(MILLISECONDS.toNanos(1500));
+        // Retrying after the usual wait would pass the deadline
+        assertThat(http.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotRetryPastTheDeadline() throws Exception {
+        http.enqueueResponse(500, "fixtures/internal_error.json");
+        http.enqueueResponse(200, "fixtures/single.json");
+        try {
+            new DummyGetRequest().withDeadline(Instant.now().plusMillis(300)).execute();
+            fail("Expected a GoCardlessInternalException");
+        } catch (GoCardlessInternalException e) {
+            // expected
+        }
+        assertThat(http.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldRetryWithinTheDeadline() throws Exception {
+        http.enqueueResponse(500, "fixtures/internal_error.json");
+        http.enqueueResponse(200, "fixtures/single.json");
+        DummyItem result = new DummyGetRequest().withTimeout(Duration.ofSeconds(10)).execute();
+        assertThat(result.stringField).isEqualTo("foo");
+        assertThat(http.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldTimeOutSlowAsyncRequests() throws Exception {
+        http.setDispatcher(new SlowResponse(2000));
+        try {
+            new DummyGetRequest().withTimeout(Duration.ofMillis(200)).executeAsync().get(1500,
+                    MILLISECONDS);
+            fail("Expected a GoCardlessNetworkException");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(GoCardlessNetworkException.class);
+        }
+        assertThat(http.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldTimeOutWhileWaitingForAConcurrencySlot() throws Exception {
+        http.setDispatcher(new SlowResponse(1000));
+        HttpClient client = HttpClient.newBuilder("token", http.getBaseUrl(), new OkHttpClient())
+                .withAdaptiveConcurrency(new AdaptiveConcurrencyPolicy().withInitialLimit(1)
+                        .withLimitRange(1, 1))
+                .build();
+        assertTimesOutBehindAnotherRequest(client);
+    }
+
+    @Test
+    public void shouldTimeOutWhileWaitingForACoalescedRequest() throws Exception {
+        http.setDispatcher(new SlowResponse(1000));
+        HttpClient client = HttpClient.newBuilder("token", http.getBaseUrl(), new OkHttpClient())
+                .withRequestCoalescing(true).build();
+        assertTimesOutBehindAnotherRequest(client);
+    }
+
+    @Test
+    public void shouldNotWaitForTheRateLimitPastTheDeadline() throws Exception {
+        http.enqueueResponse(200, "fixtures/single.json", ImmutableMap.of(
+                RateLimiter.LIMIT_HEADER, "1000", RateLimiter.REMAINING_HEADER, "0",
+                RateLimiter.RESET_HEADER, "60"));
+        HttpClient client = HttpClient.newBuilder("token", http.getBaseUrl(), new OkHttpClient())
+                .withRateLimiting(true).withMaxNoOfRetries(1).build();
+        new DummyGetRequest(client).execute();
+        long start = System.nanoTime();
+        try {
+            new DummyGetRequest(client).withTimeout(Duration.ofSeconds(10)).execute();
+            fail("Expected a GoCardlessNetworkException");
+        } catch (GoCardlessNetworkException e) {
+            // expected
+        }
+        assertThat(System.nanoTime() - start).isLessThan(SECONDS.toNanos(1));
+        assertThat(http.getRequestCount()).isEqualTo(1);
+    }
+
+    private void assertTimesOutBehindAnotherRequest(HttpClient client) throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<DummyItem> first = executor.submit(() -> new DummyGetRequest(client).execute());
+            // Give the first request time to be sent
+            MILLISECONDS.sleep(200);
+            long start = System.nanoTime();
+            try {
+                new DummyGetRequest(client).withTimeout(Duration.ofMillis(200)).execute();
+                fail("Expected a GoCardlessNetworkException");
+            } catch (GoCardlessNetworkException e) {
+                // expected
+            }
+            assertThat(System.nanoTime() - start).isLessThan(MILLISECONDS.toNanos(600));
+            assertThat(first.get(5, SECONDS).stringField).isEqualTo("foo");
+            assertThat(http.getRequestCount()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+
+    private class DummyGetRequest extends GetRequest<DummyItem> {
+        DummyGetRequest() {
+            this(http.client());
+        }
+
+        DummyGetRequest(HttpClient httpClient) {
+            super(httpClient);
+        }
+
+        DummyGetRequest withTimeout(Duration timeout) {
+            this.setTimeout(timeout);
+            return this;
+        }
+
+        DummyGetRequest withDeadline(Instant deadline) {
+            this.setDeadline(deadline);
+            return this;
+        }
+
+        @Override
+        protected ImmutableMap<String, String> getPathParams() {
+            return ImmutableMap.of("id", "123");
+        }
+
+        @Override
+        protected String getPathTemplate() {
+            return "/dummy/:id";
+        }
+
+        @Override
+        protected String getEnvelope() {
+            return "items";
+        }
+
+        @Override
+        protected Class<DummyItem> getResponseClass() {
+            return DummyItem.class;
+        }
+    }
+}
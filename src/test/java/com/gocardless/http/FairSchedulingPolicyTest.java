@@ -0,0 +1,111 @@
+package com.gocardless.http;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gocardless.http.HedgedCallTest.DummyGetRequest;
+import com.gocardless.http.HttpTestUtil.DummyItem;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import okhttp3.OkHttpClient;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class FairSchedulingPolicyTest {
+    @Rule
+    public final MockHttp http = new MockHttp();
+    private final List<String> started = new ArrayList<>();
+
+    @Test
+    public void shouldTakeTurnsBetweenTenants() {
+        FairSchedulingPolicy policy = new FairSchedulingPolicy().withMaxConcurrentRequests(1);
+        FairSchedulingPolicy.Tenant a = policy.tenant("a", 1);
+        FairSchedulingPolicy.Tenant b = policy.tenant("b", 1);
+        schedule(policy, a, "a1", "a2", "a3", "a4");
+        schedule(policy, b, "b1", "b2");
+        releaseAll(policy, a, b);
+        assertThat(started).containsExactly("a1", "a2", "b1", "a3", "b2", "a4");
+    }
+
+    @Test
+    public void shouldStartAsManyRequestsAsATenantsWeightEachTurn() {
+        FairSchedulingPolicy policy = new FairSchedulingPolicy().withMaxConcurrentRequests(1);
+        FairSchedulingPolicy.Tenant a = policy.tenant("a", 2);
+        FairSchedulingPolicy.Tenant b = policy.tenant("b", 1);
+        schedule(policy, a, "a1", "a2", "a3", "a4", "a5");
+        schedule(policy, b, "b1", "b2");
+        releaseAll(policy, a, b);
+        assertThat(started).containsExactly("a1", "a2", "b1", "a3", "a4", "b2", "a5");
+    }
+
+    @Test
+    public void shouldStartRequestsWithAHigherPriorityFirst() {
+        FairSchedulingPolicy policy = new FairSchedulingPolicy().withMaxConcurrentRequests(1);
+        FairSchedulingPolicy.Tenant a = policy.tenant("a", 1);
+        FairSchedulingPolicy.Tenant b = policy.tenant("b", 1);
+        schedule(policy, a, "a1", "a2", "a3");
+        policy.schedule(b, RequestPriority.HIGH, () -> started.add("b1"));
+        policy.schedule(a, RequestPriority.LOW, () -> started.add("a4"));
+        policy.schedule(b, RequestPriority.HIGH, () -> started.add("b2"));
+        releaseAll(policy, a, b);
+        assertThat(started).containsExactly("a1", "b1", "b2", "a2", "a3", "a4");
+    }
+
+    @Test
+    public void shouldLimitRequestsInFlightForEachTenant() {
+        FairSchedulingPolicy policy =
+                new FairSchedulingPolicy().withMaxConcurrentRequestsPerTenant(2);
+        FairSchedulingPolicy.Tenant a = policy.tenant("a", 1);
+        FairSchedulingPolicy.Tenant b = policy.tenant("b", 1);
+        schedule(policy, a, "a1", "a2", "a3");
+        schedule(policy, b, "b1");
+        assertThat(started).containsExactly("a1", "a2", "b1");
+        policy.release(a);
+        assertThat(started).containsExactly("a1", "a2", "b1", "a3");
+    }
+
+    @Test
+    public void shouldNotStartCancelledRequests() {
+        FairSchedulingPolicy policy = new FairSchedulingPolicy().withMaxConcurrentRequests(1);
+        FairSchedulingPolicy.Tenant a = policy.tenant("a", 1);
+        schedule(policy, a, "a1");
+        Runnable cancelled = () -> started.add("cancelled");
+        policy.schedule(a, RequestPriority.NORMAL, cancelled);
+        assertThat(policy.cancel(a, RequestPriority.NORMAL, cancelled)).isTrue();
+        policy.release(a);
+        assertThat(started).containsExactly("a1");
+        assertThat(policy.getInFlight()).isZero();
+    }
+
+    @Test
+    public void shouldReleaseRequestsMadeThroughTheClient() throws Exception {
+        http.enqueueResponse(200, "fixtures/single.json");
+        http.enqueueResponse(200, "fixtures/single.json");
+        FairSchedulingPolicy policy = new FairSchedulingPolicy().withMaxConcurrentRequests(1);
+        HttpClient client = HttpClient.newBuilder("token", http.getBaseUrl(), new OkHttpClient())
+                .withFairScheduling(policy).build();
+        CompletableFuture<DummyItem> first = new DummyGetRequest(client).executeAsync();
+        DummyItem second = new DummyGetRequest(client).execute();
+        assertThat(first.get(5, SECONDS).stringField).isEqualTo("foo");
+        assertThat(second.stringField).isEqualTo("foo");
+        assertThat(policy.getInFlight()).isZero();
+    }
+
+    private void schedule(FairSchedulingPolicy policy, FairSchedulingPolicy.Tenant tenant,
+            String... requests) {
+        for (String request : requests) {
+            policy.schedule(tenant, RequestPriority.NORMAL, () -> started.add(request));
+        }
+    }
+
+    /**
+     * Releases each started request in turn, until every request has started.
+     */
+    private void releaseAll(FairSchedulingPolicy policy, FairSchedulingPolicy.Tenant a,
+            FairSchedulingPolicy.Tenant b) {
+        for (int released = 0; released < started.size(); released++) {
+            policy.release(started.get(released).startsWith("a") ? a : b);
+        }
+    }
+}
@@ -1,10 +1,17 @@
 package com.gocardless.http;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.hamcrest.CoreMatchers.isA;
 
 import com.gocardless.errors.InvalidApiUsageException;
+import com.gocardless.errors.MalformedResponseException;
 import com.gocardless.http.HttpTestUtil.DummyItem;
 import com.google.common.collect.ImmutableMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -46,6 +53,33 @@ public class GetRequestTest {
         new DummyGetRequest().execute();
     }
 
+    @Test
+    public void shouldReportMalformedSuccessfulResponse() throws Exception {
+        http.enqueueResponse(200, "fixtures/non_json_response.html");
+        try {
+            new DummyGetRequest().execute();
+            fail("expected MalformedResponseException");
+        } catch (MalformedResponseException e) {
+            assertThat(e.getStatusCode()).isEqualTo(200);
+            assertThat(e.getResponseBody()).startsWith("<!DOCTYPE html>");
+            assertThat(e.getMessage()).contains("(HTTP 200)").contains("This is not JSON.");
+        }
+    }
+
+    @Test
+    public void shouldReportTruncatedSuccessfulResponseWithoutRetrying() throws Exception {
+        http.enqueueResponse(200, "fixtures/truncated.json");
+        http.enqueueResponse(200, "fixtures/single.json");
+        try {
+            new DummyGetRequest().execute();
+            fail("expected MalformedResponseException");
+        } catch (MalformedResponseException e) {
+            assertThat(e.getStatusCode()).isEqualTo(200);
+            assertThat(e.getResponseBody()).contains("\"string_field\": \"foo\"");
+        }
+        assertThat(http.getRequestCount()).isEqualTo(1);
+    }
+
     @Test
     public void shouldRetryOnNetworkFailure() throws Exception {
         http.enqueueNetworkFailure();
@@ -72,6 +106,62 @@ public class GetRequestTest {
                 ImmutableMap.of("Authorization", "Bearer token", "Accept-Language", "fr-FR"));
     }
 
+    @Test
+    public void shouldRetryRateLimitErrorAfterRetryAfter() throws Exception {
+        http.enqueueResponse(429, "fixtures/rate_limit_exceeded.json",
+                ImmutableMap.of("Retry-After", "1"));
+        http.enqueueResponse(200, "fixtures/single.json");
+        long start = System.nanoTime();
+        DummyItem result = new DummyGetRequest().execute();
+        assertThat(result.stringField).isEqualTo("foo");
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(MILLISECONDS.toNanos(900));
+        assertThat(http.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldPerformGetRequestAsynchronously() throws Exception {
+        http.enqueueResponse(200, "fixtures/single.json");
+        DummyItem result = new DummyGetRequest().executeAsync().get(5, SECONDS);
+        assertThat(result.stringField).isEqualTo("foo");
+        assertThat(result.intField).isEqualTo(123);
+        http.assertRequestMade("GET", "/dummy/123",
+                ImmutableMap.of("Authorization", "Bearer token"));
+    }
+
+    @Test
+    public void shouldPerformWrappedGetRequestAsynchronously() throws Exception {
+        http.enqueueResponse(200, "fixtures/single.json", ImmutableMap.of("foo", "bar"));
+        ApiResponse<DummyItem> result = new DummyGetRequest()
+                .withHeader("Accept-Language", "fr-FR").executeWrappedAsync().get(5, SECONDS);
+        assertThat(result.getStatusCode()).isEqualTo(200);
+        assertThat(result.getHeaders().get("foo")).containsExactly("bar");
+        assertThat(result.getResource().stringField).isEqualTo("foo");
+        http.assertRequestMade("GET", "/dummy/123",
+                ImmutableMap.of("Authorization", "Bearer token", "Accept-Language", "fr-FR"));
+    }
+
+    @Test
+    public void shouldRetryAsynchronouslyOnInternalError() throws Exception {
+        http.enqueueNetworkFailure();
+        http.enqueueResponse(500, "fixtures/internal_error.json");
+        http.enqueueResponse(200, "fixtures/single.json");
+        DummyItem result = new DummyGetRequest().executeAsync().get(10, SECONDS);
+        assertThat(result.stringField).isEqualTo("foo");
+        http.takeRequest();
+        http.takeRequest();
+        http.assertRequestMade("GET", "/dummy/123",
+                ImmutableMap.of("Authorization", "Bearer token"));
+    }
+
+    @Test
+    public void shouldCompleteExceptionallyOnApiErrorAsynchronously() throws Exception {
+        http.enqueueResponse(400, "fixtures/invalid_api_usage.json");
+        CompletableFuture<DummyItem> future = new DummyGetRequest().executeAsync();
+        exception.expect(ExecutionException.class);
+        exception.expectCause(isA(InvalidApiUsageException.class));
+        future.get(5, SECONDS);
+    }
+
     private class DummyGetRequest extends GetRequest<DummyItem> {
         public DummyGetRequest() {
             super(http.client());
@@ -0,0 +1,248 @@
+package com.gocardless.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gocardless.GoCardlessClient;
+import com.gocardless.resources.Customer;
+import com.gocardless.resources.Mandate;
+import com.gocardless.resources.Payment;
+import com.gocardless.resources.Subscription;
+import com.gocardless.services.CustomerService.CustomerCreateRequest;
+import com.gocardless.services.CustomerService.CustomerUpdateRequest;
+import com.gocardless.services.PaymentService.PaymentCreateRequest;
+import com.gocardless.services.PaymentService.PaymentUpdateRequest;
+import com.gocardless.services.SubscriptionService.SubscriptionCreateRequest;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.Resources;
+import com.google.common.reflect.ClassPath;
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.reflect.TypeToken;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GsonFactoryTest {
+    private static final Map<String, Class<?>> RESPONSE_FIXTURES =
+            ImmutableMap.<String, Class<?>>builder()
+                    .put("cancel_a_mandate_response", Mandate.class)
+                    .put("create_a_customer_response", Customer.class)
+                    .put("create_a_payment_response", Payment.class)
+                    .put("create_a_subscription_response", Subscription.class)
+                    .put("update_a_customer_response", Customer.class).build();
+    private static final Map<String, Class<?>> REQUEST_FIXTURES =
+            ImmutableMap.<String, Class<?>>builder()
+                    .put("create_a_customer_request", CustomerCreateRequest.class)
+                    .put("create_a_payment_request", PaymentCreateRequest.class)
+                    .put("create_a_subscription_request", SubscriptionCreateRequest.class)
+                    .put("update_a_customer_request", CustomerUpdateRequest.class).build();
+    private Gson gson;
+    private Gson reflectiveGson;
+
+    @Before
+    public void setUp() {
+        gson = GsonFactory.build();
+        reflectiveGson = GsonFactory.reflectiveBuilder().create();
+    }
+
+    @Test
+    public void shouldUseGeneratedAdaptersForResources() {
+        assertThat(gson.getAdapter(Payment.class).getClass().getName())
+                .isEqualTo("com.gocardless.resources.PaymentTypeAdapters$PaymentAdapter");
+        assertThat(gson.getAdapter(Payment.Status.class).getClass().getName())
+                .isEqualTo("com.gocardless.resources.PaymentTypeAdapters$StatusAdapter");
+    }
+
+    @Test
+    public void shouldReadResources() {
+        Payment payment = gson.fromJson("{\"id\":\"PM123\",\"amount\":1000,\"status\":\"paid_out\","
+                + "\"fx\":{\"fx_currency\":\"EUR\"},\"metadata\":{\"key\":\"value\"},"
+                + "\"links\":{\"mandate\":\"MD123\"},\"new_field\":[1,{\"a\":2}]}", Payment.class);
+        assertThat(payment.getId()).isEqualTo("PM123");
+        assertThat(payment.getAmount()).isEqualTo(1000);
+        assertThat(payment.getStatus()).isEqualTo(Payment.Status.PAID_OUT);
+        assertThat(payment.getFx().getFxCurrency()).isEqualTo(Payment.Fx.FxCurrency.EUR);
+        assertThat(payment.getMetadata()).containsEntry("key", "value");
+        assertThat(payment.getLinks().getMandate()).isEqualTo("MD123");
+    }
+
+    @Test
+    public void shouldReadUnrecognisedEnumValuesAsUnknown() {
+        Payment payment = gson.fromJson("{\"status\":\"new_status\"}", Payment.class);
+        assertThat(payment.getStatus()).isEqualTo(Payment.Status.UNKNOWN);
+    }
+
+    @Test
+    public void shouldWriteRequestsWithoutPathParamsOrNulls() {
+        PaymentUpdateRequest request = GoCardlessClient.newBuilder("token").build().payments()
+                .update("PM123").withMetadata("key", "value");
+        assertThat(gson.toJson(request)).isEqualTo("{\"metadata\":{\"key\":\"value\"}}");
+    }
+
+    @Test
+    public void shouldReadRequestsLikeTheReflectiveAdapter() {
+        PaymentUpdateRequest request = gson.fromJson("{\"metadata\":{\"key\":\"value\"}}",
+                PaymentUpdateRequest.class);
+        assertThat(gson.toJson(request)).isEqualTo("{\"metadata\":{\"key\":\"value\"}}");
+    }
+
+    @Test
+    public void shouldMatchReflectiveAdaptersForEveryFixture() throws Exception {
+        for (Map.Entry<String, Class<?>> fixture : RESPONSE_FIXTURES.entrySet()) {
+            JsonObject json = readFixture(fixture.getKey());
+            for (Map.Entry<String, JsonElement> envelope : json.entrySet()) {
+                assertRoundTripsAlike(fixture.getKey(), fixture.getValue(), envelope.getValue());
+            }
+        }
+        for (Map.Entry<String, Class<?>> fixture : REQUEST_FIXTURES.entrySet()) {
+            JsonObject json = readFixture(fixture.getKey());
+            for (Map.Entry<String, JsonElement> envelope : json.entrySet()) {
+                assertRoundTripsAlike(fixture.getKey(), fixture.getValue(), envelope.getValue());
+            }
+        }
+    }
+
+    @Test
+    public void shouldMatchReflectiveAdaptersForEveryGeneratedType() throws Exception {
+        List<Class<?>> classes = generatedTypes();
+        assertThat(classes).contains(Payment.class, Payment.Status.class,
+                PaymentUpdateRequest.class);
+        for (Class<?> type : classes) {
+            if (type.isEnum()) {
+                assertEnumAlike(type);
+            } else {
+                assertRoundTripsAlike(type.getName(), type, sample(type, 0));
+            }
+        }
+    }
+
+    private void assertRoundTripsAlike(String description, Class<?> type, JsonElement json) {
+        Object generated = gson.fromJson(json, type);
+        Object reflective = reflectiveGson.fromJson(json, type);
+        JsonElement expected = reflectiveGson.toJsonTree(reflective);
+        assertThat(reflectiveGson.toJsonTree(generated)).as(description).isEqualTo(expected);
+        assertThat(gson.toJsonTree(generated)).as(description).isEqualTo(expected);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void assertEnumAlike(Class<?> type) {
+        for (Object constant : type.getEnumConstants()) {
+            String json = reflectiveGson.toJson(constant);
+            assertThat(gson.toJson(constant)).as(type.getName()).isEqualTo(json);
+            assertThat(gson.fromJson(json, (Class) type)).as(type.getName()).isEqualTo(constant);
+        }
+        assertThat(gson.fromJson("\"not_a_value\"", (Class) type)).as(type.getName())
+                .isEqualTo(reflectiveGson.fromJson("\"not_a_value\"", (Class) type));
+    }
+
+    /**
+     * Returns every class and enum in the resources and services packages which has a generated
+     * adapter.
+     */
+    private List<Class<?>> generatedTypes() throws Exception {
+        TypeAdapterFactory[] factories =
+                {new com.gocardless.resources.GeneratedTypeAdapterFactory(),
+                        new com.gocardless.services.GeneratedTypeAdapterFactory()};
+        List<Class<?>> candidates = new ArrayList<>();
+        ClassPath classPath = ClassPath.from(getClass().getClassLoader());
+        for (String packageName : new String[] {"com.gocardless.resources",
+                "com.gocardless.services"}) {
+            for (ClassPath.ClassInfo info : classPath.getTopLevelClasses(packageName)) {
+                addWithNestedClasses(info.load(), candidates);
+            }
+        }
+        List<Class<?>> types = new ArrayList<>();
+        for (Class<?> candidate : candidates) {
+            for (TypeAdapterFactory factory : factories) {
+                TypeAdapter<?> adapter = factory.create(gson, TypeToken.get(candidate));
+                if (adapter != null) {
+                    types.add(candidate);
+                    break;
+                }
+            }
+        }
+        return types;
+    }
+
+    private static void addWithNestedClasses(Class<?> type, List<Class<?>> result) {
+        result.add(type);
+        for (Class<?> nested : type.getDeclaredClasses()) {
+            addWithNestedClasses(nested, result);
+        }
+    }
+
+    /**
+     * Builds a JSON value for the given type with every field set, recursing a few levels into
+     * nested objects.
+     */
+    private static JsonElement sample(Type type, int depth) {
+        Class<?> raw = TypeToken.get(type).getRawType();
+        if (raw == String.class || raw == Object.class) {
+            return new JsonPrimitive("value");
+        } else if (raw == Integer.class || raw == Long.class) {
+            return new JsonPrimitive(7);
+        } else if (raw == Double.class || raw == Float.class) {
+            return new JsonPrimitive(1.5);
+        } else if (raw == Boolean.class) {
+            return new JsonPrimitive(true);
+        } else if (raw.isEnum()) {
+            return new JsonPrimitive(serializedName(raw.getEnumConstants()[0]));
+        } else if (List.class.isAssignableFrom(raw)) {
+            JsonArray array = new JsonArray();
+            array.add(sample(((ParameterizedType) type).getActualTypeArguments()[0], depth));
+            return array;
+        } else if (Map.class.isAssignableFrom(raw)) {
+            JsonObject map = new JsonObject();
+            map.add("key", sample(((ParameterizedType) type).getActualTypeArguments()[1], depth));
+            return map;
+        } else if (depth > 4) {
+            return JsonNull.INSTANCE;
+        }
+        JsonObject object = new JsonObject();
+        for (Class<?> c = raw; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())
+                        || Modifier.isTransient(field.getModifiers())) {
+                    continue;
+                }
+                SerializedName name = field.getAnnotation(SerializedName.class);
+                object.add(name != null ? name.value()
+                        : FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES.translateName(field),
+                        sample(field.getGenericType(), depth + 1));
+            }
+        }
+        return object;
+    }
+
+    private static String serializedName(Object constant) {
+        try {
+            SerializedName name = constant.getClass()
+                    .getField(((Enum<?>) constant).name()).getAnnotation(SerializedName.class);
+            return name == null ? constant.toString() : name.value();
+        } catch (NoSuchFieldException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static JsonObject readFixture(String name) throws Exception {
+        String body = Resources.toString(
+                Resources.getResource("fixtures/client/" + name + ".json"), StandardCharsets.UTF_8);
+        return JsonParser.parseString(body).getAsJsonObject();
+    }
+}
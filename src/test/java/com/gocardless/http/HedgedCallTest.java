@@ -0,0 +1,133 @@
+package com.gocardless.http;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gocardless.http.HttpTestUtil.DummyItem;
+import com.gocardless.http.MockHttp.SlowResponse;
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import okhttp3.OkHttpClient;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class HedgedCallTest {
+    private static final String PATH_TEMPLATE = "dummy/:id";
+
+    @Rule
+    public final MockHttp http = new MockHttp();
+    private final HedgingPolicy policy =
+            new HedgingPolicy().withMinDelay(Duration.ofMillis(50)).withBudget(1, 10);
+    private HttpClient client;
+
+    @Before
+    public void setUp() {
+        client = HttpClient.newBuilder("token", http.getBaseUrl(), new OkHttpClient())
+                .withHedging(policy).build();
+    }
+
+    @Test
+    public void shouldNotHedgeUntilLatenciesAreKnown() throws Exception {
+        http.setDispatcher(new SlowResponse(300).firstOnly());
+        long start = System.nanoTime();
+        DummyItem result = new DummyGetRequest(client).execute();
+        assertThat(result.stringField).isEqualTo("foo");
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(MILLISECONDS.toNanos(300));
+        assertThat(http.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldUseTheHedgedResponseWhenTheFirstIsSlow() throws Exception {
+        recordLatencies(10);
+        http.setDispatcher(new SlowResponse(5000).firstOnly());
+        long start = System.nanoTime();
+        DummyItem result = new DummyGetRequest(client).execute();
+        assertThat(result.stringField).isEqualTo("foo");
+        assertThat(System.nanoTime() - start).isLessThan(SECONDS.toNanos(2));
+        assertThat(http.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldUseTheHedgedResponseWhenTheFirstIsSlowAsynchronously() throws Exception {
+        recordLatencies(10);
+        http.setDispatcher(new SlowResponse(5000).firstOnly());
+        long start = System.nanoTime();
+        DummyItem result = new DummyGetRequest(client).executeAsync().get(5, SECONDS);
+        assertThat(result.stringField).isEqualTo("foo");
+        assertThat(System.nanoTime() - start).isLessThan(SECONDS.toNanos(2));
+        assertThat(http.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldNotHedgeFastResponses() throws Exception {
+        recordLatencies(1000);
+        http.setDispatcher(new SlowResponse(0).firstOnly());
+        new DummyGetRequest(client).execute();
+        assertThat(http.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotHedgeOnceTheBudgetIsSpent() throws Exception {
+        policy.withBudget(0, 0);
+        recordLatencies(10);
+        http.setDispatcher(new SlowResponse(300).firstOnly());
+        long start = System.nanoTime();
+        new DummyGetRequest(client).execute();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(MILLISECONDS.toNanos(300));
+        assertThat(http.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotHedgeWithoutRoomWithinTheConcurrencyLimit() throws Exception {
+        client = HttpClient.newBuilder("token", http.getBaseUrl(), new OkHttpClient())
+                .withHedging(policy).withAdaptiveConcurrency(
+                        new AdaptiveConcurrencyPolicy().withInitialLimit(1).withLimitRange(1, 1))
+                .build();
+        recordLatencies(10);
+        http.setDispatcher(new SlowResponse(300).firstOnly());
+        long start = System.nanoTime();
+        new DummyGetRequest(client).execute();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(MILLISECONDS.toNanos(300));
+        assertThat(http.getRequestCount()).isEqualTo(1);
+    }
+
+    private void recordLatencies(long millis) {
+        for (int i = 0; i < 100; i++) {
+            policy.recordLatency(PATH_TEMPLATE, MILLISECONDS.toNanos(millis));
+        }
+    }
+
+
+    static final class DummyGetRequest extends GetRequest<DummyItem> {
+        DummyGetRequest(HttpClient httpClient) {
+            super(httpClient);
+        }
+
+        DummyGetRequest withCacheBypass() {
+            setCacheBypass(true);
+            return this;
+        }
+
+        @Override
+        protected ImmutableMap<String, String> getPathParams() {
+            return ImmutableMap.of("id", "123");
+        }
+
+        @Override
+        protected String getPathTemplate() {
+            return PATH_TEMPLATE;
+        }
+
+        @Override
+        protected String getEnvelope() {
+            return "items";
+        }
+
+        @Override
+        protected Class<DummyItem> getResponseClass() {
+            return DummyItem.class;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.gocardless.http;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import org.junit.Test;
+
+public class HedgingPolicyTest {
+    private final HedgingPolicy policy = new HedgingPolicy().withMinDelay(Duration.ofMillis(5))
+            .withMaxDelay(Duration.ofMillis(500));
+
+    @Test
+    public void shouldNotHedgeWithoutEnoughLatencies() {
+        for (int i = 0; i < 19; i++) {
+            policy.recordLatency("payments/:identity", MILLISECONDS.toNanos(10));
+        }
+        assertThat(policy.onRequest("payments/:identity")).isEqualTo(-1);
+        assertThat(policy.onRequest("mandates/:identity")).isEqualTo(-1);
+    }
+
+    @Test
+    public void shouldHedgeAtThePercentileOfRecentLatencies() {
+        for (int i = 1; i <= 100; i++) {
+            policy.recordLatency("payments/:identity", MILLISECONDS.toNanos(i));
+        }
+        assertThat(policy.onRequest("payments/:identity")).isEqualTo(MILLISECONDS.toNanos(95));
+        policy.withPercentile(50);
+        assertThat(policy.onRequest("payments/:identity")).isEqualTo(MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    public void shouldKeepTheDelayWithinTheMinAndMax() {
+        for (int i = 0; i < 100; i++) {
+            policy.recordLatency("payments/:identity", MILLISECONDS.toNanos(1));
+            policy.recordLatency("mandates/:identity", MILLISECONDS.toNanos(1000));
+        }
+        assertThat(policy.onRequest("payments/:identity")).isEqualTo(MILLISECONDS.toNanos(5));
+        assertThat(policy.onRequest("mandates/:identity")).isEqualTo(MILLISECONDS.toNanos(500));
+    }
+
+    @Test
+    public void shouldLimitHedgesToTheBudget() {
+        policy.withBudget(0.1, 0);
+        for (int i = 0; i < 20; i++) {
+            policy.onRequest("payments/:identity");
+        }
+        assertThat(policy.tryHedge()).isTrue();
+        assertThat(policy.tryHedge()).isTrue();
+        assertThat(policy.tryHedge()).isFalse();
+    }
+}
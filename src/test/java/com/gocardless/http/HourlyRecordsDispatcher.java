@@ -0,0 +1,73 @@
+package com.gocardless.http;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * Serves a list endpoint containing one record per hour between two instants, honouring the
+ * created_at[gte] and created_at[lt] filters and paginating with the given page size. Like the
+ * API, it lists the newest records first.
+ *
+ * Each record's string field is its creation time and its int field is its index.
+ */
+public class HourlyRecordsDispatcher extends Dispatcher {
+    private final Instant from;
+    private final Instant to;
+    private final int pageSize;
+    private final Queue<RecordedRequest> requests = new ConcurrentLinkedQueue<>();
+
+    public HourlyRecordsDispatcher(Instant from, Instant to, int pageSize) {
+        this.from = from;
+        this.to = to;
+        this.pageSize = pageSize;
+    }
+
+    public int recordCount() {
+        return (int) Duration.between(from, to).toHours();
+    }
+
+    public Queue<RecordedRequest> getRequests() {
+        return requests;
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) {
+        requests.add(request);
+        HttpUrl url = request.getRequestUrl();
+        Instant gte = parse(url.queryParameter("created_at[gte]"), from);
+        Instant lt = parse(url.queryParameter("created_at[lt]"), to);
+        int start = firstIndexAtOrAfter(gte);
+        int index = url.queryParameter("after") == null ? firstIndexAtOrAfter(lt) - 1
+                : Integer.parseInt(url.queryParameter("after")) - 1;
+        StringBuilder items = new StringBuilder();
+        int last = index;
+        for (int i = index; i >= start && i > index - pageSize; i--) {
+            if (items.length() > 0) {
+                items.append(',');
+            }
+            items.append("{\"string_field\":\"").append(from.plus(Duration.ofHours(i)))
+                    .append("\",\"int_field\":").append(i).append('}');
+            last = i;
+        }
+        String cursors = index - pageSize >= start ? "{\"after\":\"" + last + "\"}" : "{}";
+        return new MockResponse().setResponseCode(200).setBody("{\"items\":[" + items
+                + "],\"meta\":{\"cursors\":" + cursors + ",\"limit\":" + pageSize + "}}");
+    }
+
+    private int firstIndexAtOrAfter(Instant instant) {
+        long millis = Duration.between(from, instant).toMillis();
+        long hour = Duration.ofHours(1).toMillis();
+        int index = (int) ((millis + hour - 1) / hour);
+        return Math.max(0, Math.min(index, recordCount()));
+    }
+
+    private static Instant parse(String value, Instant defaultValue) {
+        return value == null ? defaultValue : Instant.parse(value);
+    }
+}
@@ -1,10 +1,14 @@
 package com.gocardless.http;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.isA;
 
 import com.gocardless.errors.ValidationFailedException;
 import com.google.common.collect.ImmutableMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -107,6 +111,31 @@ public class IdempotentPostRequestTest {
                 ImmutableMap.of("Authorization", "Bearer token", "Accept-Language", "fr-FR"));
     }
 
+    @Test
+    public void shouldHandleConflictByPerformingGetAsynchronously() throws Exception {
+        http.enqueueNetworkFailure();
+        http.enqueueResponse(409, "fixtures/conflict.json");
+        http.enqueueResponse(200, "fixtures/single.json");
+        HttpTestUtil.DummyItem result = new DummyPostRequest()
+                .withHeader("Accept-Language", "fr-FR").executeAsync().get(5, SECONDS);
+        assertThat(result.stringField).isEqualTo("foo");
+        assertThat(result.intField).isEqualTo(123);
+        http.takeRequest();
+        http.assertRequestMade("POST", "/dummy", "fixtures/single.json",
+                ImmutableMap.of("Authorization", "Bearer token", "Accept-Language", "fr-FR"));
+        http.assertRequestMade("GET", "/dummy/ID123",
+                ImmutableMap.of("Authorization", "Bearer token", "Accept-Language", "fr-FR"));
+    }
+
+    @Test
+    public void shouldPropagateExceptionForNonConflictErrorAsynchronously() throws Exception {
+        http.enqueueResponse(422, "fixtures/validation_failed.json");
+        CompletableFuture<HttpTestUtil.DummyItem> future = new DummyPostRequest().executeAsync();
+        exception.expect(ExecutionException.class);
+        exception.expectCause(isA(ValidationFailedException.class));
+        future.get(5, SECONDS);
+    }
+
     @Test
     public void shouldPropagateExceptionForNonConflictError() throws Exception {
         http.enqueueResponse(422, "fixtures/validation_failed.json");
@@ -0,0 +1,121 @@
+package com.gocardless.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gocardless.http.HedgedCallTest.DummyGetRequest;
+import com.gocardless.http.HttpTestUtil.DummyItem;
+import com.google.common.base.Ticker;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import okhttp3.OkHttpClient;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class InMemoryResponseCacheTest {
+    @Rule
+    public final MockHttp http = new MockHttp();
+    private final FakeTicker ticker = new FakeTicker();
+    private final InMemoryResponseCache cache =
+            new InMemoryResponseCache(ticker).withTtl(DummyItem.class, Duration.ofMinutes(1));
+
+    @Test
+    public void shouldReturnCachedResponses() {
+        cache.put(DummyItem.class, "a", "body");
+        assertThat(cache.get(DummyItem.class, "a")).isEqualTo("body");
+        assertThat(cache.get(DummyItem.class, "b")).isNull();
+        InMemoryResponseCache.Stats stats = cache.getStats();
+        assertThat(stats.getHitCount()).isEqualTo(1);
+        assertThat(stats.getMissCount()).isEqualTo(1);
+        assertThat(stats.getEntryCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldOnlyCacheResourceTypesWithATtl() {
+        assertThat(cache.isCacheable(DummyItem.class)).isTrue();
+        assertThat(cache.isCacheable(String.class)).isFalse();
+        cache.put(String.class, "a", "body");
+        assertThat(cache.get(String.class, "a")).isNull();
+    }
+
+    @Test
+    public void shouldExpireResponsesAfterTheirTtl() {
+        cache.put(DummyItem.class, "a", "body");
+        ticker.advance(TimeUnit.SECONDS.toNanos(59));
+        assertThat(cache.get(DummyItem.class, "a")).isEqualTo("body");
+        ticker.advance(TimeUnit.SECONDS.toNanos(1));
+        assertThat(cache.get(DummyItem.class, "a")).isNull();
+        assertThat(cache.getStats().getSizeBytes()).isZero();
+    }
+
+    @Test
+    public void shouldEvictTheLeastRecentlyUsedResponsesWhenFull() {
+        cache.withMaximumSize(1000);
+        String body = new String(new char[200]);
+        cache.put(DummyItem.class, "a", body);
+        cache.put(DummyItem.class, "b", body);
+        cache.get(DummyItem.class, "a");
+        cache.put(DummyItem.class, "c", body);
+        assertThat(cache.get(DummyItem.class, "a")).isNotNull();
+        assertThat(cache.get(DummyItem.class, "b")).isNull();
+        assertThat(cache.get(DummyItem.class, "c")).isNotNull();
+        assertThat(cache.getStats().getEvictionCount()).isEqualTo(1);
+        assertThat(cache.getStats().getSizeBytes()).isLessThanOrEqualTo(1000);
+    }
+
+    @Test
+    public void shouldNotCacheResponsesLargerThanTheMaximumSize() {
+        cache.withMaximumSize(100);
+        cache.put(DummyItem.class, "a", new String(new char[100]));
+        assertThat(cache.getStats().getEntryCount()).isZero();
+    }
+
+    @Test
+    public void shouldAnswerRepeatedRequestsFromTheCache() throws Exception {
+        http.enqueueResponse(200, "fixtures/single.json");
+        HttpClient client = HttpClient.newBuilder("token", http.getBaseUrl(), new OkHttpClient())
+                .withResponseCache(cache).build();
+        DummyItem first = new DummyGetRequest(client).execute();
+        DummyItem second = new DummyGetRequest(client).executeAsync().get();
+        assertThat(first.stringField).isEqualTo("foo");
+        assertThat(second.stringField).isEqualTo("foo");
+        assertThat(second).isNotSameAs(first);
+        assertThat(http.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldRefreshTheCacheWhenBypassed() throws Exception {
+        http.enqueueResponse(200, "fixtures/single.json");
+        http.enqueueResponse(200, "fixtures/single.json");
+        HttpClient client = HttpClient.newBuilder("token", http.getBaseUrl(), new OkHttpClient())
+                .withResponseCache(cache).build();
+        new DummyGetRequest(client).execute();
+        new DummyGetRequest(client).withCacheBypass().execute();
+        new DummyGetRequest(client).execute();
+        assertThat(http.getRequestCount()).isEqualTo(2);
+        assertThat(cache.getStats().getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldKeepResponsesForDifferentAccessTokensApart() throws Exception {
+        http.enqueueResponse(200, "fixtures/single.json");
+        http.enqueueResponse(200, "fixtures/single.json");
+        new DummyGetRequest(HttpClient.newBuilder("token", http.getBaseUrl(),
+                new OkHttpClient()).withResponseCache(cache).build()).execute();
+        new DummyGetRequest(HttpClient.newBuilder("other", http.getBaseUrl(),
+                new OkHttpClient()).withResponseCache(cache).build()).execute();
+        assertThat(http.getRequestCount()).isEqualTo(2);
+    }
+
+    private static final class FakeTicker extends Ticker {
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long delta) {
+            nanos += delta;
+        }
+    }
+}
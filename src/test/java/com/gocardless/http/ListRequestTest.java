@@ -1,12 +1,16 @@
 package com.gocardless.http;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
 
+import com.gocardless.errors.MalformedResponseException;
 import com.gocardless.http.HttpTestUtil.DummyItem;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.gson.reflect.TypeToken;
 import java.util.List;
+import java.util.stream.Collectors;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -30,6 +34,18 @@ public class ListRequestTest {
                 ImmutableMap.of("Authorization", "Bearer token"));
     }
 
+    @Test
+    public void shouldReportMalformedSuccessfulResponse() throws Exception {
+        http.enqueueResponse(200, "fixtures/non_json_response.html");
+        try {
+            DummyListRequest.pageRequest(http.client()).execute();
+            fail("expected MalformedResponseException");
+        } catch (MalformedResponseException e) {
+            assertThat(e.getStatusCode()).isEqualTo(200);
+            assertThat(e.getResponseBody()).startsWith("<!DOCTYPE html>");
+        }
+    }
+
     @Test
     public void shouldRetryOnNetworkFailure() throws Exception {
         http.enqueueNetworkFailure();
@@ -76,6 +92,21 @@ public class ListRequestTest {
                 ImmutableMap.of("Authorization", "Bearer token", "Accept-Language", "fr-FR"));
     }
 
+    @Test
+    public void shouldPerformListRequestAsynchronously() throws Exception {
+        http.enqueueResponse(500, "fixtures/internal_error.json");
+        http.enqueueResponse(200, "fixtures/page.json");
+        ListResponse<DummyItem> result =
+                DummyListRequest.pageRequest(http.client()).executeAsync().get(5, SECONDS);
+        assertThat(result.getItems()).hasSize(2);
+        assertThat(result.getItems().get(0).stringField).isEqualTo("foo");
+        assertThat(result.getItems().get(1).stringField).isEqualTo("bar");
+        http.assertRequestMade("GET", "/dummy?id=123",
+                ImmutableMap.of("Authorization", "Bearer token"));
+        http.assertRequestMade("GET", "/dummy?id=123",
+                ImmutableMap.of("Authorization", "Bearer token"));
+    }
+
     @Test
     public void shouldBeAbleToIterateThroughList() throws Exception {
         http.enqueueResponse(200, "fixtures/first-page.json");
@@ -96,6 +127,17 @@ public class ListRequestTest {
                 ImmutableMap.of("Authorization", "Bearer token", "Accept-Language", "fr-FR"));
     }
 
+    @Test
+    public void shouldBeAbleToStreamThroughList() throws Exception {
+        http.enqueueResponse(200, "fixtures/first-page.json");
+        http.enqueueResponse(200, "fixtures/last-page.json");
+        List<String> result = DummyListRequest.iterableRequest(http.client()).stream()
+                .map(item -> item.stringField).collect(Collectors.toList());
+        assertThat(result).containsExactly("foo", "bar", "baz");
+        http.assertRequestMade("GET", "/dummy?id=123");
+        http.assertRequestMade("GET", "/dummy?after=ID123&id=123");
+    }
+
     @Test
     public void shouldNotAllowExecuteWrappedWhenIterating() {
         DummyListRequest<Iterable<DummyItem>> request =
@@ -136,6 +178,11 @@ public class ListRequestTest {
             return new TypeToken<List<DummyItem>>() {};
         }
 
+        @Override
+        protected boolean hasCreatedAtFilters() {
+            return true;
+        }
+
         static DummyListRequest<ListResponse<DummyItem>> pageRequest(HttpClient httpClient) {
             return new DummyListRequest<>(httpClient, ListRequest.<DummyItem>pagingExecutor());
         }
@@ -2,6 +2,7 @@ package com.gocardless.http;
 
 import static com.gocardless.http.HttpTestUtil.jsonMatchesFixture;
 import static com.google.common.base.Charsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.gocardless.GoCardlessClient;
@@ -10,6 +11,8 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.io.Resources;
 import java.io.IOException;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.RecordedRequest;
@@ -48,6 +51,10 @@ public class MockHttp extends ExternalResource {
         server.enqueue(response);
     }
 
+    public void setDispatcher(Dispatcher dispatcher) {
+        server.setDispatcher(dispatcher);
+    }
+
     public void enqueueNetworkFailure() {
         server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
     }
@@ -90,6 +97,10 @@ public class MockHttp extends ExternalResource {
         server.takeRequest();
     }
 
+    public int getRequestCount() {
+        return server.getRequestCount();
+    }
+
     public String getBaseUrl() {
         return String.format("http://localhost:%d", server.getPort());
     }
@@ -99,4 +110,52 @@ public class MockHttp extends ExternalResource {
                 GoCardlessClient.newBuilder("token").withBaseUrl(getBaseUrl()).build();
         return TestUtil.getHttpClient(client);
     }
+
+    /**
+     * Responds to every request with a fixture after a delay, recording the most requests waiting
+     * for a response at once.
+     */
+    public static final class SlowResponse extends Dispatcher {
+        private final AtomicInteger requests = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private final long delayMillis;
+        private final String body;
+        private boolean firstOnly;
+
+        public SlowResponse(long delayMillis) throws Exception {
+            this("fixtures/single.json", delayMillis);
+        }
+
+        public SlowResponse(String fixturePath, long delayMillis) throws Exception {
+            this.delayMillis = delayMillis;
+            this.body = Resources.toString(Resources.getResource(fixturePath), UTF_8);
+        }
+
+        /**
+         * Only delays the first request, responding to the rest straight away.
+         */
+        public SlowResponse firstOnly() {
+            this.firstOnly = true;
+            return this;
+        }
+
+        public int getMaxInFlight() {
+            return maxInFlight.get();
+        }
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+            boolean delayed = requests.getAndIncrement() == 0 || !firstOnly;
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                if (delayed) {
+                    MILLISECONDS.sleep(delayMillis);
+                }
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return new MockResponse().setResponseCode(200).setBody(body);
+        }
+    }
 }
@@ -2,17 +2,25 @@ package com.gocardless.http;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.gocardless.GoCardlessClient;
+import com.gocardless.TestUtil;
+import com.gocardless.errors.InvalidApiUsageException;
 import com.gocardless.http.HttpTestUtil.DummyItem;
 import com.gocardless.http.ListRequestTest.DummyListRequest;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
+import java.time.Duration;
+import java.util.Iterator;
 import java.util.List;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 
 public class PaginatingIterableTest {
     @Rule
     public final MockHttp http = new MockHttp();
+    @Rule
+    public final ExpectedException exception = ExpectedException.none();
 
     @Test
     public void shouldIterateThroughPages() throws Exception {
@@ -102,4 +110,110 @@ public class PaginatingIterableTest {
         http.assertRequestMade("GET", "/dummy?after=ID123&limit=2&id=123",
                 ImmutableMap.of("Authorization", "Bearer token"));
     }
+
+    @Test
+    public void shouldIterateThroughPagesWithPrefetching() throws Exception {
+        http.enqueueResponse(200, "fixtures/first-page.json");
+        http.enqueueResponse(200, "fixtures/last-page.json");
+        HttpClient client = prefetchingClient(2, 100);
+        DummyListRequest<Iterable<DummyItem>> request = DummyListRequest.iterableRequest(client);
+        request.setLimit(2);
+        Iterable<DummyItem> iterable = new PaginatingIterable<>(request, client);
+        List<DummyItem> items = Lists.newArrayList(iterable);
+        assertThat(items).hasSize(3);
+        assertThat(items.get(0).stringField).isEqualTo("foo");
+        assertThat(items.get(1).stringField).isEqualTo("bar");
+        assertThat(items.get(2).stringField).isEqualTo("baz");
+        http.assertRequestMade("GET", "/dummy?limit=2&id=123",
+                ImmutableMap.of("Authorization", "Bearer token"));
+        http.assertRequestMade("GET", "/dummy?after=ID123&limit=2&id=123",
+                ImmutableMap.of("Authorization", "Bearer token"));
+    }
+
+    @Test
+    public void shouldCopeWithEmptyLastPageWithPrefetching() throws Exception {
+        http.enqueueResponse(200, "fixtures/first-page.json");
+        http.enqueueResponse(200, "fixtures/empty-page.json");
+        HttpClient client = prefetchingClient(2, 100);
+        DummyListRequest<Iterable<DummyItem>> request = DummyListRequest.iterableRequest(client);
+        List<DummyItem> items = Lists.newArrayList(new PaginatingIterable<>(request, client));
+        assertThat(items).hasSize(2);
+        assertThat(items.get(0).stringField).isEqualTo("foo");
+        assertThat(items.get(1).stringField).isEqualTo("bar");
+    }
+
+    @Test
+    public void shouldStopPrefetchingWhenBufferIsFull() throws Exception {
+        http.enqueueResponse(200, "fixtures/first-page.json");
+        http.enqueueResponse(200, "fixtures/page.json");
+        http.enqueueResponse(200, "fixtures/last-page.json");
+        HttpClient client = prefetchingClient(1, 100);
+        DummyListRequest<Iterable<DummyItem>> request = DummyListRequest.iterableRequest(client);
+        PrefetchingPaginatingIterator<DummyItem> iterator =
+                (PrefetchingPaginatingIterator<DummyItem>) new PaginatingIterable<>(request,
+                        client).iterator();
+        assertThat(iterator.next().intField).isEqualTo(111);
+        // The second page is fetched while the first is consumed, but the third has to wait
+        // until there's room for it.
+        long deadline = System.currentTimeMillis() + 5000;
+        synchronized (iterator) {
+            while (iterator.getBufferedPages() == 0 && System.currentTimeMillis() < deadline) {
+                iterator.wait(Math.max(1, deadline - System.currentTimeMillis()));
+            }
+        }
+        assertThat(iterator.isFetching()).isFalse();
+        assertThat(http.getRequestCount()).isEqualTo(2);
+        List<DummyItem> rest = Lists.newArrayList(iterator);
+        assertThat(rest).hasSize(4);
+        assertThat(rest.get(3).stringField).isEqualTo("baz");
+        assertThat(http.getRequestCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldStopPrefetchingWhenClosed() throws Exception {
+        http.enqueueResponse(200, "fixtures/first-page.json");
+        http.enqueueResponse(200, "fixtures/page.json");
+        http.enqueueResponse(200, "fixtures/last-page.json");
+        HttpClient client = prefetchingClient(1, 100);
+        DummyListRequest<Iterable<DummyItem>> request = DummyListRequest.iterableRequest(client);
+        CloseableIterator<DummyItem> iterator =
+                new PaginatingIterable<>(request, client).iterator();
+        assertThat(iterator.next().intField).isEqualTo(111);
+        iterator.close();
+        assertThat(iterator.hasNext()).isFalse();
+        // Closing the client waits for whatever the iterator still has in flight.
+        assertThat(client.close(Duration.ofSeconds(5))).isTrue();
+        assertThat(http.getRequestCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    public void shouldRetryOnInternalErrorWithPrefetching() throws Exception {
+        http.enqueueResponse(200, "fixtures/first-page.json");
+        http.enqueueResponse(500, "fixtures/internal_error.json");
+        http.enqueueResponse(200, "fixtures/last-page.json");
+        HttpClient client = prefetchingClient(2, 100);
+        DummyListRequest<Iterable<DummyItem>> request = DummyListRequest.iterableRequest(client);
+        List<DummyItem> items = Lists.newArrayList(new PaginatingIterable<>(request, client));
+        assertThat(items).hasSize(3);
+        assertThat(items.get(2).stringField).isEqualTo("baz");
+    }
+
+    @Test
+    public void shouldPropagateErrorsWithPrefetching() throws Exception {
+        http.enqueueResponse(200, "fixtures/first-page.json");
+        http.enqueueResponse(400, "fixtures/invalid_api_usage.json");
+        HttpClient client = prefetchingClient(2, 100);
+        DummyListRequest<Iterable<DummyItem>> request = DummyListRequest.iterableRequest(client);
+        Iterator<DummyItem> iterator = new PaginatingIterable<>(request, client).iterator();
+        assertThat(iterator.next().stringField).isEqualTo("foo");
+        assertThat(iterator.next().stringField).isEqualTo("bar");
+        exception.expect(InvalidApiUsageException.class);
+        iterator.next();
+    }
+
+    private HttpClient prefetchingClient(int pages, int maxItems) {
+        GoCardlessClient client = GoCardlessClient.newBuilder("token")
+                .withBaseUrl(http.getBaseUrl()).withPaginationPrefetch(pages, maxItems).build();
+        return TestUtil.getHttpClient(client);
+    }
 }
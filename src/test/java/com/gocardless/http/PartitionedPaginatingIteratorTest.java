@@ -0,0 +1,134 @@
+package com.gocardless.http;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gocardless.GoCardlessClient;
+import com.gocardless.errors.InvalidApiUsageException;
+import com.gocardless.http.HttpTestUtil.DummyItem;
+import com.gocardless.http.ListRequestTest.DummyListRequest;
+import com.google.common.collect.ContiguousSet;
+import com.google.common.collect.DiscreteDomain;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Range;
+import com.google.common.io.Resources;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class PartitionedPaginatingIteratorTest {
+    private static final Instant FROM = Instant.parse("2020-01-01T00:00:00Z");
+    private static final Instant MIDDLE = Instant.parse("2020-01-02T00:00:00Z");
+    private static final Instant TO = Instant.parse("2020-01-03T00:00:00Z");
+    @Rule
+    public final MockHttp http = new MockHttp();
+    @Rule
+    public final ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void shouldIterateThroughWindowsInOrder() throws Exception {
+        HourlyRecordsDispatcher dispatcher = new HourlyRecordsDispatcher(FROM, TO, 5);
+        http.setDispatcher(dispatcher);
+        DummyListRequest<Iterable<DummyItem>> request =
+                DummyListRequest.iterableRequest(http.client());
+        List<DummyItem> items = Lists.newArrayList(request.withHeader("Accept-Language", "fr-FR")
+                .executeInParallel(new ParallelPagination(FROM, TO).withWindows(3)));
+        // Windows are returned newest first, like the API returns items within each window.
+        assertThat(items).extracting("intField").containsExactlyElementsOf(
+                ContiguousSet.create(Range.closedOpen(0, 48), DiscreteDomain.integers())
+                        .descendingSet());
+        // Each of the three windows holds 16 records, so takes four pages of five.
+        assertThat(dispatcher.getRequests()).hasSize(12);
+        for (RecordedRequest recorded : dispatcher.getRequests()) {
+            assertThat(recorded.getHeader("Accept-Language")).isEqualTo("fr-FR");
+            assertThat(recorded.getRequestUrl().queryParameter("id")).isEqualTo("123");
+        }
+    }
+
+    @Test
+    public void shouldIterateInTheSameOrderAsPaginatingThroughTheRange() throws Exception {
+        http.setDispatcher(new HourlyRecordsDispatcher(FROM, TO, 5));
+        DummyListRequest<Iterable<DummyItem>> request =
+                DummyListRequest.iterableRequest(http.client());
+        List<DummyItem> windowed = Lists.newArrayList(
+                request.executeInParallel(new ParallelPagination(FROM, TO).withWindows(5)));
+        List<DummyItem> paginated = Lists.newArrayList(request.execute());
+        assertThat(windowed).extracting("intField").containsExactlyElementsOf(
+                paginated.stream().map(item -> item.intField).collect(toList()));
+    }
+
+    @Test
+    public void shouldIterateThroughWindowsUnordered() throws Exception {
+        http.setDispatcher(new HourlyRecordsDispatcher(FROM, TO, 5));
+        DummyListRequest<Iterable<DummyItem>> request =
+                DummyListRequest.iterableRequest(http.client());
+        List<DummyItem> items = Lists.newArrayList(request.executeInParallel(
+                new ParallelPagination(FROM, TO).withWindows(3).withOrdered(false)));
+        assertThat(items).extracting("intField").containsExactlyInAnyOrderElementsOf(
+                ContiguousSet.create(Range.closedOpen(0, 48), DiscreteDomain.integers()));
+    }
+
+    @Test
+    public void shouldRespectItemBufferWhenOrdered() throws Exception {
+        http.setDispatcher(new HourlyRecordsDispatcher(FROM, TO, 5));
+        DummyListRequest<Iterable<DummyItem>> request =
+                DummyListRequest.iterableRequest(http.client());
+        List<DummyItem> items = Lists.newArrayList(request.executeInParallel(
+                new ParallelPagination(FROM, TO).withWindows(4).withMaxBufferedItems(1)));
+        assertThat(items).extracting("intField").containsExactlyElementsOf(
+                ContiguousSet.create(Range.closedOpen(0, 48), DiscreteDomain.integers())
+                        .descendingSet());
+    }
+
+    @Test
+    public void shouldPropagateErrors() throws Exception {
+        final String body = Resources.toString(
+                Resources.getResource("fixtures/invalid_api_usage.json"), StandardCharsets.UTF_8);
+        http.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setResponseCode(400).setBody(body);
+            }
+        });
+        DummyListRequest<Iterable<DummyItem>> request =
+                DummyListRequest.iterableRequest(http.client());
+        Iterable<DummyItem> items =
+                request.executeInParallel(new ParallelPagination(FROM, TO).withWindows(2));
+        exception.expect(InvalidApiUsageException.class);
+        Lists.newArrayList(items);
+    }
+
+    @Test
+    public void shouldRejectEndpointsWithoutCreatedAtFilters() {
+        GoCardlessClient client =
+                GoCardlessClient.newBuilder("token").withBaseUrl(http.getBaseUrl()).build();
+        exception.expect(IllegalStateException.class);
+        client.mandateImportEntries().all()
+                .executeInParallel(new ParallelPagination(FROM, TO).withWindows(2));
+    }
+
+    @Test
+    public void shouldSplitWindowsEvenlyNewestFirst() {
+        List<CreatedAtWindow> windows = new CreatedAtWindow(FROM, TO).split(2);
+        assertThat(windows).hasSize(2);
+        assertThat(windows.get(0).getFrom()).isEqualTo(MIDDLE);
+        assertThat(windows.get(0).getTo()).isEqualTo(TO);
+        assertThat(windows.get(1).getFrom()).isEqualTo(FROM);
+        assertThat(windows.get(1).getTo()).isEqualTo(MIDDLE);
+    }
+
+    @Test
+    public void shouldNotSplitWindowsBeyondMilliseconds() {
+        List<CreatedAtWindow> windows =
+                new CreatedAtWindow(FROM, FROM.plusMillis(3)).split(10);
+        assertThat(windows).hasSize(3);
+        assertThat(windows.get(0).getTo()).isEqualTo(FROM.plusMillis(3));
+        assertThat(windows.get(2).getFrom()).isEqualTo(FROM);
+    }
+}
@@ -1,5 +1,6 @@
 package com.gocardless.http;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.gocardless.http.HttpTestUtil.DummyItem;
@@ -56,6 +57,16 @@ public class PostRequestTest {
                 ImmutableMap.of("Authorization", "Bearer token", "Accept-Language", "fr-FR"));
     }
 
+    @Test
+    public void shouldPerformPostRequestWithBodyAsynchronously() throws Exception {
+        http.enqueueResponse(200, "fixtures/single.json");
+        DummyItem result = new DummyPostRequestWithBody().executeAsync().get(5, SECONDS);
+        assertThat(result.stringField).isEqualTo("foo");
+        assertThat(result.intField).isEqualTo(123);
+        http.assertRequestMade("POST", "/dummy", "fixtures/single.json",
+                ImmutableMap.of("Authorization", "Bearer token"));
+    }
+
     private class DummyPostRequest extends PostRequest<DummyItem> {
         public DummyPostRequest() {
             super(http.client());
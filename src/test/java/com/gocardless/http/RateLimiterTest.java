@@ -0,0 +1,214 @@
+package com.gocardless.http;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Headers;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class RateLimiterTest {
+    @Rule
+    public final MockHttp http = new MockHttp();
+    private final FakeTicker ticker = new FakeTicker();
+    private final RateLimiter limiter = new RateLimiter(ticker);
+
+    @Test
+    public void shouldNotDelayRequestsBeforeSeeingRateLimitHeaders() {
+        for (int i = 0; i < 100; i++) {
+            assertThat(limiter.reserve()).isZero();
+        }
+    }
+
+    @Test
+    public void shouldIgnoreResponsesWithoutRateLimitHeaders() {
+        limiter.reserve();
+        limiter.update(Headers.of("Content-Type", "application/json"));
+        assertThat(limiter.reserve()).isZero();
+    }
+
+    @Test
+    public void shouldAllowBurstsOfATenthOfTheLimit() {
+        respond(1000, 1000, 60);
+        for (int i = 0; i < 100; i++) {
+            assertThat(limiter.reserve()).isZero();
+        }
+        assertThat(limiter.reserve()).isPositive();
+    }
+
+    @Test
+    public void shouldSpreadRemainingRequestsOverTheWindow() {
+        respond(1000, 500, 50);
+        for (int i = 0; i < 100; i++) {
+            limiter.reserve();
+        }
+        // The other 400 requests are spread over the 50 seconds left, one every 125ms
+        assertThat(limiter.reserve()).isEqualTo(MILLISECONDS.toNanos(125));
+        assertThat(limiter.reserve()).isEqualTo(MILLISECONDS.toNanos(250));
+        ticker.advance(MILLISECONDS.toNanos(250));
+        assertThat(limiter.reserve()).isEqualTo(MILLISECONDS.toNanos(125));
+    }
+
+    @Test
+    public void shouldWaitForTheWindowToResetOnceExhausted() {
+        respond(1000, 0, 30);
+        assertThat(limiter.reserve()).isEqualTo(SECONDS.toNanos(30));
+        ticker.advance(SECONDS.toNanos(30));
+        assertThat(limiter.reserve()).isZero();
+    }
+
+    @Test
+    public void shouldSpreadRequestsWaitingForTheResetOverTheNextWindow() {
+        respond(1000, 500, 60);
+        respond(1000, 0, 30);
+        // The window is 60 seconds long, so 1000 requests are let through one every 60ms
+        assertThat(limiter.reserve()).isEqualTo(SECONDS.toNanos(30));
+        assertThat(limiter.reserve()).isEqualTo(SECONDS.toNanos(30) + MILLISECONDS.toNanos(60));
+        assertThat(limiter.reserve()).isEqualTo(SECONDS.toNanos(30) + MILLISECONDS.toNanos(120));
+    }
+
+    @Test
+    public void shouldCountRequestsStillInFlightAgainstTheRemainingRequests() {
+        respond(1000, 3, 30);
+        limiter.reserve();
+        limiter.reserve();
+        limiter.reserve();
+        // The first response still counts the other two requests as remaining
+        limiter.update(headers(1000, 2, 30));
+        assertThat(limiter.reserve()).isEqualTo(SECONDS.toNanos(30));
+    }
+
+    @Test
+    public void shouldReadResetAsAnHttpDateRelativeToTheDateHeader() {
+        limiter.reserve();
+        limiter.update(Headers.of(ImmutableMap.of(RateLimiter.LIMIT_HEADER, "1000",
+                RateLimiter.REMAINING_HEADER, "0", RateLimiter.RESET_HEADER,
+                "Thu, 01 Jan 2015 00:01:00 GMT", "Date", "Thu, 01 Jan 2015 00:00:15 GMT")));
+        assertThat(limiter.reserve()).isEqualTo(SECONDS.toNanos(45));
+    }
+
+    @Test
+    public void shouldNotCountFailedRequestsAgainstTheRemainingRequests() {
+        respond(1000, 100, 30);
+        limiter.reserve();
+        limiter.release();
+        limiter.reserve();
+        limiter.update(headers(1000, 1, 30));
+        assertThat(limiter.reserve()).isZero();
+    }
+
+    @Test
+    public void shouldDelayRequestsMadeThroughTheInterceptor() throws Exception {
+        http.enqueueResponse(200, "fixtures/single.json", ImmutableMap.of(
+                RateLimiter.LIMIT_HEADER, "1000", RateLimiter.REMAINING_HEADER, "0",
+                RateLimiter.RESET_HEADER, "1"));
+        http.enqueueResponse(200, "fixtures/single.json");
+        OkHttpClient client = new OkHttpClient.Builder().addInterceptor(new RateLimiter()).build();
+        Request request = new Request.Builder().url(http.getBaseUrl() + "/dummy").build();
+        client.newCall(request).execute().close();
+        long start = System.nanoTime();
+        try (Response response = client.newCall(request).execute()) {
+            assertThat(response.code()).isEqualTo(200);
+        }
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(MILLISECONDS.toNanos(900));
+    }
+
+    @Test
+    public void shouldStopWaitingWhenTheCallTimesOut() throws Exception {
+        http.enqueueResponse(200, "fixtures/single.json", ImmutableMap.of(
+                RateLimiter.LIMIT_HEADER, "1000", RateLimiter.REMAINING_HEADER, "0",
+                RateLimiter.RESET_HEADER, "60"));
+        OkHttpClient client = new OkHttpClient.Builder().addInterceptor(new RateLimiter())
+                .callTimeout(200, MILLISECONDS).build();
+        Request request = new Request.Builder().url(http.getBaseUrl() + "/dummy").build();
+        client.newCall(request).execute().close();
+        long start = System.nanoTime();
+        try {
+            client.newCall(request).execute().close();
+            fail("Expected the call to time out");
+        } catch (InterruptedIOException e) {
+            assertThat(System.nanoTime() - start).isLessThan(SECONDS.toNanos(5));
+        }
+        assertThat(http.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldStopWaitingWhenTheCallIsCancelled() throws Exception {
+        http.enqueueResponse(200, "fixtures/single.json", ImmutableMap.of(
+                RateLimiter.LIMIT_HEADER, "1000", RateLimiter.REMAINING_HEADER, "0",
+                RateLimiter.RESET_HEADER, "60"));
+        OkHttpClient client = new OkHttpClient.Builder().addInterceptor(new RateLimiter()).build();
+        Request request = new Request.Builder().url(http.getBaseUrl() + "/dummy").build();
+        client.newCall(request).execute().close();
+        Call call = client.newCall(request);
+        CompletableFuture<IOException> failure = new CompletableFuture<>();
+        call.enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                failure.complete(e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                response.close();
+                failure.complete(null);
+            }
+        });
+        while (client.dispatcher().runningCallsCount() == 0) {
+            Thread.yield();
+        }
+        call.cancel();
+        assertThat(failure.get(5, SECONDS)).isNotNull();
+        assertThat(http.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldPaceTaggedRequestsWithTheirOwnLimiter() throws Exception {
+        http.enqueueResponse(200, "fixtures/single.json", ImmutableMap.of(
+                RateLimiter.LIMIT_HEADER, "1000", RateLimiter.REMAINING_HEADER, "0",
+                RateLimiter.RESET_HEADER, "60"));
+        OkHttpClient client = new OkHttpClient.Builder().addInterceptor(limiter).build();
+        RateLimiter tagged = new RateLimiter();
+        Request request = new Request.Builder().url(http.getBaseUrl() + "/dummy")
+                .tag(RateLimiter.class, tagged).build();
+        client.newCall(request).execute().close();
+        assertThat(limiter.reserve()).isZero();
+        assertThat(tagged.reserve()).isPositive();
+    }
+
+    private void respond(long limit, long remaining, long resetInSeconds) {
+        limiter.reserve();
+        limiter.update(headers(limit, remaining, resetInSeconds));
+    }
+
+    private static Headers headers(long limit, long remaining, long resetInSeconds) {
+        return Headers.of(RateLimiter.LIMIT_HEADER, String.valueOf(limit),
+                RateLimiter.REMAINING_HEADER, String.valueOf(remaining),
+                RateLimiter.RESET_HEADER, String.valueOf(resetInSeconds));
+    }
+
+    private static final class FakeTicker extends Ticker {
+        private long nanos = 1_000_000_000L;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long delta) {
+            nanos += delta;
+        }
+    }
+}
@@ -4,6 +4,8 @@ import static com.gocardless.http.HttpTestUtil.jsonMatchesFixture;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.IOException;
+import okhttp3.RequestBody;
+import okio.Buffer;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -27,6 +29,39 @@ public class RequestWriterTest {
         assertThat(jsonMatchesFixture(result, "fixtures/single.json")).isTrue();
     }
 
+    @Test
+    public void shouldStreamRequestBodyAsJson() throws IOException {
+        RequestBody body = writer.toRequestBody(new DummyRequestWithPathParam(), "items");
+        Buffer buffer = new Buffer();
+        body.writeTo(buffer);
+        assertThat(body.contentType().toString()).isEqualTo("application/json; charset=utf-8");
+        assertThat(jsonMatchesFixture(buffer.readUtf8(), "fixtures/single.json")).isTrue();
+    }
+
+    @Test
+    public void shouldGiveRequestBodyLength() throws IOException {
+        RequestBody body = writer.toRequestBody(new UnicodeRequest(), "items");
+        Buffer first = new Buffer();
+        body.writeTo(first);
+        Buffer second = new Buffer();
+        body.writeTo(second);
+        assertThat(body.contentLength()).isEqualTo(first.size());
+        assertThat(second.readUtf8()).isEqualTo(first.readUtf8());
+    }
+
+    @Test
+    public void shouldStreamNonAsciiCharactersAsUtf8() throws IOException {
+        RequestBody body = writer.toRequestBody(new UnicodeRequest(), "items");
+        Buffer buffer = new Buffer();
+        body.writeTo(buffer);
+        assertThat(buffer.readUtf8())
+                .isEqualTo("{\"items\":{\"name\":\"Caf\u00e9 \u00a310 \ud83d\ude00\"}}");
+    }
+
+    private class UnicodeRequest {
+        private String name = "Caf\u00e9 \u00a310 \ud83d\ude00";
+    }
+
     private class DummyRequest {
         private int intField = 123;
         private String stringField = "foo";
@@ -11,6 +11,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.io.Resources;
 import com.google.gson.reflect.TypeToken;
 import java.io.IOException;
+import java.io.StringReader;
 import java.net.URL;
 import java.util.List;
 import org.junit.Before;
@@ -66,6 +67,32 @@ public class ResponseParserTest {
         assertThat(result.getLimit()).isEqualTo(50);
     }
 
+    @Test
+    public void shouldParsePageFromReaderSkippingUnknownFields() throws IOException {
+        String responseBody = "{\"unknown\":{\"nested\":[1,2]},"
+                + "\"items\":[{\"string_field\":\"foo\",\"int_field\":1,\"extra\":true}],"
+                + "\"linked\":{\"payments\":[]},"
+                + "\"meta\":{\"cursors\":{\"after\":\"ID1\"},\"limit\":1}}";
+        ListResponse<DummyItem> result = parser.parsePage(new StringReader(responseBody), "items",
+                new TypeToken<List<DummyItem>>() {});
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.getItems().get(0).stringField).isEqualTo("foo");
+        assertThat(result.getAfter()).isEqualTo("ID1");
+        assertThat(result.getLimit()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldHandleNonJsonSuccessResponse() throws IOException {
+        URL resource = Resources.getResource("fixtures/non_json_response.html");
+        String responseBody = Resources.toString(resource, UTF_8);
+        try {
+            parser.parseSingle(responseBody, "items", DummyItem.class);
+            fail("expected MalformedResponseException");
+        } catch (MalformedResponseException e) {
+            assertThat(e.getResponseBody()).isEqualTo(responseBody);
+        }
+    }
+
     @Test
     public void shouldParseInvalidApiUsageError() throws IOException {
         URL resource = Resources.getResource("fixtures/invalid_api_usage.json");
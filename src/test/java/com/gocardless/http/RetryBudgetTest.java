@@ -0,0 +1,60 @@
+package com.gocardless.http;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.base.Ticker;
+import org.junit.Test;
+
+public class RetryBudgetTest {
+    private final FakeTicker ticker = new FakeTicker();
+
+    @Test
+    public void shouldAllowRetriesInProportionToRequests() {
+        RetryBudget budget = new RetryBudget(0.2, 0, ticker);
+        for (int i = 0; i < 10; i++) {
+            budget.recordRequest();
+        }
+        assertThat(budget.tryRetry()).isTrue();
+        assertThat(budget.tryRetry()).isTrue();
+        assertThat(budget.tryRetry()).isFalse();
+    }
+
+    @Test
+    public void shouldAllowTheMinimumRetriesWithoutRequests() {
+        RetryBudget budget = new RetryBudget(0.2, 1, ticker);
+        for (int i = 0; i < 10; i++) {
+            assertThat(budget.tryRetry()).isTrue();
+        }
+        assertThat(budget.tryRetry()).isFalse();
+    }
+
+    @Test
+    public void shouldForgetRequestsAndRetriesAfterTenSeconds() {
+        RetryBudget budget = new RetryBudget(1, 0, ticker);
+        budget.recordRequest();
+        assertThat(budget.tryRetry()).isTrue();
+        ticker.advance(SECONDS.toNanos(5));
+        budget.recordRequest();
+        assertThat(budget.tryRetry()).isTrue();
+        assertThat(budget.tryRetry()).isFalse();
+        // The first request and retry fall out of the window
+        ticker.advance(SECONDS.toNanos(5));
+        assertThat(budget.tryRetry()).isFalse();
+        budget.recordRequest();
+        assertThat(budget.tryRetry()).isTrue();
+    }
+
+    private static final class FakeTicker extends Ticker {
+        private long nanos = SECONDS.toNanos(1000);
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(long delta) {
+            nanos += delta;
+        }
+    }
+}
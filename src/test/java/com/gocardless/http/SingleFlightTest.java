@@ -0,0 +1,120 @@
+package com.gocardless.http;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gocardless.http.HedgedCallTest.DummyGetRequest;
+import com.gocardless.http.HttpTestUtil.DummyItem;
+import com.google.common.base.Charsets;
+import com.google.common.io.Resources;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class SingleFlightTest {
+    @Rule
+    public final MockHttp http = new MockHttp();
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    @Test
+    public void shouldShareTheResultOfConcurrentIdenticalCalls() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                    calls.incrementAndGet();
+                    await(release);
+                    return "result";
+                }, null)));
+            }
+            // Give the other threads time to join the first call
+            MILLISECONDS.sleep(200);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get(5, SECONDS)).isEqualTo("result");
+            }
+            assertThat(calls.get()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldMakeCallsAgainOnceTheFirstHasFinished() {
+        AtomicInteger calls = new AtomicInteger();
+        singleFlight.execute("key", calls::incrementAndGet, null);
+        singleFlight.execute("key", calls::incrementAndGet, null);
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldShareErrors() throws Exception {
+        CompletableFuture<String> source = new CompletableFuture<>();
+        CompletableFuture<String> first = singleFlight.executeAsync("key", () -> source);
+        CompletableFuture<String> second = singleFlight.executeAsync("key", () -> {
+            throw new AssertionError("Should have shared the first call");
+        });
+        IllegalStateException error = new IllegalStateException();
+        source.completeExceptionally(error);
+        assertThat(first).isCompletedExceptionally();
+        assertThat(second).isCompletedExceptionally();
+        assertThat(second.handle((result, e) -> e).join()).isSameAs(error);
+    }
+
+    @Test
+    public void shouldOnlyCancelTheCallOnceEveryoneHasCancelled() {
+        CompletableFuture<String> source = new CompletableFuture<>();
+        CompletableFuture<String> first = singleFlight.executeAsync("key", () -> source);
+        CompletableFuture<String> second = singleFlight.executeAsync("key", () -> source);
+        first.cancel(true);
+        assertThat(source).isNotCancelled();
+        second.cancel(true);
+        assertThat(source).isCancelled();
+    }
+
+    @Test
+    public void shouldCoalesceIdenticalGetRequests() throws Exception {
+        String body = Resources.toString(Resources.getResource("fixtures/single.json"),
+                Charsets.UTF_8);
+        http.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setBody(body).setHeadersDelay(300, MILLISECONDS);
+            }
+        });
+        HttpClient client = HttpClient.newBuilder("token", http.getBaseUrl(), new OkHttpClient())
+                .withRequestCoalescing(true).build();
+        List<CompletableFuture<DummyItem>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(new DummyGetRequest(client).executeAsync());
+        }
+        DummyItem blocking = new DummyGetRequest(client).execute();
+        for (CompletableFuture<DummyItem> result : results) {
+            assertThat(result.get(5, SECONDS)).isSameAs(blocking);
+        }
+        assertThat(http.getRequestCount()).isEqualTo(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.gocardless.http;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.gocardless.GoCardlessClient;
+import com.gocardless.TestUtil;
+import com.gocardless.http.MockHttp.SlowResponse;
+import com.gocardless.resources.Customer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class StreamLimiterTest {
+    @Rule
+    public final MockHttp http = new MockHttp();
+    private final MockWebServer server = new MockWebServer();
+    private SlowResponse responses;
+
+    @Before
+    public void setUp() throws Exception {
+        responses = new SlowResponse("fixtures/client/get_a_customer.json", 200);
+        server.setProtocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE));
+        server.setDispatcher(responses);
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void shouldMultiplexRequestsOverOneConnection() throws Exception {
+        GoCardlessClient client = GoCardlessClient.newBuilder("token")
+                .withBaseUrl(server.url("/").toString()).withHttp2(1, 8).build();
+        for (CompletableFuture<Customer> customer : getCustomers(client, 8)) {
+            assertThat(customer.get(5, SECONDS).getId()).isEqualTo("CU00003068FG73");
+        }
+        assertThat(responses.getMaxInFlight()).isEqualTo(8);
+        assertThat(TestUtil.getHttpClient(client).getRawClient().connectionPool()
+                .connectionCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldLimitTheRequestsInFlight() throws Exception {
+        GoCardlessClient client = GoCardlessClient.newBuilder("token")
+                .withBaseUrl(server.url("/").toString()).withHttp2(1, 2).build();
+        for (CompletableFuture<Customer> customer : getCustomers(client, 6)) {
+            assertThat(customer.get(5, SECONDS).getId()).isEqualTo("CU00003068FG73");
+        }
+        assertThat(responses.getMaxInFlight()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldHoldAStreamUntilTheResponseBodyIsClosed() throws Exception {
+        OkHttpClient client = new OkHttpClient.Builder().addInterceptor(new StreamLimiter(1, 1))
+                .protocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE)).build();
+        Request request = new Request.Builder().url(server.url("/")).build();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Response first = client.newCall(request).execute();
+            Future<Integer> second =
+                    executor.submit(() -> client.newCall(request).execute().code());
+            MILLISECONDS.sleep(300);
+            assertThat(server.getRequestCount()).isEqualTo(1);
+            first.close();
+            assertThat(second.get(5, SECONDS)).isEqualTo(200);
+            assertThat(server.getRequestCount()).isEqualTo(2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldLimitTheRequestsInFlightToTheConnectionsOverHttp11() throws Exception {
+        SlowResponse slowResponses = new SlowResponse(200);
+        http.setDispatcher(slowResponses);
+        OkHttpClient client = new OkHttpClient.Builder().addInterceptor(new StreamLimiter(2, 4))
+                .protocols(Collections.singletonList(Protocol.HTTP_1_1)).build();
+        Request request = new Request.Builder().url(http.getBaseUrl()).build();
+        client.newCall(request).execute().close();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> codes = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                codes.add(executor.submit(() -> {
+                    try (Response response = client.newCall(request).execute()) {
+                        return response.code();
+                    }
+                }));
+            }
+            for (Future<Integer> code : codes) {
+                assertThat(code.get(5, SECONDS)).isEqualTo(200);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(slowResponses.getMaxInFlight()).isEqualTo(2);
+    }
+
+    private static List<CompletableFuture<Customer>> getCustomers(GoCardlessClient client,
+            int count) {
+        List<CompletableFuture<Customer>> customers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            customers.add(client.customers().get("CU00003068FG73").executeAsync());
+        }
+        return customers;
+    }
+
+}
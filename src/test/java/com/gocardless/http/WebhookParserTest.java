@@ -2,6 +2,7 @@ package com.gocardless.http;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.gocardless.errors.MalformedResponseException;
 import com.gocardless.resources.Event;
 import com.google.common.collect.ImmutableList;
 import java.io.IOException;
@@ -17,4 +18,14 @@ public class WebhookParserTest {
         assertThat(events.get(0).getId()).isEqualTo("EV00BD05S5VM2T");
         assertThat(events.get(1).getId()).isEqualTo("EV00BD05TB8K63");
     }
+
+    @Test(expected = MalformedResponseException.class)
+    public void shouldRejectAnEmptyWebhook() {
+        WebhookParser.parse("");
+    }
+
+    @Test(expected = MalformedResponseException.class)
+    public void shouldRejectATruncatedWebhook() {
+        WebhookParser.parse("{\"events\": [");
+    }
 }